@@ -1,5 +1,10 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Clase abstracta que modela un cargador genérico.
@@ -9,6 +14,9 @@ import java.util.List;
  * definiendo el esqueleto del algoritmo de carga y delegando los detalles específicos
  * (compatibilidad y cálculo de costes) a las subclases.
  * </p>
+ * <p>
+ * Los importes se calculan y acumulan en coma fija (micro-euros, ver {@link Money}).
+ * </p>
  * 
  * @author Pablo Carrasco Caballero
  * @version 2025.11.25
@@ -19,9 +27,21 @@ public abstract class Charger {
     protected String id;
     protected int velocidadCarga;
     protected float tarifaCarga;
+    /** Tarifa en micro-euros por kwh. */
+    protected long tarifaMicros;
     protected List<ElectricVehicle> vehiculosRecargados;
-    protected float cantidadRecaudada;
-    protected boolean estaLibre;
+    
+    /**
+     * Recaudación en micro-euros. LongAdder reparte las sumas entre celdas para
+     * que varios hilos puedan acumular sin contención.
+     */
+    private final LongAdder recaudadoMicros;
+    
+    /**
+     * Estado libre/ocupado. Es atómico para que adquirir el cargador sea una única
+     * operación CAS y dos vehículos no puedan ocuparlo a la vez.
+     */
+    private final AtomicBoolean libre;
     
     // --- Constructor ---
     
@@ -29,9 +49,10 @@ public abstract class Charger {
         this.id = id;
         this.velocidadCarga = velocidadCarga;
         this.tarifaCarga = tarifaCarga;
+        this.tarifaMicros = Money.deEuros(tarifaCarga);
         this.vehiculosRecargados = new ArrayList<>();
-        this.cantidadRecaudada = 0.0f;
-        this.estaLibre = true;
+        this.recaudadoMicros = new LongAdder();
+        this.libre = new AtomicBoolean(true);
     }
     
     // -- Patrón Template Method (método plantilla) ---
@@ -47,34 +68,84 @@ public abstract class Charger {
      * 
      * @param vehiculo El vehiculo que solicita la carga.
      * @param kwhARecargar La cantidad de energía a suministrar.
-     * @return El coste de la carga si es exitosa, o -1.0f si no es compatible.
+     * @return El coste exacto en micro-euros si es exitosa, o -1 si no es compatible.
      */
-    public final float recharge(ElectricVehicle vehiculo, int kwhARecargar) {
+    public final long rechargeMicros(ElectricVehicle vehiculo, int kwhARecargar) {
+        return rechargeMicros(vehiculo, kwhARecargar, null);
+    }
+    
+    /**
+     * Como {@link #rechargeMicros(ElectricVehicle, int)}, indicando la estación
+     * del cargador para el evento {@link SimulationEvents.Recharge}.
+     * 
+     * @param vehiculo El vehiculo que solicita la carga.
+     * @param kwhARecargar La cantidad de energía a suministrar.
+     * @param estacion Estación a la que pertenece el cargador, o null si no se conoce.
+     * @return El coste exacto en micro-euros si es exitosa, o -1 si no es compatible.
+     */
+    public final long rechargeMicros(ElectricVehicle vehiculo, int kwhARecargar, ChargingStation estacion) {
+        SimulationEvents.Recharge evento = new SimulationEvents.Recharge();
+        evento.begin();
+        
+        long coste;
         // Paso 1: comprobar compatibilidad (definido por las subclases)
         if(!esCompatible(vehiculo)) {
             // Si no es compatible, no realizamos la recarga.
-            return -1.0f; // Código de error o coste 0.
+            coste = -1; // Código de error.
+        } else {
+            // Paso 2: calcular el precio de la carga (puede ser sobreescrito por las subclases)
+            coste = calcularCoste(kwhARecargar);
+            
+            // Paso 3: actualizar métricas internas (común para todos)
+            actualizarMetricas(vehiculo, coste);
         }
         
-        // Paso 2: calcular el precio de la carga (puede ser sobreescrito por las subclases)
-        float coste = calcularCoste(kwhARecargar);
-        
-        // Paso 3: actualizar métricas internas (común para todos)
-        actualizarMetricas(vehiculo, coste);
-        
+        if(evento.shouldCommit()) {
+            evento.vehicleTier = vehiculo.getTipo().name();
+            evento.vehicle = vehiculo.getMatricula();
+            evento.station = (estacion == null) ? null : estacion.getId();
+            evento.charger = id;
+            evento.chargerType = getClass().getSimpleName();
+            evento.kwh = kwhARecargar;
+            evento.costMicros = coste;
+            evento.accepted = coste >= 0;
+            evento.commit();
+        }
         return coste;
     }
     
+    /**
+     * Versión en euros de {@link #rechargeMicros(ElectricVehicle, int)}.
+     * 
+     * @param vehiculo El vehiculo que solicita la carga.
+     * @param kwhARecargar La cantidad de energía a suministrar.
+     * @return El coste de la carga si es exitosa, o -1.0f si no es compatible.
+     */
+    public final float recharge(ElectricVehicle vehiculo, int kwhARecargar) {
+        long coste = rechargeMicros(vehiculo, kwhARecargar);
+        return (coste < 0) ? -1.0f : Money.aEuros(coste);
+    }
+    
     // --- Métodos abstractos y hooks (para los hijos) ---
     
     /**
      * Comprueba si este cargador es compatible con el tipo de vehículo dado.
      * Cada tipo de cargador define sus propias reglas de compatibilidad.
      * 
+     * @param tipo El tipo de vehículo a comprobar.
+     * @return true si es compatible, false en caso contrario.
+     */
+    public abstract boolean esCompatible(VehicleTier tipo);
+    
+    /**
+     * Comprueba si este cargador es compatible con el vehículo dado.
+     * 
      * @param vehiculo El vehiculo a comprobar.
      * @return true si es compatible, false en caso contrario.
      */
-    protected abstract boolean esCompatible(ElectricVehicle vehiculo);
+    protected boolean esCompatible(ElectricVehicle vehiculo) {
+        return esCompatible(vehiculo.getTipo());
+    }
     
     /**
      * Calcula el coste de la carga.
@@ -82,10 +153,10 @@ public abstract class Charger {
      * aplicar descuentos o recargos (override)
      * 
      * @param kwh Cantidad de energía.
-     * @return Precio final en euros.
+     * @return Precio final en micro-euros.
      */
-    protected float calcularCoste(int kwh) {
-        return kwh * this.tarifaCarga;
+    protected long calcularCoste(int kwh) {
+        return kwh * this.tarifaMicros;
     }
     
     // --- Métodos internos ---
@@ -93,23 +164,82 @@ public abstract class Charger {
     /**
      * Actualiza el registro de vehículos y la recaudación.
      */
-    private void actualizarMetricas(ElectricVehicle vehiculo, float coste) {
-        this.cantidadRecaudada += coste;
+    private void actualizarMetricas(ElectricVehicle vehiculo, long coste) {
+        this.recaudadoMicros.add(coste);
         
         if(vehiculo != null) {
             this.vehiculosRecargados.add(vehiculo);
         }
     }
     
+    /**
+     * Aplica una recarga leída de un {@link RechargeJournal}: solo actualiza las
+     * métricas, sin comprobar compatibilidad ni recalcular el coste.
+     */
+    void reproducirRecarga(ElectricVehicle vehiculo, long coste) {
+        actualizarMetricas(vehiculo, coste);
+    }
+    
+    // --- Adquisición atómica ---
+    
+    /**
+     * Intenta ocupar el cargador sin bloquear (compare-and-set libre -> ocupado).
+     * Seguro con varios hilos: solo uno de los que compitan por él lo consigue.
+     * 
+     * @return true si el cargador estaba libre y ahora pertenece al llamante.
+     */
+    public boolean tryAcquire() {
+        return libre.compareAndSet(true, false);
+    }
+    
+    /**
+     * Libera un cargador previamente adquirido con {@link #tryAcquire}.
+     */
+    public void release() {
+        libre.set(true);
+    }
+    
     // -- Getters y setters comunes ---
     
     public String getId() { return id; }
     public int getVelocidadCarga() { return velocidadCarga; }
     public float getTarifaCarga() { return tarifaCarga; }
-    public boolean estaLibre() { return estaLibre; }
-    public void setEstaLibre(boolean estaLibre) { this.estaLibre = estaLibre; }
+    public boolean estaLibre() { return libre.get(); }
+    public void setEstaLibre(boolean estaLibre) { this.libre.set(estaLibre); }
     public int getNumerEVRecharged() { return this.vehiculosRecargados.size(); }
-    public float getCantidadRecaudada() { return cantidadRecaudada; }
+    public float getCantidadRecaudada() { return Money.aEuros(recaudadoMicros.sum()); }
+    public long getRecaudadoMicros() { return recaudadoMicros.sum(); }
+    
+    // --- Checkpoint ---
+    
+    /**
+     * Escribe la recaudación, el estado libre/ocupado y el historial del cargador.
+     */
+    void escribirEstado(DataOutput out, Checkpoint.Indices indices) throws IOException {
+        out.writeLong(recaudadoMicros.sum());
+        out.writeBoolean(libre.get());
+        indices.escribirVehiculos(out, vehiculosRecargados, vehiculosRecargados.size());
+    }
+    
+    /**
+     * Restaura lo escrito por {@link #escribirEstado}.
+     */
+    void leerEstado(DataInput in, Checkpoint.Indices indices) throws IOException {
+        recaudadoMicros.reset();
+        recaudadoMicros.add(in.readLong());
+        libre.set(in.readBoolean());
+        vehiculosRecargados.clear();
+        vehiculosRecargados.addAll(indices.leerVehiculos(in));
+    }
+    
+    /**
+     * Deja el cargador libre, sin recaudación ni historial, reutilizando su memoria.
+     */
+    void reiniciar() {
+        recaudadoMicros.reset();
+        libre.set(true);
+        vehiculosRecargados.clear();
+    }
     
     // --- Métodos de información (toString) ---
     
@@ -38,4 +38,21 @@ public class ChargerFactory {
                 return new StandardCharger(id, velocidad, tarifa);
         }
     }
+    
+    /**
+     * Devuelve el tipo de un cargador ya creado (operación inversa de createCharger).
+     * 
+     * @param cargador El cargador.
+     * @return Su tipo.
+     */
+    public static ChargerType getTipo(Charger cargador) {
+        if (cargador instanceof SolarCharger) {
+            return ChargerType.SOLAR;
+        } else if (cargador instanceof UltraFastCharger) {
+            return ChargerType.ULTRAFAST;
+        } else if (cargador instanceof PriorityCharger) {
+            return ChargerType.PRIORITY;
+        }
+        return ChargerType.STANDARD;
+    }
 }
\ No newline at end of file
@@ -108,5 +108,23 @@ public class ChargerTest
         assertEquals(15.0f, standardCharger.getCantidadRecaudada(), 0.01);
         assertEquals(2, standardCharger.getNumerEVRecharged());
     }
+    
+    /**
+     * Prueba que la recaudación en coma fija es exacta tras muchas recargas
+     * pequeñas (con float acumulado se perderían céntimos).
+     */
+    @Test
+    public void testRecaudacionExacta()
+    {
+        Charger barato = new StandardCharger("STD_02", 100, 0.1f);
+        for (int i = 0; i < 1000000; i++) {
+            barato.rechargeMicros(standardEV, 1); // 0.10 € cada una
+        }
+        
+        assertEquals(100000L * Money.MICROS_POR_EURO, barato.getRecaudadoMicros());
+        assertEquals("100000.00", Money.formatear(barato.getRecaudadoMicros()));
+        
+        // Descuento solar: 3 kwh * 1.00 € * 0.9 = 2.70 € exactos
+        assertEquals(2700000L, solarCharger.rechargeMicros(vtcEV, 3));
+    }
 }
-
@@ -0,0 +1,77 @@
+/**
+ * Modela una sesión de carga en curso: un vehículo ocupando un cargador
+ * durante varios pasos de simulación.
+ * <p>
+ * La duración es ceil(kwh / velocidadCarga) pasos. Las sesiones se enlazan
+ * entre sí (lista intrusiva) para que {@link TimingWheel} pueda programarlas
+ * y liberarlas sin reservar memoria adicional.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ChargingSession {
+    // --- Atributos ---
+    private final ElectricVehicle vehiculo;
+    private final ChargingStation estacion;
+    private final Charger cargador;
+    private final int kwh;
+    private final long pasoInicio;
+    private final long pasoFin;
+
+    /** Siguiente sesión en la misma ranura de la rueda (uso exclusivo de TimingWheel). */
+    ChargingSession siguiente;
+
+    // --- Constructor ---
+
+    /**
+     * Crea una sesión que empieza en el paso indicado.
+     *
+     * @param vehiculo El vehículo que recarga.
+     * @param estacion La estación donde recarga.
+     * @param cargador El cargador ocupado.
+     * @param kwh Energía a suministrar.
+     * @param pasoInicio Paso en que empieza la sesión.
+     */
+    public ChargingSession(ElectricVehicle vehiculo, ChargingStation estacion, Charger cargador, int kwh, long pasoInicio) {
+        if (vehiculo == null || estacion == null || cargador == null) {
+            throw new NullPointerException("Los parámetros de la sesión no pueden ser nulos.");
+        }
+        this.vehiculo = vehiculo;
+        this.estacion = estacion;
+        this.cargador = cargador;
+        this.kwh = kwh;
+        this.pasoInicio = pasoInicio;
+        this.pasoFin = pasoInicio + duracion(kwh, cargador.getVelocidadCarga());
+    }
+
+    /**
+     * Calcula la duración de una carga en pasos: ceil(kwh / velocidad), mínimo 1.
+     *
+     * @param kwh Energía a suministrar.
+     * @param velocidad Velocidad del cargador (kwh por paso).
+     * @return Número de pasos que el cargador permanece ocupado.
+     */
+    public static int duracion(int kwh, int velocidad) {
+        int v = Math.max(1, velocidad);
+        return Math.max(1, (kwh + v - 1) / v);
+    }
+
+    // --- Getters ---
+    public ElectricVehicle getVehiculo() { return vehiculo; }
+    public ChargingStation getEstacion() { return estacion; }
+    public Charger getCargador() { return cargador; }
+    public int getKwh() { return kwh; }
+    public long getPasoInicio() { return pasoInicio; }
+
+    /**
+     * Devuelve el paso en cuyo inicio termina la sesión y se libera el cargador.
+     */
+    public long getPasoFin() { return pasoFin; }
+
+    @Override
+    public String toString() {
+        return String.format("(ChargingSession: %s, %s, %dkwh, %d-%d)",
+            vehiculo.getMatricula(), cargador.getId(), kwh, pasoInicio, pasoFin);
+    }
+}
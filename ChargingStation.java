@@ -1,11 +1,22 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import java.util.Collections;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Modela una estación de carga de vehículos eléctricos.
  * Gestiona una colección de cargadores que se mantiene siempre ordenada
  * por velocidad (desc), tarifa (asc) e ID (asc).
+ * <p>
+ * Es segura con varios hilos: los cargadores se adquieren sin bloqueo (CAS) y
+ * solo las colas de espera usan un cerrojo propio de la estación.
+ * </p>
  * 
  * @author Pablo Carrasco Caballero
  * @version 10.12.2025
@@ -17,6 +28,22 @@ public class ChargingStation {
     private Location localizacion;
     private List<Charger> cargadores;
     
+    /** Compañía a la que pertenece la estación (se avisa de los cambios en la red). */
+    private EVCompany compania;
+    
+    // --- Ocupación (contadores sin bloqueo) ---
+    /** Vehículos que tienen esta estación como destino de recarga. */
+    private final AtomicInteger vehiculosEntrantes;
+    /** Vehículos que están en la estación usando (o esperando) un cargador. */
+    private final AtomicInteger vehiculosOcupando;
+    
+    // --- Colas de espera (protegidas por cerrojoColas) ---
+    private final Object cerrojoColas;
+    /** Vehículos PRIORITY esperando cargador (se atienden antes que el resto). */
+    private Deque<ElectricVehicle> colaPrioritaria;
+    /** Resto de vehículos esperando cargador, por orden de llegada (FIFO). */
+    private Deque<ElectricVehicle> colaNormal;
+    
     // --- Constructor ---
     public ChargingStation(String city, String id, Location location) {
         // VERIFICACIONES DE NULIDAD BÁSICAS
@@ -27,7 +54,13 @@ public class ChargingStation {
         this.id = id;
         this.ciudad = city;
         this.localizacion = location;
-        this.cargadores = new ArrayList<>();
+        // Copia en escritura: se recorre en cada búsqueda y solo cambia al instalar cargadores.
+        this.cargadores = new CopyOnWriteArrayList<>();
+        this.vehiculosEntrantes = new AtomicInteger();
+        this.vehiculosOcupando = new AtomicInteger();
+        this.cerrojoColas = new Object();
+        this.colaPrioritaria = new ArrayDeque<>();
+        this.colaNormal = new ArrayDeque<>();
     }
     
     // --- Métodos de consulta ---
@@ -35,6 +68,10 @@ public class ChargingStation {
         return this.id;
     }
     
+    public String getCiudad() {
+        return ciudad;
+    }
+    
     public Location getLocation() {
         return this.localizacion;
     }
@@ -48,6 +85,10 @@ public class ChargingStation {
         return Collections.unmodifiableList(this.cargadores);
     }
     
+    public int getNumChargers() {
+        return this.cargadores.size();
+    }
+    
     public Charger getFreeCharger() {
         for (Charger cargador : this.cargadores) {
             if (cargador.estaLibre()) {
@@ -57,12 +98,179 @@ public class ChargingStation {
         return null;
     }
     
+    /**
+     * Adquiere de forma atómica el primer cargador libre, sea cual sea su tipo.
+     * Equivale a {@link #getFreeCharger} seguido de ocuparlo, pero sin carrera
+     * entre la comprobación y la ocupación.
+     * <p>
+     * Es la que usan los vehículos al llegar (y {@link #esperarTurno} al volver a
+     * intentarlo), para conservar el comportamiento de la simulación de referencia:
+     * si el primer cargador libre no es compatible, el vehículo lo recibe, el
+     * cargador rechaza la recarga y el vehículo recalcula su ruta en lugar de
+     * esperar a uno compatible ocupado. Para obtener solo cargadores compatibles
+     * está {@link #tryAcquire(VehicleTier)}.
+     * </p>
+     * 
+     * @return El cargador adquirido, o null si todos están ocupados.
+     */
+    public Charger tryAcquire() {
+        for (Charger cargador : this.cargadores) {
+            if (cargador.tryAcquire()) {
+                return cargador;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Adquiere de forma atómica y sin bloqueo el primer cargador libre compatible
+     * con el tipo de vehículo indicado.
+     * 
+     * @param tipo El tipo del vehículo que quiere recargar.
+     * @return El cargador adquirido, o null si no hay ninguno compatible libre.
+     */
+    public Charger tryAcquire(VehicleTier tipo) {
+        for (Charger cargador : this.cargadores) {
+            if (cargador.esCompatible(tipo) && cargador.tryAcquire()) {
+                return cargador;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Indica si la estación tiene al menos un cargador compatible con el tipo dado,
+     * esté libre u ocupado.
+     */
+    public boolean tieneCargadorCompatible(VehicleTier tipo) {
+        for (Charger cargador : this.cargadores) {
+            if (cargador.esCompatible(tipo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int getNumVehiculosEsperando() {
+        synchronized (this.cerrojoColas) {
+            return this.colaPrioritaria.size() + this.colaNormal.size();
+        }
+    }
+    
+    public int getVehiculosEntrantes() {
+        return this.vehiculosEntrantes.get();
+    }
+    
+    public int getVehiculosOcupando() {
+        return this.vehiculosOcupando.get();
+    }
+    
+    /**
+     * Devuelve el índice de congestión de la estación: vehículos que van hacia ella
+     * o están en ella por cada cargador instalado.
+     * 
+     * @return 0 si está vacía; valores mayores que 1 indican que habrá esperas.
+     */
+    public double getIndiceCongestion() {
+        int demanda = this.vehiculosEntrantes.get() + this.vehiculosOcupando.get();
+        return (double) demanda / Math.max(1, this.cargadores.size());
+    }
+    
     // --- Métodos de gestión ---
     public void setLocation(Location location) {
         if (location == null) {
             throw new NullPointerException("La localización no puede ser nula.");
         }
         this.localizacion = location;
+        
+        if (this.compania != null) {
+            this.compania.notificarCambioRed();
+        }
+    }
+    
+    /**
+     * Intenta de nuevo adquirir un cargador y, si siguen todos ocupados, pone al
+     * vehículo en la cola de espera. Ambas cosas ocurren bajo el cerrojo de las
+     * colas, así que un cargador liberado a la vez no puede perderse: o lo
+     * adquiere este vehículo o {@link #liberarCargador} lo encuentra en la cola.
+     * Los vehículos PRIORITY van a su propia cola, que se atiende primero.
+     * 
+     * @param vehiculo El vehículo que quiere recargar.
+     * @return El cargador adquirido, o null si el vehículo ha quedado en espera.
+     */
+    Charger esperarTurno(ElectricVehicle vehiculo) {
+        synchronized (this.cerrojoColas) {
+            Charger cargador = tryAcquire();
+            if (cargador != null) {
+                return cargador;
+            }
+            
+            vehiculo.ponerEnEspera(this);
+            if (vehiculo.getTipo() == VehicleTier.PRIORITY) {
+                this.colaPrioritaria.addLast(vehiculo);
+            } else {
+                this.colaNormal.addLast(vehiculo);
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Libera un cargador. Si hay vehículos esperando uno compatible, el cargador
+     * pasa directamente al primero de ellos (prioritarios antes) sin llegar a quedar
+     * libre, de modo que los vehículos en espera no tienen que volver a sondear
+     * los cargadores en cada paso.
+     * 
+     * @param cargador El cargador que se libera.
+     * @param step El paso en curso.
+     */
+    public void liberarCargador(Charger cargador, int step) {
+        while (true) {
+            ElectricVehicle siguiente;
+            synchronized (this.cerrojoColas) {
+                siguiente = extraerSiguienteCompatible(this.colaPrioritaria, cargador);
+                if (siguiente == null) {
+                    siguiente = extraerSiguienteCompatible(this.colaNormal, cargador);
+                }
+                if (siguiente == null) {
+                    cargador.release();
+                    return;
+                }
+            }
+            
+            // Si el vehículo no necesita retener el cargador, pasa al siguiente en espera.
+            if (siguiente.atenderDesdeCola(this, cargador, step)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Extrae de la cola el primer vehículo compatible con el cargador.
+     */
+    private ElectricVehicle extraerSiguienteCompatible(Deque<ElectricVehicle> cola, Charger cargador) {
+        Iterator<ElectricVehicle> it = cola.iterator();
+        while (it.hasNext()) {
+            ElectricVehicle vehiculo = it.next();
+            if (cargador.esCompatible(vehiculo.getTipo())) {
+                it.remove();
+                return vehiculo;
+            }
+        }
+        return null;
+    }
+    
+    void incrementarEntrantes() { this.vehiculosEntrantes.incrementAndGet(); }
+    void decrementarEntrantes() { this.vehiculosEntrantes.decrementAndGet(); }
+    void incrementarOcupando() { this.vehiculosOcupando.incrementAndGet(); }
+    void decrementarOcupando() { this.vehiculosOcupando.decrementAndGet(); }
+    
+    /**
+     * Asocia la estación a la compañía que la gestiona.
+     * La llama {@link EVCompany#addChargingStation}.
+     */
+    void setCompania(EVCompany compania) {
+        this.compania = compania;
     }
     
     /**
@@ -93,9 +301,56 @@ public class ChargingStation {
                 // 3. ID (alfábetico o númerico creciente)
                 return c1.getId().compareTo(c2.getId());
             });
+            
+            if (this.compania != null) {
+                this.compania.notificarCambioCargadores(this);
+            }
         }   
     }
     
+    // --- Checkpoint ---
+    
+    /**
+     * Escribe la ocupación y las colas de espera de la estación.
+     * Los vehículos entrantes no se guardan: salen del índice de la compañía.
+     */
+    void escribirEstado(DataOutput out, Checkpoint.Indices indices) throws IOException {
+        synchronized (this.cerrojoColas) {
+            out.writeInt(this.vehiculosOcupando.get());
+            indices.escribirVehiculos(out, this.colaPrioritaria, this.colaPrioritaria.size());
+            indices.escribirVehiculos(out, this.colaNormal, this.colaNormal.size());
+        }
+    }
+    
+    /**
+     * Restaura lo escrito por {@link #escribirEstado}.
+     */
+    void leerEstado(DataInput in, Checkpoint.Indices indices) throws IOException {
+        synchronized (this.cerrojoColas) {
+            this.vehiculosOcupando.set(in.readInt());
+            this.colaPrioritaria.clear();
+            this.colaPrioritaria.addAll(indices.leerVehiculos(in));
+            this.colaNormal.clear();
+            this.colaNormal.addAll(indices.leerVehiculos(in));
+        }
+    }
+    
+    /**
+     * Vacía la estación sin crearla de nuevo: sin vehículos entrantes, ocupando ni
+     * esperando, y con todos sus cargadores reiniciados ({@link Charger#reiniciar()}).
+     */
+    void reiniciar() {
+        synchronized (this.cerrojoColas) {
+            this.vehiculosEntrantes.set(0);
+            this.vehiculosOcupando.set(0);
+            this.colaPrioritaria.clear();
+            this.colaNormal.clear();
+        }
+        for (Charger cargador : this.cargadores) {
+            cargador.reiniciar();
+        }
+    }
+    
     public int getNumerEVRecharged() {
         int totalRecargas = 0;
         for (Charger cargador : this.cargadores) {
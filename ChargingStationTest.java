@@ -2,6 +2,14 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Clase de pruebas para ChargingStation.
@@ -61,4 +69,181 @@ public class ChargingStationTest
         c1.setEstaLibre(true);
         assertNotNull(estacion.getFreeCharger());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Prueba las colas de espera: con el cargador ocupado los vehículos esperan
+     * y, al terminar la sesión, el cargador pasa al primero en llegar sin quedar libre.
+     */
+    @Test
+    public void testColaDeEsperaFIFO() {
+        EVCompany company = EVCompany.getInstance();
+        company.reset();
+        company.setCargaTemporizada(true);
+        
+        estacion.addCharger(c1); // Standard, 20 kwh por paso
+        company.addChargingStation(estacion);
+        Location aqui = estacion.getLocation();
+        ElectricVehicle a = new StandardEV(company, aqui, aqui, "A", "A", 40);
+        ElectricVehicle b = new VtcEV(company, aqui, aqui, "B", "B", 40);
+        ElectricVehicle c = new StandardEV(company, aqui, aqui, "C", "C", 40);
+        a.setNivelBateria(0);
+        b.setNivelBateria(0);
+        c.setNivelBateria(0);
+        
+        company.avanzarSesiones(0);
+        a.recharge(0);
+        b.recharge(0);
+        c.recharge(0);
+        assertTrue(a.estaRecargando());
+        assertTrue(b.estaEsperando());
+        assertTrue(c.estaEsperando());
+        assertEquals(2, estacion.getNumVehiculosEsperando());
+        assertEquals(3, estacion.getVehiculosOcupando());
+        
+        // 40 kwh a 20 kwh/paso: la sesión de A termina en el paso 2 y el cargador pasa a B.
+        company.avanzarSesiones(2);
+        assertFalse(a.estaRecargando());
+        assertTrue(b.estaRecargando());
+        assertTrue(c.estaEsperando());
+        assertFalse(c1.estaLibre());
+        assertEquals(2, estacion.getVehiculosOcupando());
+        
+        company.avanzarSesiones(4);
+        assertTrue(c.estaRecargando());
+        company.avanzarSesiones(6);
+        assertTrue(c1.estaLibre());
+        assertEquals(0, estacion.getVehiculosOcupando());
+        company.setCargaTemporizada(false);
+    }
+    
+    /**
+     * Prueba de estrés de la adquisición atómica: muchos hilos compiten por pocos
+     * cargadores y en ningún momento un cargador tiene dos ocupantes.
+     */
+    @Test
+    public void testAdquisicionConcurrenteSinDobleOcupacion() throws Exception {
+        AtomicInteger incompatibles = new AtomicInteger();
+        AtomicInteger adquisiciones = new AtomicInteger();
+        int dobleOcupacion = competir(() -> estacion.tryAcquire(VehicleTier.STANDARD), Charger::release,
+                                      incompatibles, adquisiciones);
+        
+        assertEquals(0, dobleOcupacion);
+        assertEquals(0, incompatibles.get());
+        assertTrue(adquisiciones.get() > 0);
+    }
+    
+    /**
+     * Lo mismo con la adquisición sin tipo que usan los vehículos al llegar y
+     * {@link ChargingStation#esperarTurno}, liberando como ellos con
+     * liberarCargador: tampoco hay doble ocupación, aunque a veces se obtenga el
+     * cargador incompatible.
+     */
+    @Test
+    public void testAdquisicionSinTipoConcurrente() throws Exception {
+        AtomicInteger incompatibles = new AtomicInteger();
+        AtomicInteger adquisiciones = new AtomicInteger();
+        int dobleOcupacion = competir(estacion::tryAcquire, cargador -> estacion.liberarCargador(cargador, 0),
+                                      incompatibles, adquisiciones);
+        
+        assertEquals(0, dobleOcupacion);
+        assertTrue(adquisiciones.get() > 0);
+        assertEquals(0, estacion.getNumVehiculosEsperando());
+    }
+    
+    /**
+     * Limitación heredada de la simulación de referencia: si el primer cargador
+     * libre no es compatible, el vehículo lo recibe, la recarga se rechaza y
+     * recalcula la ruta en lugar de esperar al cargador compatible ocupado.
+     * Sin ese cargador libre, el mismo vehículo sí espera en la cola.
+     */
+    @Test
+    public void testCargadorLibreIncompatibleNoEncola() {
+        EVCompany company = EVCompany.getInstance();
+        company.reset();
+        company.setCargaTemporizada(true);
+        try {
+            estacion.addCharger(c1);                                   // Standard, ocupado
+            Charger solar = new SolarCharger("CH_SOLAR", 200, 0.3f);  // Solo VTC, libre
+            estacion.addCharger(solar);
+            company.addChargingStation(estacion);
+            assertTrue(c1.tryAcquire());
+            
+            Location aqui = estacion.getLocation();
+            ElectricVehicle ev = new StandardEV(company, aqui, new Location(20, 20), "A", "A", 40);
+            ev.setNivelBateria(0);
+            ev.recharge(0);
+            
+            assertFalse(ev.estaEsperando());
+            assertFalse(ev.estaRecargando());
+            assertEquals(0, ev.getChargesCount());
+            assertEquals(0, estacion.getNumVehiculosEsperando());
+            assertTrue(solar.estaLibre());
+            
+            // Con el incompatible también ocupado, el vehículo espera turno.
+            assertTrue(solar.tryAcquire());
+            ElectricVehicle otro = new StandardEV(company, aqui, new Location(20, 20), "B", "B", 40);
+            otro.setNivelBateria(0);
+            otro.recharge(0);
+            assertTrue(otro.estaEsperando());
+        } finally {
+            company.setCargaTemporizada(false);
+        }
+    }
+    
+    // --- Métodos auxiliares ---
+    
+    /**
+     * Hace competir a 16 hilos por los cargadores (tres Standard y un Solar) y
+     * devuelve cuántas veces un cargador tuvo dos ocupantes a la vez.
+     */
+    private int competir(Supplier<Charger> adquirir, Consumer<Charger> liberar,
+                         AtomicInteger incompatibles, AtomicInteger adquisiciones) throws Exception {
+        estacion.addCharger(c1);
+        estacion.addCharger(c2);
+        estacion.addCharger(c3);
+        estacion.addCharger(new SolarCharger("CH_SOLAR", 50, 0.3f)); // No compatible con STANDARD
+        List<Charger> lista = estacion.getChargers();
+        
+        final int hilos = 16;
+        final int intentos = 20000;
+        AtomicIntegerArray ocupantes = new AtomicIntegerArray(lista.size());
+        AtomicInteger dobleOcupacion = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            pool.execute(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < intentos; i++) {
+                    Charger cargador = adquirir.get();
+                    if (cargador == null) {
+                        continue;
+                    }
+                    int indice = lista.indexOf(cargador);
+                    if (ocupantes.incrementAndGet(indice) != 1) {
+                        dobleOcupacion.incrementAndGet();
+                    }
+                    if (!cargador.esCompatible(VehicleTier.STANDARD)) {
+                        incompatibles.incrementAndGet();
+                    }
+                    adquisiciones.incrementAndGet();
+                    Thread.yield();
+                    ocupantes.decrementAndGet(indice);
+                    liberar.accept(cargador);
+                }
+            });
+        }
+        salida.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        
+        for (Charger cargador : lista) {
+            assertTrue(cargador.estaLibre());
+        }
+        return dobleOcupacion.get();
+    }
+}
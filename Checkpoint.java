@@ -0,0 +1,298 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guarda y restaura el estado completo de una simulación en un fichero binario.
+ * <p>
+ * Formato (big-endian, {@link DataOutput}):
+ * </p>
+ * <ol>
+ * <li>Cabecera: {@link #MAGIA} ("EVCP") y {@link #VERSION}.</li>
+ * <li>Estructura: estaciones con sus cargadores (tipo, ID, velocidad, tarifa) y
+ * vehículos (tipo, nombre, matrícula, capacidad, origen y destino).</li>
+ * <li>Estado: recaudación, ocupación e historial de cada cargador; ocupación y colas
+ * de cada estación; posición, batería, ruta, contadores y espera de cada vehículo; y de la
+ * compañía, la versión de la red, el índice de destinos, el registro de
+ * notificaciones y las sesiones de carga en curso.</li>
+ * <li>Simulación: siguiente paso, orden de vehículos y estaciones y configuración
+ * del escenario (para poder reiniciarlo).</li>
+ * </ol>
+ * <p>
+ * Las referencias entre objetos se guardan como índices (-1 = null). Restaurar y
+ * continuar produce exactamente lo mismo que no haber parado. El fichero se
+ * escribe primero en un temporal y se renombra al terminar, así que un corte a
+ * mitad de escritura nunca deja un checkpoint a medias.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public final class Checkpoint {
+    // --- Constantes ---
+    /** Marca de inicio de fichero: "EVCP". */
+    public static final int MAGIA = 0x45564350;
+    /** Versión del formato. Cambia cada vez que cambia lo que se guarda. */
+    public static final int VERSION = 2;
+
+    private Checkpoint() {
+        // Clase de utilidades: no se instancia.
+    }
+
+    // --- Guardado ---
+
+    /**
+     * Guarda el estado de la simulación (entre dos pasos).
+     *
+     * @param demo La simulación.
+     * @param fichero Fichero de destino (se sustituye si existe).
+     * @throws IOException Si no se puede escribir.
+     */
+    public static void guardar(EVDemo demo, Path fichero) throws IOException {
+        EVCompany compania = demo.getCompany();
+        // Las notificaciones asíncronas pendientes forman parte del estado.
+        compania.flushNotificaciones();
+        Indices indices = new Indices(compania.getCityStations(), compania.getVehicles());
+
+        Path temporal = fichero.resolveSibling(fichero.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+
+            escribirEstructura(out, indices);
+
+            for (Charger cargador : indices.cargadores) {
+                cargador.escribirEstado(out, indices);
+            }
+            for (ChargingStation estacion : indices.estaciones) {
+                estacion.escribirEstado(out, indices);
+            }
+            for (ElectricVehicle vehiculo : indices.vehiculos) {
+                vehiculo.escribirEstado(out, indices);
+            }
+            compania.escribirEstado(out, indices);
+            demo.escribirEstado(out, indices);
+        }
+        Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // --- Restauración ---
+
+    /**
+     * Restaura una simulación guardada con {@link #guardar}.
+     *
+     * @param fichero El checkpoint.
+     * @param compania Compañía vacía en la que se restaura (p. ej. {@link EVCompany#newInstance()}).
+     *                 Se reinicia antes de cargar; su configuración se sustituye por la guardada.
+     * @return La simulación, lista para continuar en {@link EVDemo#getSiguientePaso()}.
+     * @throws IOException Si no se puede leer o el fichero no es un checkpoint válido.
+     */
+    public static EVDemo restaurar(Path fichero, EVCompany compania) throws IOException {
+        if (compania == null) {
+            throw new NullPointerException("La compañía no puede ser nula.");
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichero)))) {
+            if (in.readInt() != MAGIA) {
+                throw new IOException(fichero + " no es un checkpoint de la simulación.");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(fichero + ": versión de checkpoint no soportada " + version
+                    + " (se esperaba " + VERSION + ")");
+            }
+
+            compania.reset();
+            Indices indices = leerEstructura(in, compania);
+
+            for (Charger cargador : indices.cargadores) {
+                cargador.leerEstado(in, indices);
+            }
+            for (ChargingStation estacion : indices.estaciones) {
+                estacion.leerEstado(in, indices);
+            }
+            for (ElectricVehicle vehiculo : indices.vehiculos) {
+                vehiculo.leerEstado(in, indices);
+            }
+            compania.leerEstado(in, indices);
+            return EVDemo.leerEstado(in, indices, compania);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException(fichero + ": checkpoint corrupto.", e);
+        }
+    }
+
+    // --- Estructura ---
+
+    private static void escribirEstructura(DataOutput out, Indices indices) throws IOException {
+        out.writeInt(indices.estaciones.size());
+        for (ChargingStation estacion : indices.estaciones) {
+            out.writeUTF(estacion.getId());
+            out.writeUTF(estacion.getCiudad());
+            escribirLocalizacion(out, estacion.getLocation());
+
+            out.writeInt(estacion.getNumChargers());
+            for (Charger cargador : estacion.getChargers()) {
+                out.writeByte(ChargerFactory.getTipo(cargador).ordinal());
+                out.writeUTF(cargador.getId());
+                out.writeInt(cargador.getVelocidadCarga());
+                out.writeFloat(cargador.getTarifaCarga());
+            }
+        }
+
+        out.writeInt(indices.vehiculos.size());
+        for (ElectricVehicle vehiculo : indices.vehiculos) {
+            out.writeByte(vehiculo.getTipo().ordinal());
+            out.writeUTF(vehiculo.getNombre());
+            out.writeUTF(vehiculo.getMatricula());
+            out.writeInt(vehiculo.getCapacidadBateria());
+            escribirLocalizacion(out, vehiculo.getLocalizacionInicial());
+            escribirLocalizacion(out, vehiculo.getTargetLocation());
+        }
+    }
+
+    private static Indices leerEstructura(DataInput in, EVCompany compania) throws IOException {
+        ChargerFactory.ChargerType[] tiposCargador = ChargerFactory.ChargerType.values();
+        VehicleTier[] tiposVehiculo = VehicleTier.values();
+
+        int numEstaciones = in.readInt();
+        List<ChargingStation> estaciones = new ArrayList<>(numEstaciones);
+        for (int i = 0; i < numEstaciones; i++) {
+            String id = in.readUTF();
+            String ciudad = in.readUTF();
+            ChargingStation estacion = new ChargingStation(ciudad, id, leerLocalizacion(in));
+            compania.addChargingStation(estacion);
+            estaciones.add(estacion);
+
+            int numCargadores = in.readInt();
+            for (int j = 0; j < numCargadores; j++) {
+                ChargerFactory.ChargerType tipo = tiposCargador[in.readByte()];
+                Charger cargador = ChargerFactory.createCharger(tipo, in.readUTF(), in.readInt(), in.readFloat());
+                estacion.addCharger(cargador);
+            }
+        }
+
+        int numVehiculos = in.readInt();
+        List<ElectricVehicle> vehiculos = new ArrayList<>(numVehiculos);
+        for (int i = 0; i < numVehiculos; i++) {
+            VehicleTier tipo = tiposVehiculo[in.readByte()];
+            String nombre = in.readUTF();
+            String matricula = in.readUTF();
+            int capacidad = in.readInt();
+            Location origen = leerLocalizacion(in);
+            Location destino = leerLocalizacion(in);
+            ElectricVehicle vehiculo = VehicleFactory.createVehicle(tipo, compania, origen, destino,
+                                                                    nombre, matricula, capacidad);
+            compania.addElectricVehicle(vehiculo);
+            vehiculos.add(vehiculo);
+        }
+
+        return new Indices(estaciones, vehiculos);
+    }
+
+    // --- Utilidades de formato (también para las clases que guardan su estado) ---
+
+    static void escribirLocalizacion(DataOutput out, Location localizacion) throws IOException {
+        out.writeInt(localizacion.getX());
+        out.writeInt(localizacion.getY());
+    }
+
+    static Location leerLocalizacion(DataInput in) throws IOException {
+        return new Location(in.readInt(), in.readInt());
+    }
+
+    /** Localización que puede ser null (precedida de un booleano). */
+    static void escribirLocalizacionOpcional(DataOutput out, Location localizacion) throws IOException {
+        out.writeBoolean(localizacion != null);
+        if (localizacion != null) {
+            escribirLocalizacion(out, localizacion);
+        }
+    }
+
+    static Location leerLocalizacionOpcional(DataInput in) throws IOException {
+        return in.readBoolean() ? leerLocalizacion(in) : null;
+    }
+
+    // --- Clase interna: índices de los objetos ---
+
+    /**
+     * Correspondencia entre objetos e índices dentro del checkpoint.
+     * Estaciones y vehículos se numeran en el orden de la compañía; los cargadores,
+     * estación a estación, en el orden de cada estación.
+     */
+    static final class Indices {
+        private final List<ChargingStation> estaciones;
+        private final List<ElectricVehicle> vehiculos;
+        private final List<Charger> cargadores;
+        private final Map<Object, Integer> posiciones;
+
+        Indices(List<ChargingStation> estaciones, List<ElectricVehicle> vehiculos) {
+            this.estaciones = new ArrayList<>(estaciones);
+            this.vehiculos = new ArrayList<>(vehiculos);
+            this.cargadores = new ArrayList<>();
+            this.posiciones = new IdentityHashMap<>();
+
+            for (int i = 0; i < this.estaciones.size(); i++) {
+                ChargingStation estacion = this.estaciones.get(i);
+                posiciones.put(estacion, i);
+                for (Charger cargador : estacion.getChargers()) {
+                    posiciones.put(cargador, this.cargadores.size());
+                    this.cargadores.add(cargador);
+                }
+            }
+            for (int i = 0; i < this.vehiculos.size(); i++) {
+                posiciones.put(this.vehiculos.get(i), i);
+            }
+        }
+
+        /** Índice de un vehículo, estación o cargador (-1 si es null). */
+        int de(Object objeto) {
+            if (objeto == null) {
+                return -1;
+            }
+            Integer posicion = posiciones.get(objeto);
+            if (posicion == null) {
+                throw new IllegalStateException("Objeto fuera de la simulación: " + objeto);
+            }
+            return posicion;
+        }
+
+        ElectricVehicle vehiculo(int indice) {
+            return (indice < 0) ? null : vehiculos.get(indice);
+        }
+
+        ChargingStation estacion(int indice) {
+            return (indice < 0) ? null : estaciones.get(indice);
+        }
+
+        Charger cargador(int indice) {
+            return (indice < 0) ? null : cargadores.get(indice);
+        }
+
+        /** Escribe una lista de vehículos como número de elementos e índices. */
+        void escribirVehiculos(DataOutput out, Iterable<ElectricVehicle> lista, int tamano) throws IOException {
+            out.writeInt(tamano);
+            for (ElectricVehicle vehiculo : lista) {
+                out.writeInt(de(vehiculo));
+            }
+        }
+
+        List<ElectricVehicle> leerVehiculos(DataInput in) throws IOException {
+            int tamano = in.readInt();
+            List<ElectricVehicle> lista = new ArrayList<>(tamano);
+            for (int i = 0; i < tamano; i++) {
+                lista.add(vehiculo(in.readInt()));
+            }
+            return lista;
+        }
+    }
+}
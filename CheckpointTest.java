@@ -0,0 +1,104 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para Checkpoint.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class CheckpointTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Parar en mitad de la demo, guardar, restaurar y continuar da la misma salida
+     * que la ejecución sin interrupciones.
+     */
+    @Test
+    public void testContinuarDemoEsIdentico() throws IOException {
+        comprobarReanudacion(compania -> new EVDemo(compania, DemoType.ADVANCED), 20);
+    }
+
+    /**
+     * Lo mismo con carga temporizada, congestión y cargadores lentos, para que el
+     * checkpoint incluya sesiones en curso y colas de espera.
+     */
+    @Test
+    public void testContinuarConSesionesYColas() throws IOException {
+        EVDemo demo = comprobarReanudacion(compania -> {
+            compania.setCargaTemporizada(true);
+            compania.setPesoCongestion(1.0);
+            ScenarioGenerator generador = new ScenarioGenerator(200, 4, 9L);
+            generador.setCargadoresPorEstacion(1, 2);
+            generador.setVelocidadCarga(5, 15);
+            return new EVDemo(compania, generador);
+        }, 10);
+
+        int enEspera = 0;
+        for (ChargingStation estacion : demo.getStations()) {
+            enEspera += estacion.getNumVehiculosEsperando();
+        }
+        assertTrue(demo.getCompany().getNumSesionesEnCurso() > 0);
+        assertTrue(enEspera > 0);
+    }
+
+    /**
+     * Un fichero que no es un checkpoint se rechaza.
+     */
+    @Test(expected = IOException.class)
+    public void testFicheroNoValido() throws IOException {
+        Path fichero = carpeta.newFile("basura.bin").toPath();
+        Files.write(fichero, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        Checkpoint.restaurar(fichero, EVCompany.newInstance());
+    }
+
+    /**
+     * Compara la salida de una ejecución completa con la de otra que se guarda en
+     * el paso indicado y se continúa desde el checkpoint en otra compañía.
+     *
+     * @return La simulación original, en el estado en que se guardó.
+     */
+    private EVDemo comprobarReanudacion(Function<EVCompany, EVDemo> escenario, int pasoCheckpoint) throws IOException {
+        // Ejecución de referencia, sin parar.
+        ByteArrayOutputStream referencia = new ByteArrayOutputStream();
+        EVDemo completa = crear(escenario);
+        completa.simular(pasoCheckpoint);
+        completa.getCompany().setSalida(new PrintStream(referencia));
+        completa.simular(EVDemo.MAXSTEPS);
+        completa.getCompany().showCompanyInfo();
+
+        // Misma ejecución, con checkpoint.
+        EVDemo original = crear(escenario);
+        original.simular(pasoCheckpoint);
+        Path fichero = carpeta.getRoot().toPath().resolve("demo.ckpt");
+        original.guardarCheckpoint(fichero);
+
+        ByteArrayOutputStream reanudada = new ByteArrayOutputStream();
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(reanudada));
+        EVDemo restaurada = EVDemo.restaurar(fichero, compania);
+        assertEquals(pasoCheckpoint, restaurada.getSiguientePaso());
+        assertEquals(original.getCompany().getNumSesionesEnCurso(), compania.getNumSesionesEnCurso());
+        restaurada.simular(EVDemo.MAXSTEPS);
+        compania.showCompanyInfo();
+
+        assertEquals(referencia.toString(), reanudada.toString());
+        return original;
+    }
+
+    private EVDemo crear(Function<EVCompany, EVDemo> escenario) {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        return escenario.apply(compania);
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+
+/**
+ * Conjunto de enteros no negativos en forma de mapa de bits comprimido.
+ * <p>
+ * Sigue la idea de los <i>roaring bitmaps</i>: los valores se agrupan por sus
+ * 16 bits altos y cada grupo se guarda como un array ordenado de {@code char}
+ * (2 bytes por valor) mientras tiene pocos elementos, y como un mapa de bits de
+ * 8 KB cuando supera {@value #MAX_ARRAY}. Así ocupa poco tanto con identificadores
+ * dispersos como densos.
+ * </p>
+ * <p>
+ * No es seguro con varios hilos; quien lo use debe sincronizar el acceso.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class CompactBitmap {
+    // --- Constantes ---
+    /** Número de valores a partir del cual un grupo pasa a mapa de bits. */
+    private static final int MAX_ARRAY = 4096;
+    private static final int PALABRAS_BITMAP = (1 << 16) / 64;
+
+    // --- Atributos ---
+    /** Claves (16 bits altos) de los grupos, ordenadas. */
+    private char[] claves;
+    private Contenedor[] contenedores;
+    private int numContenedores;
+    private int cardinalidad;
+
+    // --- Constructor ---
+    public CompactBitmap() {
+        this.claves = new char[1];
+        this.contenedores = new Contenedor[1];
+        this.numContenedores = 0;
+        this.cardinalidad = 0;
+    }
+
+    // --- Métodos públicos ---
+
+    /**
+     * Añade un valor al conjunto.
+     *
+     * @param valor Valor no negativo.
+     * @return true si el valor no estaba y se ha añadido.
+     */
+    public boolean add(int valor) {
+        char alto = (char) (valor >>> 16);
+        int i = buscar(alto);
+        if (i < 0) {
+            i = -i - 1;
+            insertarContenedor(i, alto);
+        }
+        if (contenedores[i].add((char) valor)) {
+            cardinalidad++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Devuelve el número de valores del conjunto.
+     */
+    public int size() {
+        return cardinalidad;
+    }
+
+    /**
+     * Vacía el conjunto conservando el índice de grupos.
+     */
+    public void clear() {
+        Arrays.fill(contenedores, 0, numContenedores, null);
+        numContenedores = 0;
+        cardinalidad = 0;
+    }
+
+    // --- Métodos internos ---
+
+    private int buscar(char alto) {
+        return Arrays.binarySearch(claves, 0, numContenedores, alto);
+    }
+
+    private void insertarContenedor(int i, char alto) {
+        if (numContenedores == claves.length) {
+            claves = Arrays.copyOf(claves, numContenedores * 2);
+            contenedores = Arrays.copyOf(contenedores, numContenedores * 2);
+        }
+        System.arraycopy(claves, i, claves, i + 1, numContenedores - i);
+        System.arraycopy(contenedores, i, contenedores, i + 1, numContenedores - i);
+        claves[i] = alto;
+        contenedores[i] = new Contenedor();
+        numContenedores++;
+    }
+
+    // --- Clase interna: grupo de valores con los mismos 16 bits altos ---
+
+    /**
+     * Grupo de hasta 65536 valores: array ordenado mientras es pequeño y
+     * mapa de bits cuando crece.
+     */
+    private static class Contenedor {
+        private char[] valores = new char[4];
+        private long[] bits;
+        private int n;
+
+        boolean add(char bajo) {
+            if (bits != null) {
+                int palabra = bajo >>> 6;
+                long mascara = 1L << bajo;
+                if ((bits[palabra] & mascara) != 0) {
+                    return false;
+                }
+                bits[palabra] |= mascara;
+                n++;
+                return true;
+            }
+
+            int i = Arrays.binarySearch(valores, 0, n, bajo);
+            if (i >= 0) {
+                return false;
+            }
+            i = -i - 1;
+            if (n == MAX_ARRAY) {
+                aBitmap();
+                return add(bajo);
+            }
+            if (n == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAX_ARRAY, n * 2));
+            }
+            System.arraycopy(valores, i, valores, i + 1, n - i);
+            valores[i] = bajo;
+            n++;
+            return true;
+        }
+
+        /**
+         * Convierte el array ordenado en mapa de bits.
+         */
+        private void aBitmap() {
+            bits = new long[PALABRAS_BITMAP];
+            for (int i = 0; i < n; i++) {
+                bits[valores[i] >>> 6] |= 1L << valores[i];
+            }
+            valores = null;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Registro de decisiones para reproducir una ejecución de forma determinista.
+ * <p>
+ * En modo <b>grabación</b> anota, en el orden en que ocurren, las decisiones que
+ * fijan el curso de la simulación:
+ * </p>
+ * <ul>
+ * <li>cada estación elegida por {@code seleccionarMejorEstacion} al calcular una ruta;</li>
+ * <li>cada cargador concedido a un vehículo al llegar a una estación (o que no había
+ * ninguno libre);</li>
+ * <li>el resultado de pedir turno en la cola de la estación.</li>
+ * </ul>
+ * <p>
+ * En modo <b>reproducción</b> las rutas se toman del registro sin llamar a
+ * {@code seleccionarMejorEstacion} y los vehículos ocupan directamente el cargador
+ * anotado, sin recorrer la estación. Cada decisión comprueba que corresponde al
+ * mismo vehículo; si la ejecución se separa del registro se lanza
+ * {@link IllegalStateException} indicando la decisión en la que ocurrió.
+ * </p>
+ * <p>
+ * Se activa con {@link EVCompany#setDecisiones} una vez creada la simulación;
+ * solo cubre las decisiones tomadas desde ese momento. La red y la flota no
+ * deben cambiar mientras se graba o reproduce.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class DecisionLog implements Closeable {
+    // --- Constantes ---
+    /** Marca de inicio de fichero: "EVDL". */
+    public static final int MAGIA = 0x4556444c;
+    /** Versión del formato. */
+    public static final int VERSION = 1;
+
+    private static final byte RUTA = 1;
+    private static final byte CARGADOR = 2;
+    private static final byte TURNO = 3;
+
+    // --- Atributos ---
+    private final Path fichero;
+    private final EVCompany compania;
+    private final Checkpoint.Indices indices;
+    /** Flujo de grabación (null si se reproduce). */
+    private final DataOutputStream salida;
+    /** Flujo de reproducción (null si se graba). */
+    private final DataInputStream entrada;
+    private long numDecisiones;
+
+    // --- Constructor y factorías ---
+
+    private DecisionLog(Path fichero, EVCompany compania, DataOutputStream salida, DataInputStream entrada) {
+        this.fichero = fichero;
+        this.compania = compania;
+        this.indices = new Checkpoint.Indices(compania.getCityStations(), compania.getVehicles());
+        this.salida = salida;
+        this.entrada = entrada;
+        this.numDecisiones = 0;
+    }
+
+    /**
+     * Crea un registro nuevo para grabar las decisiones de la simulación de la compañía.
+     *
+     * @param fichero Fichero del registro (se sustituye si existe).
+     * @param compania La compañía, ya con sus estaciones y vehículos.
+     * @throws IOException Si no se puede crear el fichero.
+     */
+    public static DecisionLog grabar(Path fichero, EVCompany compania) throws IOException {
+        comprobarArgumentos(fichero, compania);
+        DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichero)));
+        salida.writeInt(MAGIA);
+        salida.writeInt(VERSION);
+        salida.writeInt(compania.getNumberOfStations());
+        salida.writeInt(compania.getVehicles().size());
+        return new DecisionLog(fichero, compania, salida, null);
+    }
+
+    /**
+     * Abre un registro para reproducirlo sobre la misma simulación en que se grabó
+     * (recién creada, con la misma configuración).
+     *
+     * @param fichero El registro.
+     * @param compania La compañía, ya con sus estaciones y vehículos.
+     * @throws IOException Si no se puede leer, no es un registro o la red o la flota
+     *         no coinciden en tamaño con las grabadas.
+     */
+    public static DecisionLog reproducir(Path fichero, EVCompany compania) throws IOException {
+        comprobarArgumentos(fichero, compania);
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichero)));
+        try {
+            if (entrada.readInt() != MAGIA) {
+                throw new IOException(fichero + " no es un registro de decisiones.");
+            }
+            int version = entrada.readInt();
+            if (version != VERSION) {
+                throw new IOException(fichero + ": versión de registro no soportada " + version
+                    + " (se esperaba " + VERSION + ")");
+            }
+            int estaciones = entrada.readInt();
+            int vehiculos = entrada.readInt();
+            if (estaciones != compania.getNumberOfStations() || vehiculos != compania.getVehicles().size()) {
+                throw new IOException(fichero + ": grabado con " + estaciones + " estaciones y " + vehiculos
+                    + " vehículos; la compañía tiene " + compania.getNumberOfStations() + " y "
+                    + compania.getVehicles().size());
+            }
+        } catch (IOException e) {
+            entrada.close();
+            throw e;
+        }
+        return new DecisionLog(fichero, compania, null, entrada);
+    }
+
+    private static void comprobarArgumentos(Path fichero, EVCompany compania) {
+        if (fichero == null || compania == null) {
+            throw new NullPointerException("El fichero y la compañía no pueden ser nulos.");
+        }
+    }
+
+    // --- Consultas ---
+
+    public boolean isReproduciendo() {
+        return entrada != null;
+    }
+
+    /** Decisiones grabadas o reproducidas hasta ahora. */
+    public long getNumDecisiones() {
+        return numDecisiones;
+    }
+
+    public Path getFichero() {
+        return fichero;
+    }
+
+    // --- Decisiones (las llaman los vehículos) ---
+
+    /**
+     * Estación de recarga elegida por el vehículo: la calcula y la graba, o la lee.
+     */
+    ChargingStation ruta(ElectricVehicle vehiculo) {
+        if (isReproduciendo()) {
+            return indices.estacion(leer(RUTA, vehiculo));
+        }
+        ChargingStation estacion = vehiculo.seleccionarMejorEstacion(compania.getCityStations());
+        grabar(RUTA, vehiculo, indices.de(estacion));
+        return estacion;
+    }
+
+    /**
+     * Cargador que adquiere el vehículo al llegar a la estación, o null si no hay
+     * ninguno libre. Al reproducir se ocupa directamente el cargador grabado.
+     */
+    Charger adquirir(ChargingStation estacion, ElectricVehicle vehiculo) {
+        if (isReproduciendo()) {
+            Charger cargador = indices.cargador(leer(CARGADOR, vehiculo));
+            if (cargador != null && !cargador.tryAcquire()) {
+                throw divergencia("el cargador " + cargador.getId() + " de " + vehiculo.getMatricula()
+                    + " está ocupado");
+            }
+            return cargador;
+        }
+        Charger cargador = estacion.tryAcquire();
+        grabar(CARGADOR, vehiculo, indices.de(cargador));
+        return cargador;
+    }
+
+    /**
+     * Resultado de pedir turno en la estación: un cargador o null si el vehículo
+     * quedó en la cola. Al reproducir se comprueba que el resultado es el grabado.
+     */
+    Charger esperarTurno(ChargingStation estacion, ElectricVehicle vehiculo) {
+        int grabado = isReproduciendo() ? leer(TURNO, vehiculo) : 0;
+        Charger cargador = estacion.esperarTurno(vehiculo);
+        if (isReproduciendo()) {
+            if (indices.de(cargador) != grabado) {
+                throw divergencia(vehiculo.getMatricula() + " obtiene " + cargador
+                    + " en la cola; se grabó " + indices.cargador(grabado));
+            }
+        } else {
+            grabar(TURNO, vehiculo, indices.de(cargador));
+        }
+        return cargador;
+    }
+
+    /**
+     * Vuelca y cierra el registro.
+     */
+    @Override
+    public void close() throws IOException {
+        if (salida != null) {
+            salida.close();
+        } else {
+            entrada.close();
+        }
+    }
+
+    // --- Métodos internos ---
+
+    private void grabar(byte tipo, ElectricVehicle vehiculo, int valor) {
+        try {
+            salida.writeByte(tipo);
+            salida.writeInt(indices.de(vehiculo));
+            salida.writeInt(valor);
+            numDecisiones++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo grabar el registro " + fichero, e);
+        }
+    }
+
+    /** Lee la siguiente decisión, comprobando que es del tipo y vehículo esperados. */
+    private int leer(byte tipo, ElectricVehicle vehiculo) {
+        try {
+            byte tipoGrabado = entrada.readByte();
+            int vehiculoGrabado = entrada.readInt();
+            int valor = entrada.readInt();
+            if (tipoGrabado != tipo || vehiculoGrabado != indices.de(vehiculo)) {
+                throw divergencia("se esperaba una decisión de tipo " + tipo + " de " + vehiculo.getMatricula()
+                    + " y se grabó una de tipo " + tipoGrabado + " del vehículo " + vehiculoGrabado);
+            }
+            numDecisiones++;
+            return valor;
+        } catch (EOFException e) {
+            throw divergencia("el registro se ha terminado");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el registro " + fichero, e);
+        }
+    }
+
+    private IllegalStateException divergencia(String detalle) {
+        return new IllegalStateException("La ejecución se separa del registro " + fichero
+            + " en la decisión " + numDecisiones + ": " + detalle);
+    }
+}
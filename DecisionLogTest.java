@@ -0,0 +1,88 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para DecisionLog.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class DecisionLogTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Reproducir el registro da exactamente la misma salida que la ejecución
+     * grabada, con colas de espera y sesiones temporizadas.
+     */
+    @Test
+    public void testReproducirEsIdentico() throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve("decisiones.evd");
+
+        ByteArrayOutputStream grabada = new ByteArrayOutputStream();
+        EVDemo demo = crear(grabada);
+        long decisiones;
+        try (DecisionLog registro = DecisionLog.grabar(fichero, demo.getCompany())) {
+            demo.getCompany().setDecisiones(registro);
+            demo.simular(EVDemo.MAXSTEPS);
+            demo.getCompany().showCompanyInfo();
+            decisiones = registro.getNumDecisiones();
+        }
+
+        ByteArrayOutputStream reproducida = new ByteArrayOutputStream();
+        EVDemo copia = crear(reproducida);
+        try (DecisionLog registro = DecisionLog.reproducir(fichero, copia.getCompany())) {
+            copia.getCompany().setDecisiones(registro);
+            copia.simular(EVDemo.MAXSTEPS);
+            copia.getCompany().showCompanyInfo();
+            assertEquals(decisiones, registro.getNumDecisiones());
+        }
+
+        assertTrue(decisiones > 0);
+        assertEquals(grabada.toString(), reproducida.toString());
+    }
+
+    /**
+     * Si el registro se acaba antes que la ejecución, la reproducción lo detecta.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRegistroIncompletoDiverge() throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve("corto.evd");
+
+        EVDemo demo = crear(new ByteArrayOutputStream());
+        try (DecisionLog registro = DecisionLog.grabar(fichero, demo.getCompany())) {
+            demo.getCompany().setDecisiones(registro);
+            demo.simular(EVDemo.MAXSTEPS);
+        }
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() / 2);
+        }
+
+        EVDemo copia = crear(new ByteArrayOutputStream());
+        try (DecisionLog registro = DecisionLog.reproducir(fichero, copia.getCompany())) {
+            copia.getCompany().setDecisiones(registro);
+            copia.simular(EVDemo.MAXSTEPS);
+        }
+    }
+
+    /** Escenario con carga temporizada, congestión y pocos cargadores lentos. */
+    private static EVDemo crear(ByteArrayOutputStream salida) {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(salida));
+        compania.setCargaTemporizada(true);
+        compania.setPesoCongestion(1.0);
+        ScenarioGenerator generador = new ScenarioGenerator(200, 4, 9L);
+        generador.setCargadoresPorEstacion(1, 2);
+        generador.setVelocidadCarga(5, 15);
+        return new EVDemo(compania, generador);
+    }
+}
@@ -1,19 +1,29 @@
 import java.util.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.PrintStream;
 
 /**
  * Modela la compañía de vehículos eléctricos.
  * <p>
- * Aplica el patrón <b>Singleton</b> para garantizar una única instancia.
  * Gestiona la flota de vehículos, las estaciones y el registro centralizado
  * de notificaciones de carga.
  * </p>
+ * <p>
+ * {@link #getInstance} devuelve la instancia compartida por defecto, que usa la
+ * simulación normal. No es la única: {@link #newInstance} crea compañías
+ * independientes, cada una un contexto de simulación aislado (flota, estaciones,
+ * registro, sesiones y salida propios), de modo que varias simulaciones pueden
+ * ejecutarse a la vez en la misma JVM.
+ * </p>
  * 
  * @author Pablo Carrasco Caballero
  * @version 10.12.2025
  */
 public class EVCompany {
     
-    // --- Patrón SINGLETON ---
+    // --- Instancia compartida por defecto ---
     private static EVCompany instance;
     
     // --- Atributos ---
@@ -27,21 +37,93 @@ public class EVCompany {
      * Registro de notificaciones de carga.
      * CLAVE: Charger (ordenados por ID).
      * VALOR: set de ElectricVehicle (ordenados por inserción, sin duplicados).
+     * Admite notificaciones concurrentes (ver {@link NotificationRegistry}).
+     */
+    private NotificationRegistry registroCargas;
+    
+    /**
+     * Canal asíncrono de notificaciones (null si se aplican en el acto).
+     * Saca la actualización del registro del camino crítico de la simulación.
+     */
+    private NotificationPipeline notificacionesAsincronas;
+    
+    /** Capacidad de la cola del canal asíncrono de notificaciones. */
+    private static final int CAPACIDAD_NOTIFICACIONES = 1 << 16;
+    
+    /** Flujo donde se escribe la información de la simulación (null = System.out). */
+    private PrintStream salida;
+    
+    /**
+     * Versión (epoch) de la red de estaciones.
+     * Se incrementa cada vez que se añade una estación o un cargador, o se
+     * mueve una estación, de modo que una ruta calculada con una versión
+     * anterior puede considerarse obsoleta.
+     */
+    private long versionRed;
+    
+    /**
+     * Índice inverso de destinos de recarga.
+     * CLAVE: estación (orden de inserción).
+     * VALOR: vehículos que se dirigen a ella para recargar.
      */
-    private Map<Charger, Set<ElectricVehicle>> registroCargas;
+    private Map<ChargingStation, Set<ElectricVehicle>> vehiculosPorEstacion;
+    
+    /**
+     * Vehículos que necesitan recargar pero no encontraron ninguna estación válida.
+     */
+    private Set<ElectricVehicle> vehiculosSinEstacion;
+    
+    /**
+     * Peso de la penalización por congestión en la selección de estación.
+     * Con 0 (valor por defecto) se usan las estrategias originales sin cambios.
+     */
+    private double pesoCongestion;
+    
+    /**
+     * Modo de carga temporizada: si está activo, cada recarga ocupa el cargador
+     * durante ceil(kwh / velocidadCarga) pasos en lugar de completarse al instante.
+     */
+    private boolean cargaTemporizada;
+    
+    /** Sesiones de carga en curso, programadas por paso de fin. */
+    private TimingWheel sesiones;
+    /** Protege las sesiones: con {@link VehicleAgents} se programan desde varios hilos. */
+    private final Object cerrojoSesiones;
+    
+    /** Diario donde se anotan recargas y notificaciones (null si no se anotan). */
+    private RechargeJournal diarioRecargas;
+    
+    /** Registro de decisiones que se graba o reproduce (null si no hay). */
+    private DecisionLog decisiones;
+    
+    /** Tiempos por fase (null si {@link StepProfiler#ACTIVO} es false). */
+    private final StepProfiler perfil;
     
-    // --- Constructor privado (SINGLETON) ---
+    /** Contadores en vivo de la simulación (ver {@link MetricsServer}). */
+    private final SimulationMetrics metricas;
+    
+    // --- Constructor privado (getInstance / newInstance) ---
     private EVCompany() {
         this.nombre = "Compania EVCharging Caceres";
         this.vehiculosSuscritos = new ArrayList<>();
         this.estaciones = new ArrayList<>();
         
-        // TreeMap con un Comparator para ordenar los cargadores por ID.
-        this.registroCargas = new TreeMap<>((c1, c2) -> c1.getId().compareTo(c2.getId()));
+        // Mapa ordenado por ID de cargador, seguro con varios hilos.
+        this.registroCargas = new NotificationRegistry();
+        
+        this.versionRed = 0;
+        this.vehiculosPorEstacion = new LinkedHashMap<>();
+        this.vehiculosSinEstacion = new LinkedHashSet<>();
+        this.pesoCongestion = 0.0;
+        this.cargaTemporizada = false;
+        this.sesiones = new TimingWheel();
+        this.cerrojoSesiones = new Object();
+        this.perfil = StepProfiler.ACTIVO ? new StepProfiler() : null;
+        this.metricas = new SimulationMetrics(this);
     }
     
     /**
-     * Devuelve la única instancia de la compañía (SINGLETON).
+     * Devuelve la instancia compartida por defecto de la compañía.
      * @return La instancia de EVCompany.
      */
     public static synchronized EVCompany getInstance() {
@@ -51,11 +133,37 @@ public class EVCompany {
         return instance;
     }
     
+    /**
+     * Crea una compañía independiente de la instancia compartida.
+     * Cada compañía creada así es un contexto de simulación aislado.
+     * @return Una nueva instancia de EVCompany.
+     */
+    public static EVCompany newInstance() {
+        return new EVCompany();
+    }
+    
     // --- Métodos de gestión (PÚBLICOS) ---
     public String getName() {
         return this.nombre;
     }
     
+    /**
+     * Devuelve el flujo de salida de la simulación de esta compañía.
+     * Por defecto es la salida estándar.
+     */
+    public PrintStream getSalida() {
+        PrintStream actual = this.salida;
+        return (actual != null) ? actual : System.out;
+    }
+    
+    /**
+     * Cambia el flujo de salida de la simulación de esta compañía.
+     * @param salida El nuevo flujo, o null para volver a la salida estándar.
+     */
+    public void setSalida(PrintStream salida) {
+        this.salida = salida;
+    }
+    
     public List<ElectricVehicle> getVehicles() {
         return Collections.unmodifiableList(this.vehiculosSuscritos);
     }
@@ -69,6 +177,10 @@ public class EVCompany {
     public void addChargingStation(ChargingStation station) {
         if (station != null) {
             this.estaciones.add(station);
+            station.setCompania(this);
+            
+            // Una estación nueva puede mejorar la elección de cualquier vehículo que necesite recargar.
+            notificarCambioRed();
         }
     }
     
@@ -116,9 +228,291 @@ public class EVCompany {
      * Reinicia el estado de la compañía.
      */
     public void reset() {
+        flushNotificaciones();
         this.vehiculosSuscritos.clear();
         this.estaciones.clear();
         this.registroCargas.clear();
+        this.vehiculosPorEstacion.clear();
+        this.vehiculosSinEstacion.clear();
+        this.versionRed++;
+        this.sesiones = new TimingWheel();
+        if (this.perfil != null) {
+            this.perfil.reset();
+        }
+        this.metricas.reset();
+    }
+    
+    /**
+     * Reinicia el estado de la simulación conservando la flota y las estaciones:
+     * vacía el registro de notificaciones (sin olvidar los identificadores), el
+     * índice de destinos y las sesiones de carga. Los vehículos, estaciones y
+     * cargadores se reinician aparte (ver {@link EVDemo#reiniciar()}).
+     */
+    void reiniciar() {
+        flushNotificaciones();
+        this.registroCargas.vaciar();
+        this.vehiculosPorEstacion.clear();
+        this.vehiculosSinEstacion.clear();
+        this.versionRed++;
+        this.sesiones.vaciar();
+        if (this.perfil != null) {
+            this.perfil.reset();
+        }
+        this.metricas.reset();
+    }
+    
+    // --- Sesiones de carga temporizadas ---
+    
+    public boolean isCargaTemporizada() {
+        return this.cargaTemporizada;
+    }
+    
+    /**
+     * Activa o desactiva la carga temporizada.
+     * Desactivada (por defecto), la batería se llena en el mismo paso de la llegada.
+     */
+    public void setCargaTemporizada(boolean cargaTemporizada) {
+        this.cargaTemporizada = cargaTemporizada;
+    }
+    
+    /**
+     * Programa una sesión de carga para que termine en su paso de fin.
+     */
+    void programarSesion(ChargingSession sesion) {
+        synchronized (this.cerrojoSesiones) {
+            this.sesiones.programar(sesion);
+        }
+    }
+    
+    /**
+     * Termina todas las sesiones de carga que vencen hasta el paso indicado,
+     * liberando sus cargadores. EVDemo lo llama al inicio de cada paso.
+     * 
+     * @param step El paso que comienza.
+     */
+    public void avanzarSesiones(int step) {
+        synchronized (this.cerrojoSesiones) {
+            this.sesiones.avanzarHasta(step, sesion -> sesion.getVehiculo().completarRecarga(sesion));
+        }
+    }
+    
+    /**
+     * Devuelve el número de sesiones de carga en curso.
+     */
+    public int getNumSesionesEnCurso() {
+        return this.sesiones.getPendientes();
+    }
+    
+    /**
+     * Devuelve el número de vehículos que necesitan recargar y no alcanzan ninguna estación.
+     */
+    public int getNumVehiculosSinEstacion() {
+        return this.vehiculosSinEstacion.size();
+    }
+    
+    // --- Versionado de la red y reencaminamiento selectivo ---
+    
+    /**
+     * Devuelve la versión actual de la red de estaciones.
+     * Un vehículo cuya ruta se calculó con una versión anterior tiene una ruta obsoleta.
+     */
+    public long getVersionRed() {
+        return this.versionRed;
+    }
+    
+    /**
+     * Devuelve el peso de la penalización por congestión (0 si está desactivada).
+     */
+    public double getPesoCongestion() {
+        return this.pesoCongestion;
+    }
+    
+    /**
+     * Activa la selección de estación penalizada por congestión.
+     * Cada estrategia penaliza las estaciones según su índice de congestión
+     * ({@link ChargingStation#getIndiceCongestion}) multiplicado por este peso.
+     * 
+     * @param peso Peso de la penalización; 0 la desactiva.
+     */
+    public void setPesoCongestion(double peso) {
+        if (peso < 0) {
+            throw new IllegalArgumentException("El peso de congestión no puede ser negativo: " + peso);
+        }
+        this.pesoCongestion = peso;
+    }
+    
+    /**
+     * Devuelve los vehículos que se dirigen a recargar a la estación indicada (solo lectura).
+     */
+    public Set<ElectricVehicle> getVehiculosHaciaEstacion(ChargingStation estacion) {
+        Set<ElectricVehicle> vehiculos = this.vehiculosPorEstacion.get(estacion);
+        if (vehiculos == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(vehiculos);
+    }
+    
+    /**
+     * Actualiza el índice inverso cuando un vehículo cambia de estación de recarga.
+     * La llama {@link ElectricVehicle} cada vez que recalcula su ruta, desde
+     * varios hilos a la vez con {@link VehicleAgents}.
+     * 
+     * @param vehiculo El vehículo que ha recalculado su ruta.
+     * @param anterior La estación a la que se dirigía (puede ser null).
+     * @param nueva La nueva estación elegida (puede ser null).
+     * @param sinEstacion true si necesita recargar pero no ha encontrado estación.
+     */
+    synchronized void actualizarDestino(ElectricVehicle vehiculo, ChargingStation anterior, ChargingStation nueva, boolean sinEstacion) {
+        if (anterior != null) {
+            Set<ElectricVehicle> vehiculos = this.vehiculosPorEstacion.get(anterior);
+            if (vehiculos != null && vehiculos.remove(vehiculo)) {
+                anterior.decrementarEntrantes();
+                if (vehiculos.isEmpty()) {
+                    this.vehiculosPorEstacion.remove(anterior);
+                }
+            }
+        }
+        
+        if (nueva != null) {
+            if (this.vehiculosPorEstacion.computeIfAbsent(nueva, e -> new LinkedHashSet<>()).add(vehiculo)) {
+                nueva.incrementarEntrantes();
+            }
+        }
+        
+        if (sinEstacion) {
+            this.vehiculosSinEstacion.add(vehiculo);
+        } else {
+            this.vehiculosSinEstacion.remove(vehiculo);
+        }
+    }
+    
+    /**
+     * Notifica un cambio que puede afectar a cualquier ruta (estación nueva o reubicada).
+     * Se reencaminan todos los vehículos que tienen (o buscan) estación de recarga.
+     */
+    void notificarCambioRed() {
+        this.versionRed++;
+        
+        List<ElectricVehicle> afectados = new ArrayList<>(this.vehiculosSinEstacion);
+        for (Set<ElectricVehicle> vehiculos : this.vehiculosPorEstacion.values()) {
+            afectados.addAll(vehiculos);
+        }
+        reencaminar(afectados);
+    }
+    
+    /**
+     * Notifica que una estación ha recibido un cargador nuevo.
+     * <p>
+     * Un cargador más solo puede hacer la estación más atractiva, así que los vehículos
+     * que ya se dirigen a ella no cambian. Se reencaminan únicamente los que van a otras
+     * estaciones (o no tienen ninguna) y cuya estrategia depende de los cargadores.
+     * </p>
+     * 
+     * @param estacion La estación modificada.
+     */
+    void notificarCambioCargadores(ChargingStation estacion) {
+        this.versionRed++;
+        
+        List<ElectricVehicle> afectados = new ArrayList<>();
+        for (ElectricVehicle vehiculo : this.vehiculosSinEstacion) {
+            if (vehiculo.dependeDeCargadores()) {
+                afectados.add(vehiculo);
+            }
+        }
+        for (Map.Entry<ChargingStation, Set<ElectricVehicle>> entrada : this.vehiculosPorEstacion.entrySet()) {
+            if (entrada.getKey() == estacion) {
+                continue;
+            }
+            for (ElectricVehicle vehiculo : entrada.getValue()) {
+                if (vehiculo.dependeDeCargadores()) {
+                    afectados.add(vehiculo);
+                }
+            }
+        }
+        reencaminar(afectados);
+    }
+    
+    /**
+     * Recalcula la ruta de los vehículos indicados.
+     * Se trabaja sobre una copia porque recalcular modifica el índice.
+     */
+    private void reencaminar(List<ElectricVehicle> afectados) {
+        for (ElectricVehicle vehiculo : afectados) {
+            vehiculo.reencaminar();
+        }
+    }
+    
+    // --- Checkpoint ---
+    
+    /**
+     * Escribe el estado propio de la compañía: configuración, versión de la red,
+     * índice de destinos (en su orden), registro de notificaciones y sesiones de carga.
+     * Las notificaciones asíncronas deben estar ya aplicadas ({@link #flushNotificaciones}).
+     */
+    void escribirEstado(DataOutput out, Checkpoint.Indices indices) throws IOException {
+        out.writeDouble(this.pesoCongestion);
+        out.writeBoolean(this.cargaTemporizada);
+        out.writeBoolean(isNotificacionAsincrona());
+        out.writeLong(this.versionRed);
+        
+        out.writeInt(this.vehiculosPorEstacion.size());
+        for (Map.Entry<ChargingStation, Set<ElectricVehicle>> entrada : this.vehiculosPorEstacion.entrySet()) {
+            out.writeInt(indices.de(entrada.getKey()));
+            indices.escribirVehiculos(out, entrada.getValue(), entrada.getValue().size());
+        }
+        indices.escribirVehiculos(out, this.vehiculosSinEstacion, this.vehiculosSinEstacion.size());
+        
+        List<Charger> cargadores = new ArrayList<>();
+        List<List<ElectricVehicle>> notificaciones = new ArrayList<>();
+        this.registroCargas.forEach((cargador, vehiculos) -> {
+            cargadores.add(cargador);
+            notificaciones.add(vehiculos);
+        });
+        out.writeInt(cargadores.size());
+        for (int i = 0; i < cargadores.size(); i++) {
+            out.writeInt(indices.de(cargadores.get(i)));
+            indices.escribirVehiculos(out, notificaciones.get(i), notificaciones.get(i).size());
+        }
+        
+        this.sesiones.escribirEstado(out, indices);
+    }
+    
+    /**
+     * Restaura lo escrito por {@link #escribirEstado}. Las estaciones, cargadores
+     * y vehículos ya deben estar dados de alta y restaurados.
+     */
+    void leerEstado(DataInput in, Checkpoint.Indices indices) throws IOException {
+        this.pesoCongestion = in.readDouble();
+        this.cargaTemporizada = in.readBoolean();
+        setNotificacionAsincrona(in.readBoolean());
+        long version = in.readLong();
+        
+        // El índice se reconstruye en el mismo orden para que los reencaminamientos coincidan.
+        this.vehiculosPorEstacion.clear();
+        this.vehiculosSinEstacion.clear();
+        int numEstaciones = in.readInt();
+        for (int i = 0; i < numEstaciones; i++) {
+            ChargingStation estacion = indices.estacion(in.readInt());
+            for (ElectricVehicle vehiculo : indices.leerVehiculos(in)) {
+                actualizarDestino(vehiculo, null, estacion, false);
+            }
+        }
+        for (ElectricVehicle vehiculo : indices.leerVehiculos(in)) {
+            actualizarDestino(vehiculo, null, null, true);
+        }
+        
+        this.registroCargas.clear();
+        int numCargadores = in.readInt();
+        for (int i = 0; i < numCargadores; i++) {
+            Charger cargador = indices.cargador(in.readInt());
+            for (ElectricVehicle vehiculo : indices.leerVehiculos(in)) {
+                this.registroCargas.registrar(vehiculo, cargador);
+            }
+        }
+        
+        this.sesiones = new TimingWheel();
+        this.sesiones.leerEstado(in, indices);
+        this.versionRed = version;
     }
     
     // --- Gestión de notificaciones ---
@@ -131,15 +525,127 @@ public class EVCompany {
      * @param cargador El cargador utilizado.
      */
     public void notificarRecarga(ElectricVehicle vehiculo, Charger cargador) {
-        // Si el cargador no está en el mapa, lo añadimos con un nuevo Set vacío.
-        if (!registroCargas.containsKey(cargador)) {
-            // LinkedHashSet mantiene el orden de inserción cronológico.
-            registroCargas.put(cargador, new LinkedHashSet<>());
+        long inicio = StepProfiler.inicio();
+        SimulationEvents.Notification evento = new SimulationEvents.Notification();
+        evento.begin();
+        
+        registrarNotificacion(vehiculo, cargador);
+        
+        if (evento.shouldCommit()) {
+            evento.vehicleTier = vehiculo.getTipo().name();
+            evento.vehicle = vehiculo.getMatricula();
+            // El vehículo sigue en la estación donde ha recargado.
+            ChargingStation estacion = getChargingStation(vehiculo.getLocation());
+            evento.station = (estacion == null) ? null : estacion.getId();
+            evento.charger = cargador.getId();
+            evento.asynchronous = isNotificacionAsincrona();
+            evento.commit();
+        }
+        StepProfiler.medir(this, StepProfiler.Fase.NOTIFICACION, inicio);
+    }
+    
+    private void registrarNotificacion(ElectricVehicle vehiculo, Charger cargador) {
+        RechargeJournal diario = this.diarioRecargas;
+        if (diario != null) {
+            diario.anotarNotificacion(vehiculo, cargador);
         }
         
-        // Añadimos el vehículo al set del cargador.
-        // Al ser un Set, si el vehículo ya estaba, NO se duplica.
-        registroCargas.get(cargador).add(vehiculo);
+        NotificationPipeline canal = this.notificacionesAsincronas;
+        if (canal != null) {
+            // Se encola un registro compacto; el consumidor lo aplicará en un lote.
+            canal.publicar(registroCargas.idDe(vehiculo), registroCargas.idDe(cargador));
+            return;
+        }
+        
+        // Al ser un Set por cargador, si el vehículo ya estaba, NO se duplica.
+        registroCargas.registrar(vehiculo, cargador);
+    }
+    
+    /**
+     * Activa o desactiva el canal asíncrono de notificaciones.
+     * Al desactivarlo se aplican antes todas las notificaciones pendientes.
+     * 
+     * @param activa true para notificar de forma asíncrona y por lotes.
+     */
+    public synchronized void setNotificacionAsincrona(boolean activa) {
+        if (activa && this.notificacionesAsincronas == null) {
+            this.notificacionesAsincronas = new NotificationPipeline(this.registroCargas, CAPACIDAD_NOTIFICACIONES);
+        } else if (!activa && this.notificacionesAsincronas != null) {
+            this.notificacionesAsincronas.cerrar();
+            this.notificacionesAsincronas = null;
+        }
+    }
+    
+    public boolean isNotificacionAsincrona() {
+        return this.notificacionesAsincronas != null;
+    }
+    
+    /**
+     * Aplica al registro una notificación leída de un {@link RechargeJournal}
+     * (sin volver a anotarla).
+     */
+    void restaurarNotificacion(ElectricVehicle vehiculo, Charger cargador) {
+        registroCargas.registrar(vehiculo, cargador);
+    }
+    
+    /** Registro de notificaciones (para las pruebas). */
+    NotificationRegistry getRegistroCargas() {
+        return registroCargas;
+    }
+    
+    // --- Diario de recargas ---
+    
+    /**
+     * Anota en un diario cada recarga y cada notificación, para poder reconstruir
+     * las métricas si el proceso muere (ver {@link RechargeJournal#reproducir}).
+     * El diario no se cierra al cambiarlo: es de quien lo creó.
+     * 
+     * @param diario El diario, o null para dejar de anotar (por defecto).
+     */
+    public void setDiarioRecargas(RechargeJournal diario) {
+        this.diarioRecargas = diario;
+    }
+    
+    public RechargeJournal getDiarioRecargas() {
+        return this.diarioRecargas;
+    }
+    
+    /**
+     * Activa la grabación o reproducción de las decisiones de la simulación
+     * (rutas elegidas y cargadores concedidos). Ver {@link DecisionLog}.
+     * 
+     * @param decisiones El registro, o null para decidir con normalidad (por defecto).
+     */
+    public void setDecisiones(DecisionLog decisiones) {
+        this.decisiones = decisiones;
+    }
+    
+    public DecisionLog getDecisiones() {
+        return this.decisiones;
+    }
+    
+    /**
+     * Tiempos por fase de la simulación.
+     * 
+     * @return El perfil, o null si {@link StepProfiler#ACTIVO} es false.
+     */
+    public StepProfiler getPerfil() {
+        return this.perfil;
+    }
+    
+    public SimulationMetrics getMetricas() {
+        return this.metricas;
+    }
+    
+    /**
+     * Barrera de notificaciones: espera a que se apliquen todas las pendientes.
+     * EVDemo la llama al final de cada paso. No hace nada en modo síncrono.
+     */
+    public void flushNotificaciones() {
+        NotificationPipeline canal = this.notificacionesAsincronas;
+        if (canal != null) {
+            canal.flush();
+        }
     }
     
     /**
@@ -147,28 +653,26 @@ public class EVCompany {
      * Seguimos el formato mostrado en el ANEXO I.
      */
     public void showCompanyInfo() {
-        System.out.println("(--------------)");
-        System.out.println("( Company Info )");
-        System.out.println("(--------------)");
-        System.out.println("(EVCompany: " + this.nombre + ")");
-        
-        // Iteramos sobre el mapa.
-        for (Map.Entry<Charger, Set<ElectricVehicle>> entrada : registroCargas.entrySet()) {
-            Charger cargador = entrada.getKey();
-            Set<ElectricVehicle> vehiculos = entrada.getValue();
+        PrintStream out = getSalida();
+        out.println("(--------------)");
+        out.println("( Company Info )");
+        out.println("(--------------)");
+        out.println("(EVCompany: " + this.nombre + ")");
+        
+        // Aseguramos que el registro incluye todas las notificaciones publicadas.
+        flushNotificaciones();
+        
+        // Iteramos sobre el registro (solo cargadores CON notificaciones).
+        registroCargas.forEach((cargador, vehiculos) -> {
+            // MOSTRAR CARGADOR
+            out.println(cargador.toString());
             
-            // Si el cargador NO tiene notificaciones, NO se muestra.
-            if (!vehiculos.isEmpty()) {
-                // MOSTRAR CARGADOR
-                System.out.println(cargador.toString());
-                
-                // MOSTRAR VEHÍCULOS
-                for (ElectricVehicle ev : vehiculos) {
-                    // Usamos toString() o getInitialFinalInfo() según convenga.
-                    // Aquí utilizaremos la segunda opción.
-                    System.out.println(ev.getInitialFinalInfo());
-                }
+            // MOSTRAR VEHÍCULOS
+            for (ElectricVehicle ev : vehiculos) {
+                // Usamos toString() o getInitialFinalInfo() según convenga.
+                // Aquí utilizaremos la segunda opción.
+                out.println(ev.getInitialFinalInfo());
             }
-        }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para las compañías independientes (EVCompany.newInstance()).
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class EVCompanyTest {
+    /**
+     * Dos compañías no comparten estaciones, vehículos, notificaciones ni salida:
+     * simular una no cambia nada de la otra.
+     */
+    @Test
+    public void testCompaniasAisladas() {
+        ByteArrayOutputStream bytesA = new ByteArrayOutputStream();
+        ByteArrayOutputStream bytesB = new ByteArrayOutputStream();
+        EVCompany a = EVCompany.newInstance();
+        EVCompany b = EVCompany.newInstance();
+        assertNotSame(a, b);
+        assertNotSame(EVCompany.getInstance(), a);
+        assertNotSame(EVCompany.getInstance(), b);
+        a.setSalida(new PrintStream(bytesA, true));
+        b.setSalida(new PrintStream(bytesB, true));
+
+        EVDemo demoA = new EVDemo(a, DemoType.ADVANCED);
+        EVDemo demoB = new EVDemo(b, DemoType.ADVANCED);
+        assertEquals(DemoType.ADVANCED.getNumVehiclesToCreate(), a.getVehicles().size());
+        assertEquals(DemoType.ADVANCED.getNumVehiclesToCreate(), b.getVehicles().size());
+        assertEquals(a.getNumberOfStations(), b.getNumberOfStations());
+
+        Set<Object> objetosA = Collections.newSetFromMap(new IdentityHashMap<>());
+        objetosA.addAll(a.getVehicles());
+        for (ChargingStation estacion : a.getCityStations()) {
+            objetosA.add(estacion);
+            objetosA.addAll(estacion.getChargers());
+        }
+        for (ElectricVehicle vehiculo : b.getVehicles()) {
+            assertFalse(objetosA.contains(vehiculo));
+        }
+        for (ChargingStation estacion : b.getCityStations()) {
+            assertFalse(objetosA.contains(estacion));
+            for (Charger cargador : estacion.getChargers()) {
+                assertFalse(objetosA.contains(cargador));
+            }
+        }
+
+        String inicialA = bytesA.toString();
+        String inicialB = bytesB.toString();
+        assertEquals(inicialA, inicialB);
+        demoA.simular(EVDemo.MAXSTEPS);
+        a.showCompanyInfo();
+        String informeA = bytesA.toString();
+
+        // La compañía A ha recargado y notificado; la B sigue como estaba.
+        assertTrue(informeA.contains("(step: 1 "));
+        assertEquals(inicialB, bytesB.toString());
+        for (ElectricVehicle vehiculo : b.getVehicles()) {
+            assertEquals(0, vehiculo.getChargesCount());
+        }
+        for (ChargingStation estacion : b.getCityStations()) {
+            assertEquals(0, estacion.getNumerEVRecharged());
+        }
+        int recargasA = 0;
+        for (ChargingStation estacion : a.getCityStations()) {
+            recargasA += estacion.getNumerEVRecharged();
+        }
+        assertTrue(recargasA > 0);
+
+        // Sin notificaciones, el informe de B solo tiene la cabecera.
+        bytesB.reset();
+        b.showCompanyInfo();
+        String cabeceraB = bytesB.toString();
+        assertEquals(4, cabeceraB.split("\\R").length);
+        assertFalse(informeA.endsWith(cabeceraB));
+
+        // La misma simulación en B da exactamente la salida de A.
+        bytesB.reset();
+        demoB.simular(EVDemo.MAXSTEPS);
+        b.showCompanyInfo();
+        assertEquals(informeA.substring(inicialA.length()), bytesB.toString());
+    }
+
+    /**
+     * Dos compañías simuladas a la vez en hilos distintos (una con notificaciones
+     * asíncronas) terminan igual que una simulación sola.
+     */
+    @Test
+    public void testCompaniasEnParalelo() throws InterruptedException {
+        String esperado = simular(false);
+        String[] obtenido = new String[2];
+        Thread hiloA = new Thread(() -> obtenido[0] = simular(false));
+        Thread hiloB = new Thread(() -> obtenido[1] = simular(true));
+        hiloA.start();
+        hiloB.start();
+        hiloA.join();
+        hiloB.join();
+
+        assertEquals(esperado, obtenido[0]);
+        assertEquals(esperado, obtenido[1]);
+    }
+
+    // --- Métodos auxiliares ---
+
+    private static String simular(boolean asincrona) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(bytes, true));
+        compania.setNotificacionAsincrona(asincrona);
+        EVDemo demo = new EVDemo(compania, DemoType.ADVANCED);
+        demo.simular(EVDemo.MAXSTEPS);
+        demo.showFinalInfo();
+        compania.setNotificacionAsincrona(false);
+        return bytes.toString();
+    }
+}
@@ -1,8 +1,11 @@
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.io.*; // NECESARIO PARA EL MANEJO DE FICHEROS
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Clase principal que configura y ejecuta la simulación.
@@ -17,6 +20,9 @@ public class EVDemo {
     public static final int MAXY = 20;
     public static final int MAXSTEPS = 50;
     
+    /** Ubicaciones por defecto de las estaciones de la demo. */
+    private static final Location[] UBICACIONES_ESTACIONES = {new Location(5,5), new Location(15,15), new Location(5,15), new Location(15,5), new Location(10,10)};
+    
     // COMPONENTES PRINCIPALES
     private EVCompany company;
     private List<ElectricVehicle> vehicles;
@@ -24,40 +30,301 @@ public class EVDemo {
     
     // SELECCIÓN DEL ESCENARIO
     private static final DemoType DEMO = DemoType.ADVANCED;
+    private final DemoType demo;
+    
+    /** Tamaño de la flota; si supera la tabla fija, el resto es aleatorio. */
+    private final int numVehiculos;
+    /** Semilla para los vehículos que no están en la tabla fija. */
+    private final long semilla;
+    /** Ubicaciones de las estaciones, o null para usar las de la demo. */
+    private final Location[] ubicacionesEstaciones;
+    /** Origen del escenario (generador o fichero), o null para usar las tablas de la demo. */
+    private final ScenarioSource origen;
+    
+    /** Fichero donde se guarda la salida de run(). */
+    private String ficheroSalida;
+    /** Si es false, step() no imprime el estado de cada vehículo. */
+    private boolean informePorPaso;
+    /** Siguiente paso a simular (distinto de 0 al continuar desde un checkpoint). */
+    private int siguientePaso;
+    /** Si es false, reset() no imprime la flota y la red iniciales. */
+    private final boolean informeInicial;
     
     /**
      * Constructor. Inicializa la simulación y resetea el estado.
      */
     public EVDemo() {
-        // Usamos el patrón Singleton para obtener la compañía.
-        this.company = EVCompany.getInstance();
+        // Usamos la compañía compartida por defecto.
+        this(EVCompany.getInstance(), DEMO);
+    }
+    
+    /**
+     * Constructor para simulaciones en un contexto propio.
+     * Permite ejecutar varias simulaciones independientes (cada una con su
+     * compañía) en la misma JVM, incluso a la vez en hilos distintos.
+     * 
+     * @param company La compañía (contexto) de esta simulación.
+     * @param demo El escenario a configurar.
+     */
+    public EVDemo(EVCompany company, DemoType demo) {
+        this(company, demo, demo.getNumVehiclesToCreate(), 0L);
+    }
+    
+    /**
+     * Constructor para escenarios con un tamaño de flota distinto al del DemoType.
+     * Los primeros vehículos salen de la tabla fija de la demo; si se piden más,
+     * el resto lo crea un {@link ScenarioGenerator} con la semilla.
+     * 
+     * @param company La compañía (contexto) de esta simulación.
+     * @param demo El escenario (estaciones y cargadores).
+     * @param numVehiculos Número de vehículos de la flota.
+     * @param semilla Semilla para los vehículos generados.
+     */
+    public EVDemo(EVCompany company, DemoType demo, int numVehiculos, long semilla) {
+        this(company, demo, numVehiculos, semilla, null);
+    }
+    
+    /**
+     * Constructor con las ubicaciones de las estaciones elegidas por el llamante
+     * (p. ej. el optimizador de ubicaciones). Se crea una estación por ubicación.
+     * 
+     * @param company La compañía (contexto) de esta simulación.
+     * @param demo El escenario (cargadores por estación).
+     * @param numVehiculos Número de vehículos de la flota.
+     * @param semilla Semilla para los vehículos generados.
+     * @param ubicacionesEstaciones Ubicaciones de las estaciones, o null para las de la demo.
+     */
+    public EVDemo(EVCompany company, DemoType demo, int numVehiculos, long semilla, List<Location> ubicacionesEstaciones) {
+        this(company, demo, numVehiculos, semilla, ubicacionesEstaciones, true);
+    }
+    
+    /**
+     * Constructor completo para escenarios de la demo.
+     * 
+     * @param company La compañía (contexto) de esta simulación.
+     * @param demo El escenario (cargadores por estación).
+     * @param numVehiculos Número de vehículos de la flota.
+     * @param semilla Semilla para los vehículos generados.
+     * @param ubicacionesEstaciones Ubicaciones de las estaciones, o null para las de la demo.
+     * @param informeInicial Si es false no se imprimen la flota y la red al crearlas
+     *        (ejecuciones sin consola con flotas enormes).
+     */
+    public EVDemo(EVCompany company, DemoType demo, int numVehiculos, long semilla, List<Location> ubicacionesEstaciones,
+                  boolean informeInicial) {
+        if (company == null || demo == null) {
+            throw new NullPointerException("La compañía y el escenario no pueden ser nulos.");
+        }
+        if (numVehiculos < 0) {
+            throw new IllegalArgumentException("Número de vehículos negativo: " + numVehiculos);
+        }
+        this.company = company;
+        this.demo = demo;
+        this.numVehiculos = numVehiculos;
+        this.semilla = semilla;
+        this.ubicacionesEstaciones = (ubicacionesEstaciones == null) ? null
+            : ubicacionesEstaciones.toArray(new Location[0]);
+        this.origen = null;
+        this.ficheroSalida = "simulation_output.txt";
+        this.informePorPaso = true;
+        this.informeInicial = informeInicial;
         this.vehicles = new ArrayList<>();
         this.stations = new ArrayList<>();
         reset();
     }
     
+    /**
+     * Constructor para escenarios de cualquier tamaño (sintéticos o cargados de fichero).
+     * La flota, las estaciones y los cargadores salen del origen en lugar de
+     * las tablas fijas de la demo.
+     * 
+     * @param company La compañía (contexto) de esta simulación.
+     * @param origen El origen del escenario.
+     */
+    public EVDemo(EVCompany company, ScenarioSource origen) {
+        this(company, origen, true);
+    }
+    
+    /**
+     * Constructor para escenarios de cualquier tamaño, eligiendo si se imprime el
+     * estado inicial.
+     * 
+     * @param company La compañía (contexto) de esta simulación.
+     * @param origen El origen del escenario.
+     * @param informeInicial Si es false no se imprimen la flota y la red al crearlas
+     *        (ejecuciones sin consola con flotas enormes).
+     */
+    public EVDemo(EVCompany company, ScenarioSource origen, boolean informeInicial) {
+        if (company == null || origen == null) {
+            throw new NullPointerException("La compañía y el origen del escenario no pueden ser nulos.");
+        }
+        this.company = company;
+        this.demo = null;
+        this.numVehiculos = 0;
+        this.semilla = 0L;
+        this.ubicacionesEstaciones = null;
+        this.origen = origen;
+        this.ficheroSalida = "simulation_output.txt";
+        this.informePorPaso = true;
+        this.informeInicial = informeInicial;
+        this.vehicles = new ArrayList<>();
+        this.stations = new ArrayList<>();
+        reset();
+    }
+    
+    /**
+     * Constructor para restaurar un checkpoint: no crea nada, lo rellena
+     * {@link #leerEstado}.
+     */
+    private EVDemo(EVCompany company, DemoType demo, int numVehiculos, long semilla,
+                   Location[] ubicacionesEstaciones, int siguientePaso) {
+        this.company = company;
+        this.demo = demo;
+        this.numVehiculos = numVehiculos;
+        this.semilla = semilla;
+        this.ubicacionesEstaciones = ubicacionesEstaciones;
+        this.origen = null;
+        this.ficheroSalida = "simulation_output.txt";
+        this.informePorPaso = true;
+        this.informeInicial = true;
+        this.siguientePaso = siguientePaso;
+        this.vehicles = new ArrayList<>();
+        this.stations = new ArrayList<>();
+    }
+    
+    /**
+     * Cambia el fichero donde run() guarda la salida.
+     * Imprescindible si varias simulaciones se ejecutan a la vez.
+     */
+    public void setFicheroSalida(String ficheroSalida) {
+        if (ficheroSalida == null) {
+            throw new NullPointerException("El fichero de salida no puede ser nulo.");
+        }
+        this.ficheroSalida = ficheroSalida;
+    }
+    
+    /**
+     * Activa o desactiva el informe de cada vehículo al final de cada paso.
+     * Las ejecuciones por lotes lo desactivan para no formatear texto que nadie lee.
+     */
+    public void setInformePorPaso(boolean informePorPaso) {
+        this.informePorPaso = informePorPaso;
+    }
+    
+    public EVCompany getCompany() {
+        return this.company;
+    }
+    
+    public List<ElectricVehicle> getVehicles() {
+        return Collections.unmodifiableList(this.vehicles);
+    }
+    
+    public List<ChargingStation> getStations() {
+        return Collections.unmodifiableList(this.stations);
+    }
+    
+    /**
+     * Devuelve las ubicaciones por defecto de las estaciones de un escenario.
+     */
+    public static List<Location> getUbicacionesEstaciones(DemoType demo) {
+        return new ArrayList<>(Arrays.asList(UBICACIONES_ESTACIONES).subList(0, demo.getNumStationsToCreate()));
+    }
+    
+    /**
+     * Devuelve el siguiente paso a simular.
+     */
+    public int getSiguientePaso() {
+        return this.siguientePaso;
+    }
+    
+    /**
+     * Guarda el estado completo de la simulación para poder continuarla más tarde.
+     * 
+     * @param fichero Fichero del checkpoint.
+     * @throws IOException Si no se puede escribir.
+     * @see Checkpoint
+     */
+    public void guardarCheckpoint(Path fichero) throws IOException {
+        Checkpoint.guardar(this, fichero);
+    }
+    
+    /**
+     * Restaura una simulación guardada con {@link #guardarCheckpoint}, lista para
+     * continuar en el paso en que se guardó.
+     * 
+     * @param fichero Fichero del checkpoint.
+     * @param company Compañía (contexto) en la que se restaura.
+     * @return La simulación restaurada.
+     * @throws IOException Si no se puede leer o el fichero no es válido.
+     */
+    public static EVDemo restaurar(Path fichero, EVCompany company) throws IOException {
+        return Checkpoint.restaurar(fichero, company);
+    }
+    
+    /**
+     * Ejecuta, sin escribir fichero ni información final, los pasos que faltan
+     * hasta el indicado. Pensado para ejecuciones por lotes, donde solo interesa
+     * el estado final.
+     * 
+     * @param pasos Número total de pasos de la simulación.
+     */
+    public void simular(int pasos) {
+        for (int step = siguientePaso; step < pasos; step++) {
+            step(step);
+        }
+        company.flushNotificaciones();
+    }
+    
+    /**
+     * Como {@link #simular(int)}, pero cada vehículo actúa como un agente en su
+     * propio hilo (virtual si la JVM lo permite) y espera bloqueado en la cola de
+     * una estación hasta que le pasan un cargador (ver {@link VehicleAgents}).
+     * Los pasos siguen sincronizados: sesiones, actuación, notificaciones e
+     * informe ocurren en el mismo orden, pero el orden entre vehículos, y con
+     * él la salida, depende de la planificación de los hilos.
+     * 
+     * @param pasos Número total de pasos de la simulación.
+     * @throws IllegalStateException Si la compañía tiene un registro de decisiones.
+     */
+    public void simularConAgentes(int pasos) {
+        simularConAgentes(pasos, VehicleAgents.fabricaPorDefecto());
+    }
+    
+    /**
+     * Como {@link #simularConAgentes(int)}, con los hilos de la fábrica indicada.
+     */
+    void simularConAgentes(int pasos, ThreadFactory fabrica) {
+        try (VehicleAgents agentes = new VehicleAgents(company, vehicles, siguientePaso, fabrica)) {
+            for (int step = siguientePaso; step < pasos; step++) {
+                ejecutarPaso(step, agentes);
+            }
+        }
+        company.flushNotificaciones();
+    }
+    
     /**
      * Ejecuta el bucle principal de la simulación.
      * EXTRA: ESCRITURA EN FICHERO
      * 
-     * Este método redirige la salida estándar para que todo lo que se imprima por consola
-     * se guarde también en el fichero simulation_output.txt
+     * Este método duplica la salida de la compañía para que todo lo que se imprima
+     * por consola se guarde también en el fichero de salida (simulation_output.txt
+     * por defecto). No toca System.out, así que otras simulaciones pueden
+     * ejecutarse a la vez con su propia salida.
      */
     public void run() {
-        // 1. GUARDAMOS LA REFERENCIA A LA CONSOLA ORIGINAL PARA RESTAURARLA LUEGO
-        PrintStream consolaOriginal = System.out;
+        // 1. GUARDAMOS LA REFERENCIA A LA SALIDA ORIGINAL PARA RESTAURARLA LUEGO
+        PrintStream consolaOriginal = company.getSalida();
         PrintStream ficheroStream = null;
         
         try {
             // 2. CREAMOS EL FICHERO DE SALIDA
-            ficheroStream = new PrintStream(new FileOutputStream("simulation_output.txt"));
+            ficheroStream = new PrintStream(new FileOutputStream(ficheroSalida));
             
             // 3. ACTIVAMOS EL STREAM DUAL (CONSOLA + FICHERO)
             DualPrintStream dualStream = new DualPrintStream(consolaOriginal, ficheroStream);
-            System.setOut(dualStream);
+            company.setSalida(dualStream);
             
             // --- INICIO DE LA SIMULACIÓN ---
-            for (int step = 0; step < MAXSTEPS; step++) {
+            for (int step = siguientePaso; step < MAXSTEPS; step++) {
                 step(step);
             }
             showFinalInfo();
@@ -65,16 +332,20 @@ public class EVDemo {
             // --- FIN DE LA SIMULACIÓN
         } catch (FileNotFoundException e) {
             // SI FALLA EL FICHERO, AVISAMOS PERO INTENTAMOS SEGUIR POR CONSOLA
-            System.setOut(consolaOriginal);
+            company.setSalida(consolaOriginal);
             System.err.println("Error: no se pudo crear el fichero de salida.");
             e.printStackTrace();
         } finally {
-            // 4. IMPORTANTE: RESTAURAR SIEMPRE LA CONSOLA ORIGINAL AL TERMINAR
-            System.setOut(consolaOriginal);
+            // 4. IMPORTANTE: RESTAURAR SIEMPRE LA SALIDA ORIGINAL AL TERMINAR
+            company.setSalida(consolaOriginal);
             if (ficheroStream != null) {
                 ficheroStream.close();
             }
-            System.out.println("Simulación finaliza. Salida guardada en simulation_output.txt");
+            // El perfil por fases va a la consola, no al fichero de la simulación.
+            if (StepProfiler.ACTIVO) {
+                company.getPerfil().volcar(consolaOriginal);
+            }
+            consolaOriginal.println("Simulación finaliza. Salida guardada en " + ficheroSalida);
         }
     }
     
@@ -82,31 +353,136 @@ public class EVDemo {
      * Ejecuta un único paso de la simulación.
      */
     public void step(int step) {
+        ejecutarPaso(step, null);
+    }
+    
+    /**
+     * Ejecuta un paso; la actuación la hacen los agentes si se indican o, si no,
+     * los vehículos uno tras otro en este hilo.
+     */
+    private void ejecutarPaso(int step, VehicleAgents agentes) {
+        long inicioMetricas = System.nanoTime();
+        // Tiempos por fase (no hace nada si StepProfiler.ACTIVO es false).
+        long inicioPaso = StepProfiler.inicio();
+        
+        // 0. FIN DE LAS SESIONES DE CARGA QUE VENCEN EN ESTE PASO (SOLO CARGA TEMPORIZADA)
+        company.avanzarSesiones(step);
+        long inicio = StepProfiler.medir(company, StepProfiler.Fase.SESIONES, inicioPaso);
         
         // 1. FASE DE ACTUACIÓN (POLIMORFISMO: CADA VEHÍCULO ACTÚA SEGÚN SU TIPO)
-        for (ElectricVehicle vehicle : this.vehicles) {
-            vehicle.act(step);
+        if (agentes == null) {
+            for (ElectricVehicle vehicle : this.vehicles) {
+                vehicle.act(step);
+            }
+        } else {
+            agentes.actuar(step);
         }
+        inicio = StepProfiler.medir(company, StepProfiler.Fase.ACTUACION, inicio);
+        
+        // BARRERA: LAS NOTIFICACIONES ASÍNCRONAS DEL PASO QUEDAN APLICADAS
+        company.flushNotificaciones();
+        siguientePaso = step + 1;
+        inicio = StepProfiler.medir(company, StepProfiler.Fase.BARRERA, inicio);
         
         // 2. FASE DE REPORTE
-        for (ElectricVehicle vehicle : this.vehicles) {
-            System.out.println(vehicle.getStepInfo(step));
+        if (informePorPaso) {
+            PrintStream out = company.getSalida();
+            for (ElectricVehicle vehicle : this.vehicles) {
+                out.println(vehicle.getStepInfo(step));
+            }
+            StepProfiler.medir(company, StepProfiler.Fase.INFORME, inicio);
         }
+        StepProfiler.medir(company, StepProfiler.Fase.PASO, inicioPaso);
+        company.getMetricas().registrarPaso(System.nanoTime() - inicioMetricas);
     }
     
     /**
      * Reinicia y reconfigura todo el entorno.
      */
     public void reset() {
+        if (demo == null && origen == null) {
+            throw new IllegalStateException("La simulación restaurada no conserva el origen de su escenario.");
+        }
+        this.siguientePaso = 0;
         this.vehicles.clear();
         this.stations.clear();
         this.company.reset();
         
-        createElectricVehicles();
-        createStations();
-        createChargers();
+        if (origen != null) {
+            generarEscenario();
+        } else {
+            createElectricVehicles();
+            createStations();
+            createChargers();
+        }
         configureRoutes();
-        showInitialInfo();
+        if (informeInicial) {
+            showInitialInfo();
+        }
+    }
+    
+    /**
+     * Vuelve al inicio de la simulación reutilizando los vehículos, estaciones y
+     * cargadores ya creados en lugar de crearlos de nuevo como {@link #reset()}.
+     * Cada objeto recupera su estado de salida (batería, posición, contadores,
+     * historiales, cargadores libres) y se recalculan las rutas, así que la
+     * simulación repetida es idéntica a la primera. Pensado para ejecuciones
+     * repetidas (barridos, pruebas de rendimiento) con flotas grandes; también
+     * sirve con una simulación restaurada de un checkpoint.
+     */
+    public void reiniciar() {
+        this.siguientePaso = 0;
+        this.company.reiniciar();
+        for (ChargingStation estacion : this.stations) {
+            estacion.reiniciar();
+        }
+        for (ElectricVehicle vehiculo : this.vehicles) {
+            vehiculo.reiniciar();
+        }
+        
+        // showFinalInfo() reordena las listas: se recupera el orden de creación.
+        this.vehicles.sort((v1, v2) -> v1.getMatricula().compareTo(v2.getMatricula()));
+        this.stations.sort((s1, s2) -> s1.getId().compareTo(s2.getId()));
+        
+        configureRoutes();
+        if (informeInicial) {
+            showInitialInfo();
+        }
+    }
+    
+    /**
+     * Crea el escenario desde su origen: cada elemento pasa directamente del
+     * origen a la compañía y a las listas de la simulación.
+     */
+    private void generarEscenario() {
+        origen.generar(company, destinoEscenario());
+        
+        this.vehicles.sort((v1, v2) -> v1.getMatricula().compareTo(v2.getMatricula()));
+        this.stations.sort((s1, s2) -> s1.getId().compareTo(s2.getId()));
+    }
+    
+    /**
+     * Destino que da de alta cada elemento en la compañía y en las listas de la simulación.
+     */
+    private ScenarioSink destinoEscenario() {
+        return new ScenarioSink() {
+            @Override
+            public void estacion(ChargingStation estacion) {
+                stations.add(estacion);
+                company.addChargingStation(estacion);
+            }
+            
+            @Override
+            public void cargador(ChargingStation estacion, Charger cargador) {
+                estacion.addCharger(cargador);
+            }
+            
+            @Override
+            public void vehiculo(ElectricVehicle vehiculo) {
+                vehicles.add(vehiculo);
+                company.addElectricVehicle(vehiculo);
+            }
+        };
     }
     
     /**
@@ -121,7 +497,7 @@ public class EVDemo {
                                        new Location(1,19), new Location(1,19), new Location(19,10), new Location(10,19),
                                        new Location(10,20), new Location(20,10)};
                                         
-        for (int i = 0; i < DEMO.getNumVehiclesToCreate(); i++){
+        for (int i = 0; i < Math.min(numVehiculos, locations.length); i++){
             // Lógica de rotación de tipos
             VehicleTier[] tiposDisponibles = {VehicleTier.STANDARD, VehicleTier.PRIORITY, VehicleTier.VTC, VehicleTier.PREMIUM};
             VehicleTier tipo = tiposDisponibles[i % tiposDisponibles.length];
@@ -137,6 +513,13 @@ public class EVDemo {
             this.company.addElectricVehicle(ev);
         }
         
+        // Vehículos adicionales (más allá de la tabla fija): los crea el generador con la semilla.
+        if (numVehiculos > locations.length) {
+            ScenarioGenerator generador = new ScenarioGenerator(numVehiculos - locations.length, 0, semilla);
+            generador.setPrimerVehiculo(locations.length);
+            generador.generar(company, destinoEscenario());
+        }
+        
         this.vehicles.sort((v1, v2) -> v1.getMatricula().compareTo(v2.getMatricula()));
     }
     
@@ -144,9 +527,14 @@ public class EVDemo {
      * Crea las estaciones de carga.
      */
     private void createStations() {
-        Location [] locations = {new Location(5,5), new Location(15,15), new Location(5,15), new Location(15,5), new Location(10,10)};
+        Location [] locations = UBICACIONES_ESTACIONES;
+        int numEstaciones = demo.getNumStationsToCreate();
+        if (ubicacionesEstaciones != null) {
+            locations = ubicacionesEstaciones;
+            numEstaciones = locations.length;
+        }
                                 
-        for (int i = 0; i < DEMO.getNumStationsToCreate(); i++){
+        for (int i = 0; i < numEstaciones; i++){
             // Usamos "Caceres" sin tilde
             ChargingStation nuevaEstacion = new ChargingStation("Caceres", "CC0" + i, locations[i]);
             this.stations.add(nuevaEstacion);
@@ -165,15 +553,15 @@ public class EVDemo {
         
         int j = 0;
         for (ChargingStation station : cityStations){
-            for (int i = 0; i < DEMO.getNumChargersToCreate(); i++){
+            for (int i = 0; i < demo.getNumChargersToCreate(); i++){
                 
                 String idCargador = station.getId() + "_00" + i;
                 int velocidad = (i + j + 1) * 20;
                 float tarifa = (i + 1) * 0.20f;
                 
                 // Determinamos el tipo de cargador
-                int numCargadores = DEMO.getNumChargersToCreate();
-                int numEstaciones = DEMO.getNumStationsToCreate();
+                int numCargadores = demo.getNumChargersToCreate();
+                int numEstaciones = demo.getNumStationsToCreate();
                 ChargerFactory.ChargerType tipoCargador;
 
                 if (i % numCargadores == (j % numEstaciones - 1)) {
@@ -205,40 +593,45 @@ public class EVDemo {
     }
     
     private void showInitialInfo() {
-        System.out.println("( Compania EVCharging Caceres )");
-        System.out.println("(-------------------)");
-        System.out.println("( Electric Vehicles )");
-        System.out.println("(-------------------)");
+        PrintStream out = company.getSalida();
+        out.println("( Compania EVCharging Caceres )");
+        out.println("(-------------------)");
+        out.println("( Electric Vehicles )");
+        out.println("(-------------------)");
         
         for (ElectricVehicle vehiculo : this.vehicles) {
-            System.out.println(vehiculo.getInitialFinalInfo());
+            out.println(vehiculo.getInitialFinalInfo());
         }
 
-        System.out.println("(-------------------)");
-        System.out.println("( Charging Stations )");
-        System.out.println("(-------------------)");
+        out.println("(-------------------)");
+        out.println("( Charging Stations )");
+        out.println("(-------------------)");
        
         for (ChargingStation estacion : this.stations) {
-            System.out.println(estacion.toString()); 
+            out.println(estacion.toString()); 
             // Mostramos los cargadores (usarán su toString específico: StandardCharger, etc.)
             for (Charger cargador : estacion.getChargers()) {
-                System.out.println(cargador.toString());
+                out.println(cargador.toString());
             }
         }
         
-        System.out.println("(------------------)");
-        System.out.println("( Simulation start )");
-        System.out.println("(------------------)");
+        out.println("(------------------)");
+        out.println("( Simulation start )");
+        out.println("(------------------)");
     }
 
-    private void showFinalInfo() {
-        System.out.println("(-------------------)");
-        System.out.println("( Final information )");        
-        System.out.println("(-------------------)");
+    /**
+     * Imprime el estado final de vehículos, estaciones y compañía en la salida de la compañía.
+     */
+    void showFinalInfo() {
+        PrintStream out = company.getSalida();
+        out.println("(-------------------)");
+        out.println("( Final information )");        
+        out.println("(-------------------)");
 
-        System.out.println("(-------------------)");
-        System.out.println("( Electric Vehicles )");
-        System.out.println("(-------------------)");
+        out.println("(-------------------)");
+        out.println("( Electric Vehicles )");
+        out.println("(-------------------)");
         
         // Ordenar vehículos: Turno llegada (asc) -> Matrícula (asc)
         this.vehicles.sort((v1, v2) -> {
@@ -250,12 +643,12 @@ public class EVDemo {
         });
         
         for (ElectricVehicle vehiculo : this.vehicles) {
-            System.out.println(vehiculo.getInitialFinalInfo());
+            out.println(vehiculo.getInitialFinalInfo());
         }
 
-        System.out.println("(-------------------)");
-        System.out.println("( Charging Stations )");
-        System.out.println("(-------------------)");
+        out.println("(-------------------)");
+        out.println("( Charging Stations )");
+        out.println("(-------------------)");
        
         // Ordenar estaciones: Nº recargas (desc) -> ID (asc)
         this.stations.sort((s1, s2) -> {
@@ -266,18 +659,92 @@ public class EVDemo {
         });
         
         for (ChargingStation estacion : this.stations) {
-            System.out.println(estacion.getCompleteInfo());
+            out.println(estacion.getCompleteInfo());
         }
         
         // --- NUEVO REQUISITO: Mostrar info de la compañía (notificaciones) ---
         company.showCompanyInfo();
     }
     
+    // --- Checkpoint ---
+    
+    /**
+     * Escribe el estado propio de la simulación: siguiente paso, orden de
+     * vehículos y estaciones y configuración del escenario.
+     */
+    void escribirEstado(DataOutput out, Checkpoint.Indices indices) throws IOException {
+        out.writeInt(siguientePaso);
+        indices.escribirVehiculos(out, vehicles, vehicles.size());
+        out.writeInt(stations.size());
+        for (ChargingStation estacion : stations) {
+            out.writeInt(indices.de(estacion));
+        }
+        
+        // Un escenario con origen externo (generador o fichero) no se puede reiniciar tras restaurarlo.
+        out.writeBoolean(demo != null);
+        if (demo != null) {
+            out.writeUTF(demo.name());
+            out.writeInt(numVehiculos);
+            out.writeLong(semilla);
+            out.writeInt(ubicacionesEstaciones == null ? -1 : ubicacionesEstaciones.length);
+            if (ubicacionesEstaciones != null) {
+                for (Location ubicacion : ubicacionesEstaciones) {
+                    Checkpoint.escribirLocalizacion(out, ubicacion);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Crea la simulación restaurada a partir de lo escrito por {@link #escribirEstado}.
+     */
+    static EVDemo leerEstado(DataInput in, Checkpoint.Indices indices, EVCompany company) throws IOException {
+        int siguientePaso = in.readInt();
+        List<ElectricVehicle> vehiculos = indices.leerVehiculos(in);
+        int numEstaciones = in.readInt();
+        List<ChargingStation> estaciones = new ArrayList<>(numEstaciones);
+        for (int i = 0; i < numEstaciones; i++) {
+            estaciones.add(indices.estacion(in.readInt()));
+        }
+        
+        EVDemo restaurada;
+        if (in.readBoolean()) {
+            DemoType demo = DemoType.valueOf(in.readUTF());
+            int numVehiculos = in.readInt();
+            long semilla = in.readLong();
+            int numUbicaciones = in.readInt();
+            Location[] ubicaciones = (numUbicaciones < 0) ? null : new Location[numUbicaciones];
+            for (int i = 0; i < numUbicaciones; i++) {
+                ubicaciones[i] = Checkpoint.leerLocalizacion(in);
+            }
+            restaurada = new EVDemo(company, demo, numVehiculos, semilla, ubicaciones, siguientePaso);
+        } else {
+            restaurada = new EVDemo(company, null, 0, 0L, null, siguientePaso);
+        }
+        
+        restaurada.vehicles.addAll(vehiculos);
+        restaurada.stations.addAll(estaciones);
+        return restaurada;
+    }
+    
     public static void main() {
         EVDemo demo = new EVDemo();
         demo.run();
     }
     
+    /**
+     * Punto de entrada desde la línea de órdenes. Sin argumentos ejecuta la demo
+     * como {@link #main()}; con argumentos, una ejecución sin consola configurada
+     * por ellos (ver {@link HeadlessRunner}).
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            main();
+        } else {
+            HeadlessRunner.main(args);
+        }
+    }
+    
     // --- CLASE INTERNA PARA EL STREAM DUAL ---
     /**
      * Clase auxiliar que redirige la salida a dos flujos simultáneamente:
@@ -0,0 +1,121 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para el reinicio en sitio de EVDemo.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class EVDemoTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Reiniciar la demo tras terminarla la repite idéntica (estado inicial,
+     * pasos e informe final) con los mismos objetos.
+     */
+    @Test
+    public void testReiniciarDemoEsIdentico() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(bytes, true));
+        EVDemo demo = new EVDemo(compania, DemoType.ADVANCED);
+        List<ElectricVehicle> vehiculos = new ArrayList<>(demo.getVehicles());
+
+        demo.simular(EVDemo.MAXSTEPS);
+        demo.showFinalInfo();
+        String primera = bytes.toString();
+
+        bytes.reset();
+        demo.reiniciar();
+        assertEquals(vehiculos.size(), demo.getVehicles().size());
+        for (int i = 0; i < vehiculos.size(); i++) {
+            assertSame(vehiculos.get(i), demo.getVehicles().get(i));
+        }
+        demo.simular(EVDemo.MAXSTEPS);
+        demo.showFinalInfo();
+
+        assertEquals(primera, bytes.toString());
+    }
+
+    /**
+     * Reiniciar a mitad de una simulación con sesiones en curso, colas de espera
+     * y notificaciones asíncronas da lo mismo que una simulación recién creada.
+     */
+    @Test
+    public void testReiniciarConSesionesYColas() {
+        Function<EVCompany, EVDemo> escenario = compania -> {
+            compania.setCargaTemporizada(true);
+            compania.setPesoCongestion(1.0);
+            compania.setNotificacionAsincrona(true);
+            ScenarioGenerator generador = new ScenarioGenerator(200, 4, 9L);
+            generador.setCargadoresPorEstacion(1, 2);
+            generador.setVelocidadCarga(5, 15);
+            return new EVDemo(compania, generador, false);
+        };
+
+        ByteArrayOutputStream referencia = new ByteArrayOutputStream();
+        EVDemo nueva = escenario.apply(EVCompany.newInstance());
+        ejecutar(nueva, referencia);
+
+        ByteArrayOutputStream reiniciada = new ByteArrayOutputStream();
+        EVDemo demo = escenario.apply(EVCompany.newInstance());
+        demo.simular(10);
+        assertTrue(demo.getCompany().getNumSesionesEnCurso() > 0);
+        demo.reiniciar();
+        ejecutar(demo, reiniciada);
+
+        assertEquals(referencia.toString(), reiniciada.toString());
+        nueva.getCompany().setNotificacionAsincrona(false);
+        demo.getCompany().setNotificacionAsincrona(false);
+    }
+
+    /**
+     * Una simulación restaurada de un checkpoint se reinicia al estado de salida
+     * de la original, no al del momento del checkpoint.
+     */
+    @Test
+    public void testReiniciarRestaurada() throws IOException {
+        ByteArrayOutputStream referencia = new ByteArrayOutputStream();
+        ejecutar(crearGenerada(EVCompany.newInstance()), referencia);
+
+        EVDemo demo = crearGenerada(EVCompany.newInstance());
+        demo.simular(15);
+        Path fichero = carpeta.getRoot().toPath().resolve("demo.ckpt");
+        demo.guardarCheckpoint(fichero);
+
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        EVDemo restaurada = EVDemo.restaurar(fichero, compania);
+        restaurada.reiniciar();
+        ByteArrayOutputStream reiniciada = new ByteArrayOutputStream();
+        ejecutar(restaurada, reiniciada);
+
+        assertEquals(referencia.toString(), reiniciada.toString());
+    }
+
+    // --- Métodos auxiliares ---
+
+    private static EVDemo crearGenerada(EVCompany compania) {
+        compania.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        return new EVDemo(compania, new ScenarioGenerator(100, 5, 3L), false);
+    }
+
+    /** Simula todos los pasos y escribe el informe de cada paso y el final. */
+    private static void ejecutar(EVDemo demo, ByteArrayOutputStream salida) {
+        demo.getCompany().setSalida(new PrintStream(salida, true));
+        demo.simular(EVDemo.MAXSTEPS);
+        demo.showFinalInfo();
+    }
+}
@@ -1,3 +1,6 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -18,20 +21,36 @@ public abstract class ElectricVehicle {
     protected String nombre;
     
     protected Location localizacion;
+    /** Posición de salida, a la que vuelve el vehículo al reiniciarlo. */
+    protected Location localizacionInicial;
     protected Location localizacionDestinoFinal;
     protected Location localizacionRecarga;
+    protected ChargingStation estacionRecarga;
+    
+    /** Versión de la red de estaciones con la que se calculó la ruta actual. */
+    protected long versionRuta;
     
     protected int capacidadBateria;
     protected int nivelBateria;
     
     protected int contadorInactividad;
     protected int contadorRecargas;
-    protected float costeTotalRecargas;
+    /** Coste total en micro-euros (un único escritor: el propio vehículo). */
+    protected long costeTotalMicros;
     protected int kwhTotalesCargados;
     
     protected int turnoLlegada;
     protected boolean haLlegadoAlDestino;
     
+    /** Sesión de carga en curso (solo en modo de carga temporizada). */
+    protected ChargingSession sesionActiva;
+    
+    /** Estación en cuya cola espera el vehículo un cargador libre (null si no espera). */
+    protected ChargingStation estacionEspera;
+    
+    /** Agente que ejecuta el vehículo en su propio hilo (null fuera de {@link VehicleAgents}). */
+    VehicleAgents.Agente agente;
+    
     // --- Constructor ---
     public ElectricVehicle(EVCompany company, Location location, Location targetLocation, String name, String plate, int batteryCapacity) {
         if(company == null || location == null || targetLocation == null) {
@@ -39,6 +58,7 @@ public abstract class ElectricVehicle {
         }
         this.compania = company;
         this.localizacion = location;
+        this.localizacionInicial = location;
         this.localizacionDestinoFinal = targetLocation;
         this.nombre = name;
         this.matricula = plate;
@@ -48,11 +68,15 @@ public abstract class ElectricVehicle {
         this.nivelBateria = this.capacidadBateria;
         this.contadorInactividad = 0;
         this.contadorRecargas = 0;
-        this.costeTotalRecargas = 0.0f;
+        this.costeTotalMicros = 0;
         this.kwhTotalesCargados = 0;
         this.localizacionRecarga = null;
+        this.estacionRecarga = null;
+        this.versionRuta = -1;
         this.haLlegadoAlDestino = false;
         this.turnoLlegada = -1;
+        this.sesionActiva = null;
+        this.estacionEspera = null;
     }
     
     // -- Métodos abstractos (polimorfismo puro) ---
@@ -77,6 +101,40 @@ public abstract class ElectricVehicle {
      */
     protected abstract void notificarRecargaACompania(Charger cargador);
     
+    /**
+     * Indica si la estrategia de selección de estación depende de los cargadores instalados.
+     * La compañía lo usa para reencaminar solo a los vehículos afectados cuando se
+     * añade un cargador. Por defecto la elección depende solo de la posición.
+     * 
+     * @return true si añadir un cargador puede cambiar la estación elegida.
+     */
+    protected boolean dependeDeCargadores() {
+        // Con la penalización por congestión, el número de cargadores influye en todas las estrategias.
+        return compania.getPesoCongestion() > 0;
+    }
+    
+    /**
+     * Calcula la penalización por congestión de una estación para este vehículo.
+     * Las estrategias la suman a su métrica (distancias) o la aplican como factor
+     * (tarifas, velocidades). Sin política de congestión devuelve 0 y la elección
+     * es idéntica a la original.
+     * 
+     * @param estacion La estación evaluada.
+     * @return Penalización no negativa.
+     */
+    protected double penalizacionCongestion(ChargingStation estacion) {
+        double peso = compania.getPesoCongestion();
+        if (peso == 0) {
+            return 0;
+        }
+        
+        int demanda = estacion.getVehiculosEntrantes() + estacion.getVehiculosOcupando();
+        if (estacion == estacionRecarga) {
+            demanda--; // No nos penalizamos a nosotros mismos.
+        }
+        return peso * Math.max(0, demanda) / Math.max(1, estacion.getNumChargers());
+    }
+    
     // --- Lógica de movimiento y simulación ---
     
     /**
@@ -92,6 +150,17 @@ public abstract class ElectricVehicle {
             return;
         }
         
+        // Mientras dura la sesión de carga el vehículo permanece en el cargador.
+        if(estaRecargando()) {
+            return;
+        }
+        
+        // En la cola de espera de una estación el vehículo está inactivo.
+        if(estaEsperando()) {
+            incrementIdleCount();
+            return;
+        }
+        
         // Intentar moverse un paso.
         boolean seHaMovido = intentarMoverse();
         
@@ -141,7 +210,7 @@ public abstract class ElectricVehicle {
         if(localizacion.equals(localizacionDestinoFinal)) {
             haLlegadoAlDestino = true;
             turnoLlegada = step;
-            System.out.println(String.format("(step: %d - %s at target destination ********)",
+            compania.getSalida().println(String.format("(step: %d - %s at target destination ********)",
                 step, this.getStepPrefix()));
         }
         // Caso B. Estación de recarga
@@ -152,56 +221,314 @@ public abstract class ElectricVehicle {
     
     // --- Lógica de recarga ---
     public void recharge(int step) {
+        long inicio = StepProfiler.inicio();
+        SimulationEvents.ChargeAttempt evento = new SimulationEvents.ChargeAttempt();
+        evento.begin();
+        
         ChargingStation estacion = compania.getChargingStation(localizacion);
-        if(estacion == null) {
-            return;
-        }
+        Charger cargador = (estacion == null) ? null : recargarEnEstacion(estacion, step);
         
+        if(evento.shouldCommit()) {
+            evento.vehicleTier = getTipo().name();
+            evento.vehicle = matricula;
+            evento.step = step;
+            evento.station = (estacion == null) ? null : estacion.getId();
+            evento.charger = (cargador == null) ? null : cargador.getId();
+            if(estacion == null) {
+                evento.outcome = SimulationEvents.ChargeAttempt.SIN_ESTACION;
+            } else if(cargador != null) {
+                evento.outcome = cargador.esCompatible(getTipo()) ? SimulationEvents.ChargeAttempt.CARGADOR
+                                                                  : SimulationEvents.ChargeAttempt.RECHAZADO;
+            } else {
+                evento.outcome = estaEsperando() ? SimulationEvents.ChargeAttempt.EN_COLA
+                                                 : SimulationEvents.ChargeAttempt.SIN_CARGADOR;
+            }
+            evento.commit();
+        }
+        StepProfiler.medir(compania, StepProfiler.Fase.RECARGA, inicio);
+    }
+    
+    /**
+     * Lógica de {@link #recharge} en la estación dada.
+     *
+     * @return El cargador obtenido, o null si queda en la cola o no hay ninguno compatible.
+     */
+    private Charger recargarEnEstacion(ChargingStation estacion, int step) {
         // Aquí usamos el polimorfismo implícito: el cargador comprobará si son compatibles.
-        Charger cargador = estacion.getFreeCharger(); 
+        // Como en la simulación de referencia se toma el primer cargador libre: si no es
+        // compatible, rechaza la recarga y el vehículo recalcula la ruta sin pasar por la
+        // cola, aunque haya uno compatible ocupado. La cola solo se usa con todos ocupados.
+        // La adquisición es atómica (CAS), segura aunque otros vehículos actúen en paralelo.
+        // Con un registro de decisiones activo, la concesión se graba o se reproduce.
+        DecisionLog decisiones = compania.getDecisiones();
+        Charger cargador = (decisiones == null) ? estacion.tryAcquire() : decisiones.adquirir(estacion, this);
+        
+        if(cargador == null && estacion.tieneCargadorCompatible(getTipo())) {
+            // Todos ocupados: esperamos turno en la cola de la estación.
+            cargador = (decisiones == null) ? estacion.esperarTurno(this) : decisiones.esperarTurno(estacion, this);
+        }
         
         if(cargador != null) {
-            cargador.setEstaLibre(false);
-            int kwhNecesarios = capacidadBateria - nivelBateria;
+            estacion.incrementarOcupando();
+            if(!iniciarRecarga(estacion, cargador, step)) {
+                estacion.liberarCargador(cargador, step);
+            }
+        }
+        return cargador;
+    }
+    
+    /**
+     * Marca al vehículo como en espera en la estación.
+     * La llama {@link ChargingStation#esperarTurno} bajo el cerrojo de sus colas.
+     */
+    void ponerEnEspera(ChargingStation estacion) {
+        estacionEspera = estacion;
+        estacion.incrementarOcupando();
+        if(agente != null) {
+            // Con agentes el hilo se bloqueará: deja de contar para el paso.
+            agente.salirDeLosPasos();
+        }
+    }
+    
+    /**
+     * Recibe un cargador liberado en la estación donde el vehículo esperaba.
+     * La llama {@link ChargingStation#liberarCargador}. Con agentes, el cargador
+     * se pasa al hilo del vehículo, que hace la recarga y lo libera él mismo.
+     * 
+     * @return true si el vehículo retiene el cargador (sesión temporizada o agente).
+     */
+    boolean atenderDesdeCola(ChargingStation estacion, Charger cargador, int step) {
+        if(agente != null) {
+            agente.conceder(estacion, cargador, step);
+            return true;
+        }
+        return recargarDesdeCola(estacion, cargador, step);
+    }
+    
+    /**
+     * Sale de la cola y recarga con el cargador recibido.
+     * 
+     * @return true si el vehículo retiene el cargador (sesión temporizada).
+     */
+    boolean recargarDesdeCola(ChargingStation estacion, Charger cargador, int step) {
+        estacionEspera = null;
+        return iniciarRecarga(estacion, cargador, step);
+    }
+    
+    /**
+     * Realiza la recarga en un cargador ya ocupado por este vehículo.
+     * <p>
+     * En modo instantáneo la batería se llena en el acto y el cargador se devuelve.
+     * En modo temporizado se abre una {@link ChargingSession} y el cargador queda
+     * ocupado hasta que la compañía la da por terminada.
+     * </p>
+     * 
+     * @return true si el cargador queda retenido por una sesión temporizada;
+     *         false si el llamante debe liberarlo.
+     */
+    protected boolean iniciarRecarga(ChargingStation estacion, Charger cargador, int step) {
+        int kwhNecesarios = capacidadBateria - nivelBateria;
+        
+        if(kwhNecesarios > 0) {
+            long coste = cargador.rechargeMicros(this, kwhNecesarios, estacion);
+            compania.getMetricas().registrarRecarga(cargador, coste);
             
-            if(kwhNecesarios > 0) {
-                float coste = cargador.recharge(this, kwhNecesarios);
+            if(coste >= 0) {
+                incrementCharges();
+                incrementChargesCostMicros(coste);
                 
-                if(coste >= 0) {
-                    incrementCharges();
-                    incrementChargesCost(coste);
+                boolean temporizada = compania.isCargaTemporizada();
+                if(!temporizada) {
                     kwhTotalesCargados += kwhNecesarios;
                     nivelBateria = capacidadBateria;
-                    
-                    notificarRecargaACompania(cargador);
-                    
-                    System.out.println(String.format(java.util.Locale.US,
-                        "(step: %d - %s recharges: %dkwh at %s with cost: %.2f% ********)",
-                        step, this.getStepPrefix(), kwhNecesarios, cargador.getClass().getSimpleName() + ": " + cargador.getId(), coste));
+                }
+                
+                RechargeJournal diario = compania.getDiarioRecargas();
+                if(diario != null) {
+                    diario.anotarRecarga(step, this, cargador, kwhNecesarios, coste);
+                }
+                
+                notificarRecargaACompania(cargador);
+                
+                compania.getSalida().println(String.format(java.util.Locale.US,
+                    "(step: %d - %s recharges: %dkwh at %s with cost: %s€ ********)",
+                    step, this.getStepPrefix(), kwhNecesarios, cargador.getClass().getSimpleName() + ": " + cargador.getId(), Money.formatear(coste)));
+                
+                if(temporizada) {
+                    sesionActiva = new ChargingSession(this, estacion, cargador, kwhNecesarios, step);
+                    compania.programarSesion(sesionActiva);
+                    return true;
                 }
             }
-            
-            localizacionRecarga = null;
-            calculateRoute();
-            cargador.setEstaLibre(true);
         }
+        
+        calculateRoute();
+        estacion.decrementarOcupando();
+        return false;
+    }
+    
+    /**
+     * Termina una sesión de carga temporizada: llena la batería, recalcula la ruta
+     * y libera el cargador. La llama la compañía cuando vence la sesión.
+     * 
+     * @param sesion La sesión que termina.
+     */
+    void completarRecarga(ChargingSession sesion) {
+        kwhTotalesCargados += sesion.getKwh();
+        nivelBateria = capacidadBateria;
+        sesionActiva = null;
+        
+        calculateRoute();
+        sesion.getEstacion().decrementarOcupando();
+        sesion.getEstacion().liberarCargador(sesion.getCargador(), (int) sesion.getPasoFin());
+    }
+    
+    /**
+     * Asocia la sesión de carga en curso al restaurar un checkpoint.
+     * La llama {@link TimingWheel} al reconstruir las sesiones pendientes.
+     */
+    void setSesionActiva(ChargingSession sesion) {
+        sesionActiva = sesion;
+    }
+    
+    // --- Checkpoint ---
+    
+    /**
+     * Escribe el estado dinámico del vehículo (la estructura la escribe {@link Checkpoint}).
+     * La sesión en curso no se guarda aquí sino con las sesiones de la compañía.
+     */
+    void escribirEstado(DataOutput out, Checkpoint.Indices indices) throws IOException {
+        Checkpoint.escribirLocalizacion(out, localizacion);
+        out.writeInt(nivelBateria);
+        Checkpoint.escribirLocalizacionOpcional(out, localizacionRecarga);
+        out.writeInt(indices.de(estacionRecarga));
+        out.writeLong(versionRuta);
+        out.writeInt(contadorInactividad);
+        out.writeInt(contadorRecargas);
+        out.writeLong(costeTotalMicros);
+        out.writeInt(kwhTotalesCargados);
+        out.writeInt(turnoLlegada);
+        out.writeBoolean(haLlegadoAlDestino);
+        out.writeInt(indices.de(estacionEspera));
+    }
+    
+    /**
+     * Restaura lo escrito por {@link #escribirEstado}.
+     */
+    void leerEstado(DataInput in, Checkpoint.Indices indices) throws IOException {
+        localizacion = Checkpoint.leerLocalizacion(in);
+        nivelBateria = in.readInt();
+        localizacionRecarga = Checkpoint.leerLocalizacionOpcional(in);
+        estacionRecarga = indices.estacion(in.readInt());
+        versionRuta = in.readLong();
+        contadorInactividad = in.readInt();
+        contadorRecargas = in.readInt();
+        costeTotalMicros = in.readLong();
+        kwhTotalesCargados = in.readInt();
+        turnoLlegada = in.readInt();
+        haLlegadoAlDestino = in.readBoolean();
+        estacionEspera = indices.estacion(in.readInt());
+        sesionActiva = null;
+    }
+    
+    /**
+     * Devuelve el vehículo a su estado de salida sin crearlo de nuevo: posición
+     * inicial, batería llena, contadores a cero y sin ruta, sesión ni espera.
+     * Conserva su identificador en el registro de notificaciones.
+     * La ruta se calcula después con {@link #calculateRoute()}.
+     */
+    void reiniciar() {
+        this.localizacion = this.localizacionInicial;
+        this.nivelBateria = this.capacidadBateria;
+        this.contadorInactividad = 0;
+        this.contadorRecargas = 0;
+        this.costeTotalMicros = 0;
+        this.kwhTotalesCargados = 0;
+        this.localizacionRecarga = null;
+        this.estacionRecarga = null;
+        this.versionRuta = -1;
+        this.haLlegadoAlDestino = false;
+        this.turnoLlegada = -1;
+        this.sesionActiva = null;
+        this.estacionEspera = null;
+    }
+    
+    /**
+     * Indica si el vehículo está en la cola de espera de una estación.
+     */
+    public boolean estaEsperando() {
+        return estacionEspera != null;
+    }
+    
+    /**
+     * Indica si el vehículo está ocupando un cargador en una sesión temporizada.
+     */
+    public boolean estaRecargando() {
+        return sesionActiva != null;
     }
     
     // --- Lógica de ruta ---
     public void calculateRoute() {
+        long inicio = StepProfiler.inicio();
+        SimulationEvents.Route evento = new SimulationEvents.Route();
+        evento.begin();
+        
+        elegirRuta();
+        
+        if(evento.shouldCommit()) {
+            evento.vehicleTier = getTipo().name();
+            evento.vehicle = matricula;
+            evento.station = (estacionRecarga == null) ? null : estacionRecarga.getId();
+            evento.stranded = estacionRecarga == null && !enoughBattery(localizacion.distance(localizacionDestinoFinal));
+            evento.commit();
+        }
+        StepProfiler.medir(compania, StepProfiler.Fase.RUTA, inicio);
+    }
+    
+    private void elegirRuta() {
         int distanciaDestino = localizacion.distance(localizacionDestinoFinal);
         
         if(enoughBattery(distanciaDestino)) {
-            localizacionRecarga = null;
+            fijarEstacionRecarga(null, false);
         } else {
-            ChargingStation mejorEstacion = seleccionarMejorEstacion(compania.getCityStations());
-            
-            if(mejorEstacion != null) {
-                localizacionRecarga = mejorEstacion.getLocation();
-            } else {
-                localizacionRecarga = null;
-            }
+            DecisionLog decisiones = compania.getDecisiones();
+            ChargingStation mejorEstacion = (decisiones == null)
+                ? seleccionarMejorEstacion(compania.getCityStations())
+                : decisiones.ruta(this);
+            fijarEstacionRecarga(mejorEstacion, mejorEstacion == null);
+        }
+    }
+    
+    /**
+     * Recalcula la ruta tras un cambio en la red de estaciones.
+     * Si el vehículo ya está en su estación de recarga no se toca: la recarga
+     * recalculará la ruta igualmente.
+     */
+    void reencaminar() {
+        if (localizacionRecarga != null && localizacion.equals(localizacionRecarga)) {
+            return;
         }
+        calculateRoute();
+    }
+    
+    /**
+     * Indica si la ruta se calculó con una versión anterior de la red de estaciones.
+     */
+    public boolean isRutaObsoleta() {
+        return versionRuta != compania.getVersionRed();
+    }
+    
+    /**
+     * Fija la estación de recarga y mantiene el índice inverso de la compañía.
+     * 
+     * @param estacion La estación elegida, o null si no se va a recargar.
+     * @param sinEstacion true si necesita recargar pero no hay estación válida.
+     */
+    private void fijarEstacionRecarga(ChargingStation estacion, boolean sinEstacion) {
+        compania.actualizarDestino(this, estacionRecarga, estacion, sinEstacion);
+        estacionRecarga = estacion;
+        localizacionRecarga = (estacion != null) ? estacion.getLocation() : null;
+        versionRuta = compania.getVersionRed();
     }
     
     // --- Métodos auxiliares ---
@@ -251,10 +578,17 @@ public abstract class ElectricVehicle {
     }
     
     public String getMatricula() { return matricula; }
+    public String getNombre() { return nombre; }
+    public int getCapacidadBateria() { return capacidadBateria; }
+    public Location getTargetLocation() { return localizacionDestinoFinal; }
+    public Location getLocalizacionInicial() { return localizacionInicial; }
     public int getArrivingStep() { return turnoLlegada; }
     public void incrementIdleCount() { contadorInactividad++; }
+    void incrementIdleCount(int pasos) { contadorInactividad += pasos; }
     public void incrementCharges() { contadorRecargas++; }
-    public void incrementChargesCost(float c) { costeTotalRecargas += c; }
+    public void incrementChargesCost(float c) { costeTotalMicros += Money.deEuros(c); }
+    public void incrementChargesCostMicros(long micros) { costeTotalMicros += micros; }
+    public long getCosteTotalMicros() { return costeTotalMicros; }
     
     protected String getStepPrefix() {
         return this.getClass().getSimpleName() + ": " + matricula;
@@ -266,10 +600,10 @@ public abstract class ElectricVehicle {
         String ruta = (locRecarga.isEmpty()) ? localizacionDestinoFinal.toString() : locRecarga + ", " + localizacionDestinoFinal;
         
         return String.format(java.util.Locale.US,
-            "%s: %s, %s, %dkwh, %d, %.2f€, %d, %s, %s",
+            "%s: %s, %s, %dkwh, %d, %d, %s€, %d, %s, %s",
             this.getClass().getSimpleName(), 
             nombre, matricula, capacidadBateria, nivelBateria,
-            contadorRecargas, costeTotalRecargas, contadorInactividad,
+            contadorRecargas, Money.formatear(costeTotalMicros), contadorInactividad,
             localizacion, ruta
         );
     }
@@ -1,4 +1,5 @@
 import static org.junit.Assert.*;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -37,6 +38,16 @@ public class ElectricVehicleTest
         company.addChargingStation(estRapida);
     }
 
+    /**
+     * La compañía es la instancia compartida: se deja sin penalización por congestión
+     * aunque una prueba falle a medias.
+     */
+    @After
+    public void tearDown()
+    {
+        company.setPesoCongestion(0.0);
+    }
+
     /**
      * Prueba la inicialización correcta de campos.
      */
@@ -97,4 +108,48 @@ public class ElectricVehicleTest
         assertNotNull(prem.localizacionRecarga);
         assertEquals(estRapida.getLocation(), prem.localizacionRecarga);
     }
-}
\ No newline at end of file
+
+    /**
+     * Prueba el reencaminamiento selectivo al añadir un cargador a mitad de simulación.
+     */
+    @Test
+    public void testReencaminarAlAnadirCargador()
+    {
+        // Premium con batería para 8 pasos: llega a ambas estaciones pero no al destino.
+        ElectricVehicle prem = new PremiumEV(company, start, end, "Prem", "PRM2", 40);
+        prem.calculateRoute();
+        assertEquals(estRapida.getLocation(), prem.localizacionRecarga);
+        assertFalse(prem.isRutaObsoleta());
+        
+        // Un cargador ultra-rápido más potente en la estación barata la convierte en la mejor.
+        estBarata.addCharger(new UltraFastCharger("CH4", 300, 0.9f));
+        
+        assertEquals(estBarata.getLocation(), prem.localizacionRecarga);
+        assertTrue(company.getVehiculosHaciaEstacion(estBarata).contains(prem));
+        assertFalse(company.getVehiculosHaciaEstacion(estRapida).contains(prem));
+        assertFalse(prem.isRutaObsoleta());
+    }
+
+    /**
+     * Prueba la selección penalizada por congestión: con la estación más cercana
+     * saturada, el vehículo elige otra equivalente libre.
+     */
+    @Test
+    public void testSeleccionPorCongestion()
+    {
+        // Sin penalización, los tres eligen la primera estación (empate en distancia total).
+        for (int i = 0; i < 3; i++) {
+            ElectricVehicle ev = new StandardEV(company, start, end, "Std" + i, "STD" + i, 30);
+            ev.calculateRoute();
+            assertEquals(estBarata.getLocation(), ev.localizacionRecarga);
+        }
+        assertEquals(3, estBarata.getVehiculosEntrantes());
+        
+        company.setPesoCongestion(1.0);
+        ElectricVehicle ultimo = new StandardEV(company, start, end, "Std3", "STD3", 30);
+        ultimo.calculateRoute();
+        
+        assertEquals(estRapida.getLocation(), ultimo.localizacionRecarga);
+        assertEquals(1, estRapida.getVehiculosEntrantes());
+    }
+}
@@ -0,0 +1,302 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ejecución sin consola, configurada desde la línea de órdenes, para simular
+ * escenarios muy grandes en trabajos por lotes.
+ * <p>
+ * A diferencia de {@link EVDemo#run()}, no duplica la salida en consola y fichero
+ * ni imprime la flota y la red iniciales. Cada opción se pasa como argumento
+ * {@code --clave=valor} o, si no está, como propiedad del sistema
+ * {@code -Devcharging.clave=valor}:
+ * </p>
+ * <ul>
+ *   <li>{@code demo}: escenario de la demo ({@link DemoType}, ADVANCED por defecto).</li>
+ *   <li>{@code vehiculos}, {@code estaciones}: si se indica alguno, el escenario lo
+ *       crea {@link ScenarioGenerator} (por defecto 1000 vehículos y 100 estaciones).</li>
+ *   <li>{@code cargadores}: cargadores por estación del escenario generado, {@code n} o {@code min-max}.</li>
+ *   <li>{@code ancho}, {@code alto}: tamaño de la ciudad generada
+ *       (por defecto {@link ScenarioGenerator#ladoCiudad}).</li>
+ *   <li>{@code semilla} (0), {@code pasos} ({@link EVDemo#MAXSTEPS}).</li>
+ *   <li>{@code replicas}: ejecuciones del escenario con semillas consecutivas (1).</li>
+ *   <li>{@code hilos}: réplicas que se ejecutan a la vez (1).</li>
+ *   <li>{@code agentes}: si es {@code true}, cada vehículo actúa como un agente en su
+ *       propio hilo ({@link EVDemo#simularConAgentes}); las réplicas van una tras otra.</li>
+ *   <li>{@code informe}: {@code resumen} (una fila por réplica), {@code final}
+ *       (además el estado final) o {@code pasos} (además el estado de cada paso).</li>
+ *   <li>{@code salida}: fichero de salida (la salida estándar si no se indica).</li>
+ * </ul>
+ * <pre>
+ *     java -jar evcharging.jar --vehiculos=1000000 --estaciones=5000 --cargadores=2-6 --salida=run.txt
+ * </pre>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class HeadlessRunner {
+    // --- Constantes ---
+    /** Prefijo de las propiedades del sistema equivalentes a los argumentos. */
+    public static final String PREFIJO_PROPIEDADES = "evcharging.";
+
+    private static final String[] CLAVES = {"demo", "vehiculos", "estaciones", "cargadores", "ancho", "alto",
+                                            "semilla", "pasos", "replicas", "hilos", "agentes", "informe", "salida"};
+
+    /**
+     * Qué se escribe en la salida.
+     */
+    public enum Informe {
+        /** Solo la tabla de resultados, una fila por réplica. */
+        RESUMEN,
+        /** El estado final de la simulación y la tabla de resultados. */
+        FINAL,
+        /** El estado de cada vehículo en cada paso, el final y la tabla de resultados. */
+        PASOS
+    }
+
+    // --- Atributos ---
+    private final DemoType demo;
+    /** Si es false, el escenario se genera con {@link ScenarioGenerator}. */
+    private final boolean escenarioDemo;
+    private final int numVehiculos;
+    private final int numEstaciones;
+    private final int minCargadores;
+    private final int maxCargadores;
+    private final int ancho;
+    private final int alto;
+    private final long semilla;
+    private final int pasos;
+    private final int replicas;
+    private final int hilos;
+    private final boolean agentes;
+    private final Informe informe;
+    /** Fichero de salida, o null para la salida estándar. */
+    private final String salida;
+
+    // --- Constructor y factoría ---
+
+    private HeadlessRunner(Map<String, String> opciones) {
+        this.escenarioDemo = !opciones.containsKey("vehiculos") && !opciones.containsKey("estaciones");
+        if (escenarioDemo) {
+            for (String clave : new String[] {"cargadores", "ancho", "alto"}) {
+                if (opciones.containsKey(clave)) {
+                    throw new IllegalArgumentException("La opción " + clave + " solo vale para escenarios generados.");
+                }
+            }
+        } else if (opciones.containsKey("demo")) {
+            throw new IllegalArgumentException("No se puede indicar a la vez una demo y el tamaño del escenario.");
+        }
+
+        this.demo = DemoType.valueOf(opciones.getOrDefault("demo", DemoType.ADVANCED.name()).toUpperCase(Locale.ROOT));
+        this.numVehiculos = entero(opciones, "vehiculos", 1000, 0);
+        this.numEstaciones = entero(opciones, "estaciones", 100, 0);
+
+        String[] cargadores = opciones.getOrDefault("cargadores", "1-4").split("-");
+        if (cargadores.length > 2) {
+            throw new IllegalArgumentException("Cargadores no válidos: " + opciones.get("cargadores"));
+        }
+        this.minCargadores = Integer.parseInt(cargadores[0].trim());
+        this.maxCargadores = Integer.parseInt(cargadores[cargadores.length - 1].trim());
+        if (minCargadores < 1 || maxCargadores < minCargadores) {
+            throw new IllegalArgumentException("Cargadores no válidos: " + opciones.get("cargadores"));
+        }
+
+        int lado = ScenarioGenerator.ladoCiudad(numEstaciones);
+        this.ancho = entero(opciones, "ancho", lado, 1);
+        this.alto = entero(opciones, "alto", lado, 1);
+        this.semilla = Long.parseLong(opciones.getOrDefault("semilla", "0"));
+        this.pasos = entero(opciones, "pasos", EVDemo.MAXSTEPS, 0);
+        this.replicas = entero(opciones, "replicas", 1, 1);
+        this.hilos = entero(opciones, "hilos", 1, 1);
+        this.agentes = Boolean.parseBoolean(opciones.getOrDefault("agentes", "false").trim());
+        this.informe = Informe.valueOf(opciones.getOrDefault("informe", "resumen").toUpperCase(Locale.ROOT));
+        this.salida = opciones.get("salida");
+
+        if (replicas > 1 && informe != Informe.RESUMEN) {
+            throw new IllegalArgumentException("Con varias réplicas solo se admite el informe resumen.");
+        }
+        if (agentes && hilos > 1) {
+            throw new IllegalArgumentException("Con agentes cada vehículo tiene su hilo: las réplicas no se ejecutan a la vez.");
+        }
+    }
+
+    /**
+     * Configura la ejecución a partir de los argumentos y las propiedades del sistema.
+     *
+     * @param args Argumentos {@code --clave=valor}; tienen prioridad sobre las propiedades.
+     * @return La ejecución configurada.
+     * @throws IllegalArgumentException Si algún argumento o valor no es válido.
+     */
+    public static HeadlessRunner desdeArgumentos(String... args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (String clave : CLAVES) {
+            String valor = System.getProperty(PREFIJO_PROPIEDADES + clave);
+            if (valor != null) {
+                opciones.put(clave, valor);
+            }
+        }
+        for (String argumento : args) {
+            int igual = argumento.indexOf('=');
+            if (!argumento.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Argumento no válido (se espera --clave=valor): " + argumento);
+            }
+            String clave = argumento.substring(2, igual);
+            if (!esClave(clave)) {
+                throw new IllegalArgumentException("Opción desconocida: " + clave);
+            }
+            opciones.put(clave, argumento.substring(igual + 1));
+        }
+        return new HeadlessRunner(opciones);
+    }
+
+    // --- Ejecución ---
+
+    /**
+     * Ejecuta la simulación y escribe el informe en el fichero de salida o, si no
+     * se indicó, en la salida estándar.
+     *
+     * @return Los resultados, uno por réplica.
+     * @throws IOException Si no se puede crear el fichero de salida.
+     */
+    public List<ScenarioResult> ejecutar() throws IOException {
+        if (salida == null) {
+            List<ScenarioResult> resultados = ejecutar(System.out);
+            System.out.flush();
+            return resultados;
+        }
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(salida), 1 << 16))) {
+            List<ScenarioResult> resultados = ejecutar(out);
+            if (out.checkError()) {
+                throw new IOException("Error al escribir en " + salida);
+            }
+            return resultados;
+        }
+    }
+
+    /**
+     * Ejecuta la simulación y escribe el informe en la salida indicada.
+     *
+     * @param out Destino del informe.
+     * @return Los resultados, uno por réplica.
+     */
+    public List<ScenarioResult> ejecutar(PrintStream out) {
+        if (out == null) {
+            throw new NullPointerException("La salida no puede ser nula.");
+        }
+        List<Scenario> escenarios = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            escenarios.add(escenario(semilla + i));
+        }
+
+        List<ScenarioResult> resultados;
+        if (informe == Informe.RESUMEN && !agentes) {
+            resultados = new ScenarioBatchRunner(hilos).ejecutar(escenarios);
+        } else {
+            resultados = new ArrayList<>();
+            for (Scenario escenario : escenarios) {
+                resultados.add(ejecutarConInforme(escenario, out));
+            }
+        }
+        out.print(ScenarioBatchRunner.tabla(resultados));
+        return resultados;
+    }
+
+    public Informe getInforme() {
+        return informe;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public boolean isAgentes() {
+        return agentes;
+    }
+
+    /**
+     * Ejecuta desde la línea de órdenes (ver la descripción de la clase). Termina
+     * con código 2 si los argumentos no son válidos.
+     */
+    public static void main(String[] args) {
+        HeadlessRunner ejecucion;
+        try {
+            ejecucion = desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Opciones: --clave=valor o -D" + PREFIJO_PROPIEDADES + "clave=valor, con clave en "
+                               + String.join(", ", CLAVES));
+            System.exit(2);
+            return;
+        }
+        try {
+            ejecucion.ejecutar();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // --- Métodos internos ---
+
+    private Scenario escenario(long semillaReplica) {
+        if (escenarioDemo) {
+            return new Scenario(demo, demo.getNumVehiclesToCreate(), semillaReplica, pasos);
+        }
+        ScenarioGenerator generador = new ScenarioGenerator(numVehiculos, numEstaciones, semillaReplica);
+        generador.setTamanoCiudad(ancho, alto);
+        generador.setCargadoresPorEstacion(minCargadores, maxCargadores);
+        return new Scenario(generador, pasos);
+    }
+
+    /**
+     * Ejecuta un escenario en este hilo escribiendo en la salida su estado final
+     * y, si se pide, el de cada paso (nada con el informe resumen).
+     */
+    private ScenarioResult ejecutarConInforme(Scenario escenario, PrintStream out) {
+        long inicio = System.nanoTime();
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida((informe == Informe.RESUMEN) ? new PrintStream(OutputStream.nullOutputStream()) : out);
+        EVDemo simulacion = (escenario.getOrigen() != null)
+            ? new EVDemo(compania, escenario.getOrigen(), false)
+            : new EVDemo(compania, escenario.getDemo(), escenario.getNumVehiculos(), escenario.getSemilla(), null, false);
+        simulacion.setInformePorPaso(informe == Informe.PASOS);
+        if (agentes) {
+            simulacion.simularConAgentes(escenario.getPasos());
+        } else {
+            simulacion.simular(escenario.getPasos());
+        }
+        if (informe != Informe.RESUMEN) {
+            simulacion.showFinalInfo();
+        }
+        return ScenarioResult.de(escenario, simulacion, System.nanoTime() - inicio);
+    }
+
+    private static int entero(Map<String, String> opciones, String clave, int porDefecto, int minimo) {
+        String texto = opciones.get(clave);
+        int valor = (texto == null) ? porDefecto : Integer.parseInt(texto.trim());
+        if (valor < minimo) {
+            throw new IllegalArgumentException("Valor no válido para " + clave + ": " + valor);
+        }
+        return valor;
+    }
+
+    private static boolean esClave(String clave) {
+        for (String valida : CLAVES) {
+            if (valida.equals(clave)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para HeadlessRunner.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class HeadlessRunnerTest {
+    /**
+     * Un escenario generado con informe final imprime el estado final y el
+     * resumen, pero no el estado inicial.
+     */
+    @Test
+    public void testInformeFinalSinEstadoInicial() {
+        HeadlessRunner ejecucion = HeadlessRunner.desdeArgumentos(
+            "--vehiculos=300", "--estaciones=20", "--cargadores=2-3", "--pasos=30", "--informe=final");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<ScenarioResult> resultados = ejecucion.ejecutar(new PrintStream(bytes, true));
+        String texto = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+
+        assertEquals(1, resultados.size());
+        assertEquals(300, resultados.get(0).getLlegados() + resultados.get(0).getSinLlegar());
+        assertTrue(texto.contains("( Final information )"));
+        assertFalse(texto.contains("( Simulation start )"));
+        assertTrue(texto.contains("GEN/300ev/20est/s0"));
+    }
+
+    /**
+     * Las réplicas usan semillas consecutivas y se ejecutan en varios hilos;
+     * el resultado no depende del número de hilos.
+     */
+    @Test
+    public void testReplicasEnVariosHilos() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<ScenarioResult> enParalelo = HeadlessRunner.desdeArgumentos(
+            "--vehiculos=200", "--estaciones=10", "--semilla=5", "--replicas=3", "--hilos=2")
+            .ejecutar(new PrintStream(bytes, true));
+        List<ScenarioResult> enSerie = HeadlessRunner.desdeArgumentos(
+            "--vehiculos=200", "--estaciones=10", "--semilla=5", "--replicas=3")
+            .ejecutar(new PrintStream(new ByteArrayOutputStream(), true));
+
+        assertEquals(3, enParalelo.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("GEN/200ev/10est/s" + (5 + i), enParalelo.get(i).getEscenario().getNombre());
+            assertEquals(enSerie.get(i).getLlegados(), enParalelo.get(i).getLlegados());
+            assertEquals(enSerie.get(i).getRecaudacionMicros(), enParalelo.get(i).getRecaudacionMicros());
+        }
+        // Cabecera y una fila por réplica.
+        assertEquals(4, new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    /**
+     * Las propiedades del sistema configuran la ejecución y los argumentos tienen prioridad.
+     */
+    @Test
+    public void testPropiedadesDelSistema() {
+        System.setProperty("evcharging.replicas", "4");
+        System.setProperty("evcharging.hilos", "2");
+        try {
+            HeadlessRunner ejecucion = HeadlessRunner.desdeArgumentos("--hilos=3");
+            assertEquals(4, ejecucion.getReplicas());
+            assertEquals(3, ejecucion.getHilos());
+            assertEquals(HeadlessRunner.Informe.RESUMEN, ejecucion.getInforme());
+        } finally {
+            System.clearProperty("evcharging.replicas");
+            System.clearProperty("evcharging.hilos");
+        }
+    }
+
+    /**
+     * Con agentes las réplicas se ejecutan una tras otra y solo se escribe el resumen.
+     */
+    @Test
+    public void testAgentes() {
+        HeadlessRunner ejecucion = HeadlessRunner.desdeArgumentos(
+            "--vehiculos=200", "--estaciones=5", "--replicas=2", "--agentes=true");
+        assertTrue(ejecucion.isAgentes());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<ScenarioResult> resultados = ejecucion.ejecutar(new PrintStream(bytes, true));
+
+        assertEquals(2, resultados.size());
+        for (ScenarioResult resultado : resultados) {
+            assertEquals(200, resultado.getLlegados() + resultado.getSinLlegar());
+        }
+        assertEquals(3, new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAgentesEnVariosHilos() {
+        HeadlessRunner.desdeArgumentos("--agentes=true", "--hilos=2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpcionDesconocida() {
+        HeadlessRunner.desdeArgumentos("--flota=10");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDemoYTamanoALaVez() {
+        HeadlessRunner.desdeArgumentos("--demo=BASIC", "--vehiculos=10");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVariasReplicasConInformeCompleto() {
+        HeadlessRunner.desdeArgumentos("--replicas=2", "--informe=pasos");
+    }
+}
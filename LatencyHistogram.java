@@ -0,0 +1,152 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin cerrojos.
+ * <p>
+ * Los valores (nanosegundos) se reparten en cubos log-lineales: los menores de
+ * {@code 2^SUBCUBOS_BITS} tienen cubo propio y cada potencia de 2 por encima se
+ * divide en {@code 2^SUBCUBOS_BITS} cubos iguales, así que cualquier percentil se
+ * obtiene con un error relativo menor del 3,2 % y el histograma ocupa siempre lo
+ * mismo (unos 15 KB), sea cual sea el rango de valores.
+ * </p>
+ * <p>
+ * Registrar un valor es un incremento atómico de su cubo más una suma en un
+ * {@link LongAdder}, seguro con varios hilos y sin contención apreciable. Las
+ * consultas leen los cubos sin detener a quien registra; con registros en curso
+ * el resultado es aproximado.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class LatencyHistogram {
+    // --- Constantes ---
+    private static final int SUBCUBOS_BITS = 5;
+    private static final int SUBCUBOS = 1 << SUBCUBOS_BITS;
+    private static final int NUM_CUBOS = (64 - SUBCUBOS_BITS) * SUBCUBOS;
+
+    // --- Atributos ---
+    private final AtomicLongArray cubos;
+    private final LongAdder suma;
+    private final AtomicLong maximo;
+
+    // --- Constructor ---
+
+    public LatencyHistogram() {
+        this.cubos = new AtomicLongArray(NUM_CUBOS);
+        this.suma = new LongAdder();
+        this.maximo = new AtomicLong();
+    }
+
+    // --- Registro ---
+
+    /**
+     * Registra un valor. Los negativos (p. ej. un reloj que retrocede) cuentan como 0.
+     *
+     * @param valor El valor, normalmente en nanosegundos.
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        cubos.incrementAndGet(cubo(valor));
+        suma.add(valor);
+
+        long actual;
+        while (valor > (actual = maximo.get()) && !maximo.compareAndSet(actual, valor)) {
+            // Otro hilo ha subido el máximo; se vuelve a comparar.
+        }
+    }
+
+    /**
+     * Vacía el histograma. No debe haber registros en curso.
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            cubos.set(i, 0);
+        }
+        suma.reset();
+        maximo.set(0);
+    }
+
+    // --- Consultas ---
+
+    public long getNumValores() {
+        long total = 0;
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            total += cubos.get(i);
+        }
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public long getSuma() {
+        return suma.sum();
+    }
+
+    /** Media de los valores (0 si no hay ninguno). */
+    public double getMedia() {
+        long n = getNumValores();
+        return (n == 0) ? 0.0 : (double) getSuma() / n;
+    }
+
+    /**
+     * Valor por debajo del cual queda la fracción indicada de los registros.
+     * Se devuelve el límite superior de su cubo, sin pasar del máximo registrado.
+     *
+     * @param fraccion Entre 0 y 1 (0.5 = mediana, 0.99 = p99).
+     * @return El percentil, o 0 si no hay valores.
+     */
+    public long getPercentil(double fraccion) {
+        if (fraccion < 0.0 || fraccion > 1.0) {
+            throw new IllegalArgumentException("Fracción fuera de [0, 1]: " + fraccion);
+        }
+        long[] copia = new long[NUM_CUBOS];
+        long total = 0;
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            copia[i] = cubos.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long objetivo = Math.max(1, (long) Math.ceil(fraccion * total));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    // --- Métodos internos ---
+
+    /** Cubo de un valor no negativo. */
+    static int cubo(long valor) {
+        if (valor < SUBCUBOS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - SUBCUBOS_BITS;
+        int sub = (int) (valor >>> desplazamiento) & (SUBCUBOS - 1);
+        return (desplazamiento + 1) * SUBCUBOS + sub;
+    }
+
+    /** Mayor valor que cae en el cubo. */
+    static long limiteSuperior(int cubo) {
+        if (cubo < SUBCUBOS) {
+            return cubo;
+        }
+        int desplazamiento = cubo / SUBCUBOS - 1;
+        long inferior = (long) (SUBCUBOS + cubo % SUBCUBOS) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+}
@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para LatencyHistogram.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class LatencyHistogramTest {
+    /**
+     * Los percentiles de una distribución uniforme quedan dentro del error
+     * relativo de los cubos; el máximo y la media son exactos.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        for (long valor = 1; valor <= 100_000; valor++) {
+            histograma.registrar(valor);
+        }
+
+        assertEquals(100_000, histograma.getNumValores());
+        assertEquals(100_000, histograma.getMaximo());
+        assertEquals(50_000.5, histograma.getMedia(), 1e-9);
+        assertEquals(50_000, histograma.getPercentil(0.50), 50_000 / 32.0);
+        assertEquals(99_000, histograma.getPercentil(0.99), 99_000 / 32.0);
+        assertEquals(100_000, histograma.getPercentil(1.0));
+    }
+
+    /**
+     * Cada valor cae en un cubo cuyo límite superior no lo supera en más de 1/32.
+     */
+    @Test
+    public void testErrorRelativoDeLosCubos() {
+        SplittableRandom aleatorio = new SplittableRandom(1L);
+        for (int i = 0; i < 100_000; i++) {
+            long valor = aleatorio.nextLong(Long.MAX_VALUE);
+            long limite = LatencyHistogram.limiteSuperior(LatencyHistogram.cubo(valor));
+            assertTrue(limite >= valor);
+            assertTrue(limite - valor <= valor / 32);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.limiteSuperior(LatencyHistogram.cubo(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Registrar desde varios hilos a la vez no pierde valores.
+     */
+    @Test
+    public void testRegistroConcurrente() throws InterruptedException {
+        LatencyHistogram histograma = new LatencyHistogram();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            Thread hilo = new Thread(() -> {
+                for (int i = 1; i <= 50_000; i++) {
+                    histograma.registrar(i);
+                }
+            });
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(200_000, histograma.getNumValores());
+        assertEquals(50_000, histograma.getMaximo());
+        assertEquals(4L * 50_000 * 50_001 / 2, histograma.getSuma());
+    }
+}
@@ -0,0 +1,432 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prueba de carga: barre tamaños de flota, número de estaciones y cargadores por
+ * estación y mide el rendimiento de la simulación en cada punto.
+ * <p>
+ * Cada punto se genera con {@link ScenarioGenerator} (sin los límites de
+ * {@link DemoType}) en su propio contexto y sin salida, y se simula igual que
+ * {@link EVDemo#simular}. Solo se mide la simulación, no la creación del escenario:
+ * </p>
+ * <ul>
+ *   <li>pasos por segundo (el mejor de las repeticiones),</li>
+ *   <li>bytes asignados en el hilo de la simulación y su ritmo por segundo,</li>
+ *   <li>pico de memoria del heap (suma de los picos de cada zona del heap).</li>
+ * </ul>
+ * <p>
+ * Los resultados se escriben en CSV y pueden compararse con un CSV de referencia
+ * de una ejecución anterior: {@link #regresiones} devuelve los puntos cuyo
+ * rendimiento ha caído más del porcentaje indicado. Desde la línea de órdenes
+ * ({@link #main}) la ejecución termina con código 1 si hay alguna regresión.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class LoadTestRunner {
+    // --- Constantes ---
+    /** Cabecera del CSV de resultados. */
+    public static final String CABECERA =
+        "vehiculos,estaciones,cargadores,pasos,pasos_por_segundo,bytes_asignados,mb_asignados_por_segundo,pico_heap_bytes";
+
+    /** Salida que descarta todo lo que se escribe en ella. */
+    private static final PrintStream SALIDA_NULA = new PrintStream(OutputStream.nullOutputStream());
+
+    // --- Atributos ---
+    private final int pasos;
+    private final long semilla;
+    private final int repeticiones;
+
+    // --- Constructor ---
+
+    /**
+     * @param pasos Pasos simulados en cada punto.
+     * @param semilla Semilla de los escenarios generados.
+     * @param repeticiones Veces que se simula cada punto; se queda la más rápida.
+     * @throws IllegalArgumentException Si los pasos o las repeticiones no son positivos.
+     */
+    public LoadTestRunner(int pasos, long semilla, int repeticiones) {
+        if (pasos <= 0 || repeticiones <= 0) {
+            throw new IllegalArgumentException("Los pasos y las repeticiones deben ser positivos.");
+        }
+        this.pasos = pasos;
+        this.semilla = semilla;
+        this.repeticiones = repeticiones;
+    }
+
+    // --- Barrido ---
+
+    /**
+     * Todas las combinaciones de los tamaños indicados.
+     *
+     * @throws IllegalArgumentException Si algún tamaño no es válido.
+     */
+    public static List<Punto> barrido(int[] vehiculos, int[] estaciones, int[] cargadores) {
+        List<Punto> puntos = new ArrayList<>();
+        for (int v : vehiculos) {
+            for (int e : estaciones) {
+                for (int c : cargadores) {
+                    puntos.add(new Punto(v, e, c));
+                }
+            }
+        }
+        return puntos;
+    }
+
+    /**
+     * Mide todos los puntos, uno detrás de otro.
+     *
+     * @param puntos Puntos del barrido.
+     * @return Las medidas, en el mismo orden.
+     */
+    public List<Medida> ejecutar(List<Punto> puntos) {
+        List<Medida> medidas = new ArrayList<>(puntos.size());
+        for (Punto punto : puntos) {
+            medidas.add(medir(punto));
+        }
+        return medidas;
+    }
+
+    /**
+     * Mide un punto: lo simula tantas veces como repeticiones y devuelve la más rápida.
+     * El escenario se crea una vez y se reinicia en sitio entre repeticiones
+     * ({@link EVDemo#reiniciar()}).
+     *
+     * @param punto El punto.
+     * @return La medida.
+     * @throws NullPointerException Si el punto es nulo.
+     */
+    public Medida medir(Punto punto) {
+        if (punto == null) {
+            throw new NullPointerException("El punto no puede ser nulo.");
+        }
+        EVDemo demo = crear(punto);
+        Medida mejor = null;
+        for (int i = 0; i < repeticiones; i++) {
+            if (i > 0) {
+                demo.reiniciar();
+            }
+            Medida medida = medirUnaVez(demo, punto);
+            if (mejor == null || medida.nanos < mejor.nanos) {
+                mejor = medida;
+            }
+        }
+        return mejor;
+    }
+
+    // --- CSV y comparación ---
+
+    /**
+     * Escribe las medidas en CSV, con la cabecera {@link #CABECERA}.
+     */
+    public static void escribirCsv(List<Medida> medidas, Path fichero) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(fichero, StandardCharsets.UTF_8)) {
+            out.write(CABECERA);
+            out.newLine();
+            for (Medida medida : medidas) {
+                out.write(medida.aCsv());
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Lee un CSV de resultados como referencia: los pasos por segundo de cada punto.
+     *
+     * @param fichero CSV escrito por {@link #escribirCsv}.
+     * @return Pasos por segundo por punto (ver {@link Punto#getClave()}).
+     * @throws IOException Si no se puede leer o no tiene el formato esperado.
+     */
+    public static Map<String, Double> leerReferencia(Path fichero) throws IOException {
+        List<String> lineas = Files.readAllLines(fichero, StandardCharsets.UTF_8);
+        if (lineas.isEmpty() || !lineas.get(0).equals(CABECERA)) {
+            throw new IOException("No es un CSV de la prueba de carga: " + fichero);
+        }
+        Map<String, Double> referencia = new HashMap<>();
+        for (int i = 1; i < lineas.size(); i++) {
+            String linea = lineas.get(i).trim();
+            if (linea.isEmpty()) {
+                continue;
+            }
+            String[] campos = linea.split(",");
+            try {
+                Punto punto = new Punto(Integer.parseInt(campos[0]), Integer.parseInt(campos[1]),
+                                        Integer.parseInt(campos[2]));
+                referencia.put(punto.getClave(), Double.parseDouble(campos[4]));
+            } catch (RuntimeException e) {
+                throw new IOException("Línea " + (i + 1) + " no válida en " + fichero + ": " + linea, e);
+            }
+        }
+        return referencia;
+    }
+
+    /**
+     * Compara las medidas con la referencia. Los puntos que no están en la
+     * referencia no se comparan.
+     *
+     * @param medidas Medidas actuales.
+     * @param referencia Pasos por segundo de referencia por punto.
+     * @param porcentaje Caída máxima de rendimiento admitida, en %.
+     * @return Una descripción por cada punto que ha empeorado más de lo admitido
+     *         (vacía si no hay regresiones).
+     * @throws IllegalArgumentException Si el porcentaje es negativo.
+     */
+    public static List<String> regresiones(List<Medida> medidas, Map<String, Double> referencia, double porcentaje) {
+        if (porcentaje < 0) {
+            throw new IllegalArgumentException("El porcentaje no puede ser negativo: " + porcentaje);
+        }
+        List<String> regresiones = new ArrayList<>();
+        for (Medida medida : medidas) {
+            Double antes = referencia.get(medida.punto.getClave());
+            if (antes == null || antes <= 0) {
+                continue;
+            }
+            double ahora = medida.getPasosPorSegundo();
+            double caida = 100.0 * (antes - ahora) / antes;
+            if (caida > porcentaje) {
+                regresiones.add(String.format(Locale.US, "%s: %.1f pasos/s frente a %.1f (-%.1f%%, máximo %.1f%%)",
+                                              medida.punto, ahora, antes, caida, porcentaje));
+            }
+        }
+        return regresiones;
+    }
+
+    // --- Línea de órdenes ---
+
+    /**
+     * Ejecuta el barrido, escribe el CSV y lo compara con la referencia si se indica.
+     * <pre>
+     *     java -cp ... LoadTestRunner resultados.csv [referencia.csv]
+     * </pre>
+     * El barrido se configura con propiedades del sistema (listas separadas por comas):
+     * {@code evcharging.carga.vehiculos} (1000,10000,100000),
+     * {@code evcharging.carga.estaciones} (100,1000),
+     * {@code evcharging.carga.cargadores} (1,4),
+     * {@code evcharging.carga.pasos} ({@link EVDemo#MAXSTEPS}),
+     * {@code evcharging.carga.repeticiones} (3),
+     * {@code evcharging.carga.semilla} (1) y
+     * {@code evcharging.carga.umbral} (10, la caída admitida en %).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Uso: LoadTestRunner resultados.csv [referencia.csv]");
+            System.exit(2);
+        }
+        List<Punto> puntos = barrido(enteros("evcharging.carga.vehiculos", "1000,10000,100000"),
+                                     enteros("evcharging.carga.estaciones", "100,1000"),
+                                     enteros("evcharging.carga.cargadores", "1,4"));
+        LoadTestRunner prueba = new LoadTestRunner(Integer.getInteger("evcharging.carga.pasos", EVDemo.MAXSTEPS),
+                                                   Long.getLong("evcharging.carga.semilla", 1L),
+                                                   Integer.getInteger("evcharging.carga.repeticiones", 3));
+
+        List<Medida> medidas = new ArrayList<>();
+        for (Punto punto : puntos) {
+            Medida medida = prueba.medir(punto);
+            System.out.println(medida);
+            medidas.add(medida);
+        }
+        escribirCsv(medidas, Paths.get(args[0]));
+
+        if (args.length == 2) {
+            double umbral = Double.parseDouble(System.getProperty("evcharging.carga.umbral", "10"));
+            List<String> regresiones = regresiones(medidas, leerReferencia(Paths.get(args[1])), umbral);
+            for (String regresion : regresiones) {
+                System.err.println("REGRESIÓN " + regresion);
+            }
+            if (!regresiones.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    // --- Métodos internos ---
+
+    private EVDemo crear(Punto punto) {
+        ScenarioGenerator generador = new ScenarioGenerator(punto.vehiculos, punto.estaciones, semilla);
+        int lado = ScenarioGenerator.ladoCiudad(punto.estaciones);
+        generador.setTamanoCiudad(lado, lado);
+        generador.setCargadoresPorEstacion(punto.cargadores, punto.cargadores);
+
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(SALIDA_NULA);
+        EVDemo demo = new EVDemo(compania, generador, false);
+        demo.setInformePorPaso(false);
+        return demo;
+    }
+
+    private Medida medirUnaVez(EVDemo demo, Punto punto) {
+        System.gc();
+        List<MemoryPoolMXBean> zonasHeap = zonasHeap();
+        for (MemoryPoolMXBean zona : zonasHeap) {
+            zona.resetPeakUsage();
+        }
+        long asignadosAntes = bytesAsignados();
+        long inicio = System.nanoTime();
+
+        demo.simular(pasos);
+
+        long nanos = System.nanoTime() - inicio;
+        long asignadosDespues = bytesAsignados();
+        long pico = 0;
+        for (MemoryPoolMXBean zona : zonasHeap) {
+            pico += zona.getPeakUsage().getUsed();
+        }
+        long asignados = (asignadosAntes < 0 || asignadosDespues < 0) ? -1 : asignadosDespues - asignadosAntes;
+        return new Medida(punto, pasos, nanos, asignados, pico);
+    }
+
+    private static List<MemoryPoolMXBean> zonasHeap() {
+        List<MemoryPoolMXBean> zonas = new ArrayList<>();
+        for (MemoryPoolMXBean zona : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (zona.getType() == MemoryType.HEAP && zona.isValid()) {
+                zonas.add(zona);
+            }
+        }
+        return zonas;
+    }
+
+    /** Bytes asignados hasta ahora por el hilo actual, o -1 si la JVM no lo mide. */
+    private static long bytesAsignados() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hilosHotSpot = (com.sun.management.ThreadMXBean) hilos;
+            if (hilosHotSpot.isThreadAllocatedMemorySupported() && hilosHotSpot.isThreadAllocatedMemoryEnabled()) {
+                return hilosHotSpot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static int[] enteros(String propiedad, String porDefecto) {
+        String[] partes = System.getProperty(propiedad, porDefecto).split(",");
+        int[] valores = new int[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            valores[i] = Integer.parseInt(partes[i].trim());
+        }
+        return valores;
+    }
+
+    // --- Clases internas ---
+
+    /**
+     * Un punto del barrido: tamaño de flota, estaciones y cargadores por estación.
+     */
+    public static final class Punto {
+        private final int vehiculos;
+        private final int estaciones;
+        private final int cargadores;
+
+        /**
+         * @throws IllegalArgumentException Si la flota o las estaciones son negativas
+         *         o no hay al menos un cargador por estación.
+         */
+        public Punto(int vehiculos, int estaciones, int cargadores) {
+            if (vehiculos < 0 || estaciones < 0 || cargadores < 1) {
+                throw new IllegalArgumentException("Punto no válido: " + vehiculos + " vehículos, "
+                                                   + estaciones + " estaciones, " + cargadores + " cargadores.");
+            }
+            this.vehiculos = vehiculos;
+            this.estaciones = estaciones;
+            this.cargadores = cargadores;
+        }
+
+        public int getVehiculos() {
+            return vehiculos;
+        }
+
+        public int getEstaciones() {
+            return estaciones;
+        }
+
+        public int getCargadores() {
+            return cargadores;
+        }
+
+        /** Identifica el punto al compararlo con la referencia. */
+        public String getClave() {
+            return vehiculos + "/" + estaciones + "/" + cargadores;
+        }
+
+        @Override
+        public String toString() {
+            return vehiculos + "ev/" + estaciones + "est/" + cargadores + "carg";
+        }
+    }
+
+    /**
+     * Resultado de medir un punto.
+     */
+    public static final class Medida {
+        private final Punto punto;
+        private final int pasos;
+        private final long nanos;
+        private final long bytesAsignados;
+        private final long picoHeap;
+
+        Medida(Punto punto, int pasos, long nanos, long bytesAsignados, long picoHeap) {
+            this.punto = punto;
+            this.pasos = pasos;
+            this.nanos = nanos;
+            this.bytesAsignados = bytesAsignados;
+            this.picoHeap = picoHeap;
+        }
+
+        public Punto getPunto() {
+            return punto;
+        }
+
+        public int getPasos() {
+            return pasos;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getPasosPorSegundo() {
+            return pasos * 1e9 / Math.max(1, nanos);
+        }
+
+        /** Bytes asignados por la simulación, o -1 si la JVM no lo mide. */
+        public long getBytesAsignados() {
+            return bytesAsignados;
+        }
+
+        /** MB (10^6 bytes) asignados por segundo, o -1 si la JVM no lo mide. */
+        public double getMbAsignadosPorSegundo() {
+            return (bytesAsignados < 0) ? -1 : bytesAsignados * 1e3 / Math.max(1, nanos);
+        }
+
+        public long getPicoHeap() {
+            return picoHeap;
+        }
+
+        String aCsv() {
+            return String.format(Locale.US, "%d,%d,%d,%d,%.3f,%d,%.3f,%d",
+                                 punto.vehiculos, punto.estaciones, punto.cargadores, pasos,
+                                 getPasosPorSegundo(), bytesAsignados, getMbAsignadosPorSegundo(), picoHeap);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-24s %10.1f pasos/s %10.1f MB/s %8d MB de pico",
+                                 punto, getPasosPorSegundo(), getMbAsignadosPorSegundo(), picoHeap / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para LoadTestRunner.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class LoadTestRunnerTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Un barrido pequeño mide todos los puntos y su CSV se lee como referencia.
+     */
+    @Test
+    public void testBarridoYCsv() throws IOException {
+        List<LoadTestRunner.Punto> puntos = LoadTestRunner.barrido(new int[] {50, 200}, new int[] {10, 600}, new int[] {2});
+        assertEquals(4, puntos.size());
+
+        List<LoadTestRunner.Medida> medidas = new LoadTestRunner(10, 1L, 1).ejecutar(puntos);
+        for (LoadTestRunner.Medida medida : medidas) {
+            assertEquals(10, medida.getPasos());
+            assertTrue(medida.getPasosPorSegundo() > 0);
+            assertTrue(medida.getPicoHeap() > 0);
+        }
+
+        Path fichero = carpeta.getRoot().toPath().resolve("carga.csv");
+        LoadTestRunner.escribirCsv(medidas, fichero);
+        List<String> lineas = Files.readAllLines(fichero, StandardCharsets.UTF_8);
+        assertEquals(LoadTestRunner.CABECERA, lineas.get(0));
+        assertEquals(5, lineas.size());
+
+        Map<String, Double> referencia = LoadTestRunner.leerReferencia(fichero);
+        assertEquals(4, referencia.size());
+        assertEquals(medidas.get(3).getPasosPorSegundo(), referencia.get("200/600/2"), 0.001);
+        // Contra sí misma no hay regresiones (el CSV redondea a milésimas).
+        assertTrue(LoadTestRunner.regresiones(medidas, referencia, 1.0).isEmpty());
+    }
+
+    /**
+     * Solo es regresión una caída mayor que el umbral, y los puntos sin referencia no cuentan.
+     */
+    @Test
+    public void testRegresiones() {
+        LoadTestRunner.Punto punto = new LoadTestRunner.Punto(100, 10, 1);
+        // 100 pasos en 1 s.
+        List<LoadTestRunner.Medida> medidas = Arrays.asList(
+            new LoadTestRunner.Medida(punto, 100, 1_000_000_000L, 0, 0));
+
+        Map<String, Double> referencia = new HashMap<>();
+        referencia.put(punto.getClave(), 105.0);
+        assertTrue(LoadTestRunner.regresiones(medidas, referencia, 10.0).isEmpty());
+
+        referencia.put(punto.getClave(), 125.0);
+        List<String> regresiones = LoadTestRunner.regresiones(medidas, referencia, 10.0);
+        assertEquals(1, regresiones.size());
+        assertTrue(regresiones.get(0).startsWith("100ev/10est/1carg"));
+
+        assertTrue(LoadTestRunner.regresiones(medidas, Collections.emptyMap(), 10.0).isEmpty());
+    }
+
+    /**
+     * Un fichero que no es un CSV de la prueba de carga se rechaza.
+     */
+    @Test(expected = IOException.class)
+    public void testReferenciaNoValida() throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve("otro.csv");
+        Files.write(fichero, Arrays.asList("a,b,c"), StandardCharsets.UTF_8);
+        LoadTestRunner.leerReferencia(fichero);
+    }
+}
@@ -0,0 +1,130 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publica las métricas de una compañía mientras simula.
+ * <p>
+ * Registra su {@link SimulationMetrics} como MXBean en el servidor JMX de la
+ * plataforma (visible en JConsole o VisualVM como
+ * {@code evcharging:type=SimulationMetrics,id=N}) y arranca el {@link HttpServer}
+ * del JDK, solo en localhost, con las métricas en formato de texto en
+ * {@code GET /metrics}.
+ * </p>
+ * <p>
+ * El hilo del servidor HTTP no es demonio: hay que cerrarlo al terminar.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class MetricsServer implements Closeable {
+    // --- Constantes ---
+    /** Ruta de las métricas. */
+    public static final String RUTA = "/metrics";
+
+    /** Número para distinguir las compañías publicadas en JMX. */
+    private static final AtomicInteger SIGUIENTE_ID = new AtomicInteger();
+
+    // --- Atributos ---
+    private final HttpServer servidor;
+    private final ObjectName nombreJmx;
+
+    // --- Constructor y factoría ---
+
+    private MetricsServer(HttpServer servidor, ObjectName nombreJmx) {
+        this.servidor = servidor;
+        this.nombreJmx = nombreJmx;
+    }
+
+    /**
+     * Publica las métricas de la compañía por JMX y HTTP.
+     *
+     * @param compania La compañía.
+     * @param puerto Puerto HTTP en localhost (0 = uno libre cualquiera, ver {@link #getPuerto()}).
+     * @return El servidor, ya atendiendo.
+     * @throws IOException Si no se puede abrir el puerto o registrar el MXBean.
+     */
+    public static MetricsServer iniciar(EVCompany compania, int puerto) throws IOException {
+        if (compania == null) {
+            throw new NullPointerException("La compañía no puede ser nula.");
+        }
+        SimulationMetrics metricas = compania.getMetricas();
+
+        MBeanServer jmx = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nombre;
+        try {
+            nombre = new ObjectName("evcharging:type=SimulationMetrics,id=" + SIGUIENTE_ID.getAndIncrement());
+            jmx.registerMBean(metricas, nombre);
+        } catch (JMException e) {
+            throw new IOException("No se pudieron registrar las métricas en JMX.", e);
+        }
+
+        HttpServer servidor;
+        try {
+            servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        } catch (IOException e) {
+            desregistrar(nombre);
+            throw e;
+        }
+        servidor.createContext(RUTA, intercambio -> responder(intercambio, metricas));
+        servidor.start();
+        return new MetricsServer(servidor, nombre);
+    }
+
+    // --- Consultas ---
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    public ObjectName getNombreJmx() {
+        return nombreJmx;
+    }
+
+    /**
+     * Para el servidor HTTP y retira el MXBean.
+     */
+    @Override
+    public void close() {
+        servidor.stop(0);
+        desregistrar(nombreJmx);
+    }
+
+    // --- Métodos internos ---
+
+    private static void responder(HttpExchange intercambio, SimulationMetrics metricas) throws IOException {
+        try {
+            if (!"GET".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] cuerpo = metricas.aTexto().getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream out = intercambio.getResponseBody()) {
+                out.write(cuerpo);
+            }
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private static void desregistrar(ObjectName nombre) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombre);
+        } catch (JMException e) {
+            // Ya no estaba registrado: no hay nada que retirar.
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para MetricsServer y SimulationMetrics.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class MetricsServerTest {
+    /**
+     * Tras la demo avanzada, las recargas contadas coinciden con las de los
+     * cargadores, y se leen igual por HTTP y por JMX.
+     */
+    @Test
+    public void testPublicaLasMetricasDeLaDemo() throws IOException, JMException {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(OutputStream.nullOutputStream()));
+        EVDemo demo = new EVDemo(compania, DemoType.ADVANCED);
+        demo.simular(EVDemo.MAXSTEPS);
+
+        long recargas = 0;
+        for (ChargingStation estacion : demo.getStations()) {
+            for (Charger cargador : estacion.getChargers()) {
+                recargas += cargador.getNumerEVRecharged();
+            }
+        }
+        SimulationMetrics metricas = compania.getMetricas();
+        assertTrue(recargas > 0);
+        assertEquals(recargas, metricas.getRecargas());
+        assertEquals(EVDemo.MAXSTEPS, metricas.getPasos());
+        assertTrue(metricas.getPasosPorSegundo() > 0.0);
+
+        try (MetricsServer servidor = MetricsServer.iniciar(compania, 0)) {
+            URL url = new URL("http://127.0.0.1:" + servidor.getPuerto() + MetricsServer.RUTA);
+            HttpURLConnection conexion = (HttpURLConnection) url.openConnection();
+            String texto;
+            try (InputStream in = conexion.getInputStream()) {
+                texto = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertEquals(200, conexion.getResponseCode());
+            assertTrue(texto.contains("evcharging_pasos_total " + EVDemo.MAXSTEPS + "\n"));
+            assertTrue(texto.contains("evcharging_vehiculos " + demo.getVehicles().size() + "\n"));
+
+            long porHttp = 0;
+            for (String linea : texto.split("\n")) {
+                if (linea.startsWith("evcharging_recargas_total{")) {
+                    porHttp += Long.parseLong(linea.substring(linea.lastIndexOf(' ') + 1));
+                }
+            }
+            assertEquals(recargas, porHttp);
+
+            Object porJmx = ManagementFactory.getPlatformMBeanServer().getAttribute(servidor.getNombreJmx(), "Recargas");
+            assertEquals(recargas, ((Long) porJmx).longValue());
+
+            TabularData porTipo = (TabularData) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(servidor.getNombreJmx(), "RecargasPorTipo");
+            long sumaPorTipo = 0;
+            for (Object fila : porTipo.values()) {
+                sumaPorTipo += (Long) ((CompositeData) fila).get("value");
+            }
+            assertEquals(recargas, sumaPorTipo);
+        }
+    }
+
+    /**
+     * Reiniciar la compañía pone los contadores a cero.
+     */
+    @Test
+    public void testResetPoneACero() {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(OutputStream.nullOutputStream()));
+        new EVDemo(compania, DemoType.ADVANCED).simular(EVDemo.MAXSTEPS);
+
+        compania.reset();
+
+        SimulationMetrics metricas = compania.getMetricas();
+        assertEquals(0, metricas.getRecargas());
+        assertEquals(0, metricas.getPasos());
+        for (Map.Entry<String, Long> entrada : metricas.getRecargasPorTipo().entrySet()) {
+            assertEquals(0L, entrada.getValue().longValue());
+        }
+    }
+}
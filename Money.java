@@ -0,0 +1,65 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utilidades para importes en coma fija.
+ * <p>
+ * Los importes se representan como {@code long} en micro-euros (1 € = 1.000.000).
+ * Sumar importes así es exacto, a diferencia de acumular {@code float}, que pierde
+ * céntimos en simulaciones largas. Solo se convierte a euros para mostrar.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public final class Money {
+    /** Micro-euros por euro. */
+    public static final long MICROS_POR_EURO = 1_000_000L;
+
+    private Money() {
+        // Clase de utilidades: no se instancia.
+    }
+
+    /**
+     * Convierte una cantidad en euros (p. ej. una tarifa) a micro-euros, redondeando.
+     *
+     * @param euros Cantidad en euros.
+     * @return Cantidad en micro-euros.
+     */
+    public static long deEuros(float euros) {
+        return Math.round((double) euros * MICROS_POR_EURO);
+    }
+
+    /**
+     * Convierte micro-euros a euros para las APIs que siguen usando {@code float}.
+     *
+     * @param micros Cantidad en micro-euros.
+     * @return Cantidad aproximada en euros.
+     */
+    public static float aEuros(long micros) {
+        return (float) ((double) micros / MICROS_POR_EURO);
+    }
+
+    /**
+     * Aplica un porcentaje a un importe (descuentos y recargos), redondeando
+     * al micro-euro más cercano.
+     *
+     * @param micros Importe en micro-euros (no negativo).
+     * @param porcentaje Porcentaje a aplicar (90 = descuento del 10%).
+     * @return Importe resultante en micro-euros.
+     */
+    public static long porcentaje(long micros, int porcentaje) {
+        return (micros * porcentaje + 50) / 100;
+    }
+
+    /**
+     * Formatea un importe con dos decimales (redondeo a la mitad hacia arriba),
+     * igual que el formato "%.2f" usado en los informes.
+     *
+     * @param micros Importe en micro-euros.
+     * @return El importe en euros con dos decimales, p. ej. "32.40".
+     */
+    public static String formatear(long micros) {
+        return BigDecimal.valueOf(micros, 6).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,226 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Canal asíncrono de notificaciones de carga.
+ * <p>
+ * Los vehículos (productores, uno o varios hilos) dejan cada notificación como un
+ * único {@code long} (identificador denso del cargador en los 32 bits altos y del
+ * vehículo en los bajos) en una cola circular acotada. Un hilo consumidor la vacía
+ * por lotes y los aplica al {@link NotificationRegistry}, fuera del camino crítico
+ * de la simulación.
+ * </p>
+ * <ul>
+ * <li><b>Contrapresión:</b> si la cola está llena, el productor espera (girando y
+ * después aparcando) a que el consumidor libere huecos.</li>
+ * <li><b>Barrera:</b> {@link #flush} espera a que se haya aplicado todo lo publicado
+ * hasta ese momento; EVDemo la usa al final de cada paso para que la vista de la
+ * compañía sea coherente.</li>
+ * <li><b>Fallos:</b> si aplicar una notificación lanza una excepción, el consumidor
+ * se detiene y {@link #flush}, {@link #cerrar} y los productores que esperan hueco
+ * la relanzan envuelta en una {@link IllegalStateException} en lugar de esperar
+ * indefinidamente.</li>
+ * </ul>
+ * <p>
+ * Cada hueco lleva un número de secuencia (cola de Vyukov), así que publicar solo
+ * requiere un CAS sobre la posición de escritura y ningún cerrojo.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class NotificationPipeline {
+    // --- Constantes ---
+    /** Máximo de notificaciones aplicadas seguidas antes de publicar el progreso. */
+    private static final int LOTE = 512;
+    private static final long ESPERA_CONSUMIDOR_NANOS = 1_000_000L;
+
+    // --- Atributos ---
+    private final NotificationRegistry registro;
+    private final long[] huecos;
+    private final AtomicLongArray secuencias;
+    private final int mascara;
+
+    /** Siguiente posición a reservar por los productores. */
+    private final AtomicLong cola;
+    /** Posiciones ya aplicadas por el consumidor. */
+    private volatile long procesados;
+
+    private volatile boolean activo;
+    private volatile boolean consumidorDormido;
+    private final Thread consumidor;
+    /** Error que detuvo al consumidor (null mientras funciona). */
+    private volatile Throwable fallo;
+
+    // --- Constructor ---
+
+    /**
+     * Crea el canal y arranca su hilo consumidor.
+     *
+     * @param registro Registro sobre el que se aplican las notificaciones.
+     * @param capacidad Capacidad mínima de la cola (se redondea a potencia de 2).
+     */
+    public NotificationPipeline(NotificationRegistry registro, int capacidad) {
+        if (registro == null) {
+            throw new NullPointerException("El registro no puede ser nulo.");
+        }
+        int tamano = 2;
+        while (tamano < capacidad) {
+            tamano <<= 1;
+        }
+
+        this.registro = registro;
+        this.huecos = new long[tamano];
+        this.secuencias = new AtomicLongArray(tamano);
+        for (int i = 0; i < tamano; i++) {
+            this.secuencias.set(i, i);
+        }
+        this.mascara = tamano - 1;
+        this.cola = new AtomicLong();
+        this.procesados = 0;
+        this.activo = true;
+
+        this.consumidor = new Thread(this::consumir, "ev-notificaciones");
+        this.consumidor.setDaemon(true);
+        this.consumidor.start();
+    }
+
+    // --- Métodos públicos ---
+
+    /**
+     * Publica una notificación. Seguro desde cualquier número de hilos.
+     * Si la cola está llena, espera a que haya hueco (contrapresión).
+     *
+     * @param idVehiculo Identificador denso del vehículo.
+     * @param idCargador Identificador denso del cargador.
+     * @throws IllegalStateException Si la cola está llena y el consumidor ha fallado.
+     */
+    public void publicar(int idVehiculo, int idCargador) {
+        long valor = ((long) idCargador << 32) | (idVehiculo & 0xFFFFFFFFL);
+        int esperas = 0;
+
+        while (true) {
+            long posicion = cola.get();
+            int indice = (int) posicion & mascara;
+            long diferencia = secuencias.get(indice) - posicion;
+
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    huecos[indice] = valor;
+                    secuencias.lazySet(indice, posicion + 1);
+                    if (consumidorDormido) {
+                        LockSupport.unpark(consumidor);
+                    }
+                    return;
+                }
+            } else if (diferencia < 0) {
+                // Cola llena: despertamos al consumidor y esperamos.
+                comprobarConsumidor();
+                LockSupport.unpark(consumidor);
+                if (++esperas < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(10_000L);
+                }
+            }
+        }
+    }
+
+    /**
+     * Barrera: espera a que se hayan aplicado todas las notificaciones publicadas
+     * antes de la llamada.
+     *
+     * @throws IllegalStateException Si el consumidor ha fallado.
+     */
+    public void flush() {
+        long objetivo = cola.get();
+        while (procesados < objetivo) {
+            comprobarConsumidor();
+            LockSupport.unpark(consumidor);
+            LockSupport.parkNanos(10_000L);
+        }
+    }
+
+    /**
+     * Aplica lo pendiente y detiene el hilo consumidor.
+     *
+     * @throws IllegalStateException Si el consumidor ha fallado (queda detenido igualmente).
+     */
+    public void cerrar() {
+        try {
+            flush();
+        } finally {
+            activo = false;
+            LockSupport.unpark(consumidor);
+            try {
+                consumidor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Devuelve el número de notificaciones publicadas y aún no aplicadas.
+     */
+    public long getPendientes() {
+        return cola.get() - procesados;
+    }
+
+    // --- Métodos internos ---
+
+    /**
+     * Relanza el error del consumidor, si lo hubo.
+     */
+    private void comprobarConsumidor() {
+        Throwable error = fallo;
+        if (error != null) {
+            throw new IllegalStateException("El consumidor de notificaciones ha fallado.", error);
+        }
+    }
+
+    /**
+     * Hilo consumidor: aplica la cola hasta que se cierra o hasta el primer error.
+     */
+    private void consumir() {
+        try {
+            vaciarCola();
+        } catch (RuntimeException | Error e) {
+            fallo = e;
+        }
+    }
+
+    /**
+     * Bucle del hilo consumidor: vacía la cola por lotes y duerme cuando está vacía.
+     */
+    private void vaciarCola() {
+        long cabeza = 0;
+
+        while (activo || cabeza < cola.get()) {
+            int aplicados = 0;
+            while (aplicados < LOTE) {
+                int indice = (int) cabeza & mascara;
+                if (secuencias.get(indice) != cabeza + 1) {
+                    break;
+                }
+                long valor = huecos[indice];
+                secuencias.lazySet(indice, cabeza + huecos.length);
+                registro.registrar((int) valor, (int) (valor >>> 32));
+                cabeza++;
+                aplicados++;
+            }
+
+            if (aplicados > 0) {
+                procesados = cabeza;
+                continue;
+            }
+
+            consumidorDormido = true;
+            if (activo && secuencias.get((int) cabeza & mascara) != cabeza + 1) {
+                LockSupport.parkNanos(ESPERA_CONSUMIDOR_NANOS);
+            }
+            consumidorDormido = false;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para NotificationPipeline.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class NotificationPipelineTest {
+    /**
+     * Con la cola llena y el consumidor bloqueado, el productor espera; al
+     * liberar el consumidor termina y se aplica todo en orden.
+     */
+    @Test(timeout = 10_000)
+    public void testContrapresion() throws InterruptedException {
+        CountDownLatch libre = new CountDownLatch(1);
+        RegistroAnotado registro = new RegistroAnotado(libre, 0);
+        NotificationPipeline canal = new NotificationPipeline(registro, 2);
+
+        Thread productor = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                canal.publicar(i, 1);
+            }
+        });
+        productor.start();
+        productor.join(300);
+
+        // Cabe la cola (2) más la notificación que el consumidor tiene en curso.
+        assertTrue(productor.isAlive());
+        assertTrue(canal.getPendientes() <= 3);
+
+        libre.countDown();
+        productor.join();
+        canal.flush();
+        assertEquals(0, canal.getPendientes());
+        assertEquals(secuencia(20), registro.vehiculos());
+        canal.cerrar();
+    }
+
+    /**
+     * Tras flush() está aplicado todo lo publicado antes por cualquier hilo.
+     */
+    @Test(timeout = 10_000)
+    public void testFlushEsBarrera() throws InterruptedException {
+        RegistroAnotado registro = new RegistroAnotado(null, 0);
+        NotificationPipeline canal = new NotificationPipeline(registro, 64);
+
+        List<Thread> productores = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            final int base = t * 1000;
+            Thread productor = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    canal.publicar(base + i, 2);
+                }
+            });
+            productor.start();
+            productores.add(productor);
+        }
+        for (Thread productor : productores) {
+            productor.join();
+        }
+        canal.flush();
+
+        assertEquals(0, canal.getPendientes());
+        assertEquals(3000, registro.vehiculos().size());
+        canal.cerrar();
+    }
+
+    /**
+     * cerrar() aplica lo pendiente antes de detener el consumidor.
+     */
+    @Test(timeout = 10_000)
+    public void testCerrarAplicaPendientes() {
+        RegistroAnotado registro = new RegistroAnotado(null, 1);
+        NotificationPipeline canal = new NotificationPipeline(registro, 1024);
+        for (int i = 0; i < 200; i++) {
+            canal.publicar(i, 3);
+        }
+        assertTrue(canal.getPendientes() > 0);
+
+        canal.cerrar();
+        assertEquals(0, canal.getPendientes());
+        assertEquals(secuencia(200), registro.vehiculos());
+    }
+
+    /**
+     * Si aplicar una notificación falla, flush() y cerrar() lo notifican en lugar
+     * de esperar para siempre, igual que un productor con la cola llena.
+     */
+    @Test(timeout = 10_000)
+    public void testFalloDelConsumidor() {
+        NotificationRegistry roto = new NotificationRegistry() {
+            @Override
+            public void registrar(int idVehiculo, int idCargador) {
+                throw new IllegalArgumentException("id no válido: " + idVehiculo);
+            }
+        };
+        NotificationPipeline canal = new NotificationPipeline(roto, 2);
+        canal.publicar(0, 0);
+
+        try {
+            canal.flush();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        try {
+            for (int i = 0; i < 10; i++) {
+                canal.publicar(i, 0);
+            }
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        try {
+            canal.cerrar();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    // --- Métodos auxiliares ---
+
+    private static List<Integer> secuencia(int n) {
+        List<Integer> lista = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            lista.add(i);
+        }
+        return lista;
+    }
+
+    /**
+     * Registro que anota los vehículos que recibe, opcionalmente esperando a un
+     * cerrojo antes del primero y durmiendo en cada uno.
+     */
+    private static class RegistroAnotado extends NotificationRegistry {
+        private final CountDownLatch libre;
+        private final long pausaMilis;
+        private final List<Integer> vehiculos = new ArrayList<>();
+
+        RegistroAnotado(CountDownLatch libre, long pausaMilis) {
+            this.libre = libre;
+            this.pausaMilis = pausaMilis;
+        }
+
+        @Override
+        public void registrar(int idVehiculo, int idCargador) {
+            try {
+                if (libre != null) {
+                    libre.await(5, TimeUnit.SECONDS);
+                }
+                if (pausaMilis > 0) {
+                    Thread.sleep(pausaMilis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (vehiculos) {
+                vehiculos.add(idVehiculo);
+            }
+        }
+
+        List<Integer> vehiculos() {
+            synchronized (vehiculos) {
+                return new ArrayList<>(vehiculos);
+            }
+        }
+    }
+}
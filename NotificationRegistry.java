@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Registro de notificaciones de carga de la compañía.
+ * <p>
+ * CLAVE: Charger (ordenados por ID).
+ * VALOR: vehículos que notificaron en ese cargador (orden de inserción, sin duplicados).
+ * </p>
+ * <p>
+ * Para flotas enormes no guarda objetos por notificación: cargadores y vehículos
+ * reciben un identificador entero denso la primera vez que aparecen y cada
+ * cargador guarda un {@link CompactBitmap} (para descartar duplicados) y un log
+ * de enteros con el orden de inserción. Cada notificación nueva ocupa unos
+ * 6 bytes en lugar de una entrada de {@code LinkedHashSet}.
+ * </p>
+ * <p>
+ * Es seguro con varios hilos sin un cerrojo global: cada cargador protege su
+ * propio registro y la asignación de identificadores solo se bloquea la primera
+ * vez que aparece un objeto.
+ * </p>
+ * <p>
+ * Los identificadores son propios de cada registro y se guardan en sus mapas
+ * (por identidad, ya que vehículos y cargadores no redefinen {@code equals}),
+ * así que un mismo objeto puede estar en varios registros y los objetos del
+ * dominio no saben nada del registro.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class NotificationRegistry {
+    // --- Atributos ---
+    private final Object cerrojoIds;
+
+    /** Identificador denso de cada objeto; solo se escriben bajo cerrojoIds. */
+    private final ConcurrentHashMap<ElectricVehicle, Integer> idsVehiculos;
+    private final ConcurrentHashMap<Charger, Integer> idsCargadores;
+
+    /** Vehículos por identificador denso (bajo cerrojoIds). */
+    private ElectricVehicle[] vehiculos;
+    private int numVehiculos;
+
+    /** Registros de cargador por identificador denso. */
+    private volatile RegistroCargador[] cargadores;
+    private int numCargadores;
+
+    // --- Constructor ---
+    public NotificationRegistry() {
+        this.cerrojoIds = new Object();
+        this.idsVehiculos = new ConcurrentHashMap<>();
+        this.idsCargadores = new ConcurrentHashMap<>();
+        this.vehiculos = new ElectricVehicle[16];
+        this.cargadores = new RegistroCargador[16];
+    }
+
+    // --- Métodos públicos ---
+
+    /**
+     * Registra que un vehículo ha cargado en un cargador.
+     * Si el vehículo ya constaba en ese cargador, NO se duplica.
+     *
+     * @param vehiculo El vehículo que ha cargado.
+     * @param cargador El cargador utilizado.
+     */
+    public void registrar(ElectricVehicle vehiculo, Charger cargador) {
+        registrar(idDe(vehiculo), idDe(cargador));
+    }
+
+    /**
+     * Registra una notificación ya expresada con identificadores densos.
+     *
+     * @param idVehiculo Identificador devuelto por {@link #idDe(ElectricVehicle)}.
+     * @param idCargador Identificador devuelto por {@link #idDe(Charger)}.
+     */
+    public void registrar(int idVehiculo, int idCargador) {
+        cargadores[idCargador].anadir(idVehiculo);
+    }
+
+    /**
+     * Devuelve el identificador denso de un vehículo, asignándolo si es nuevo.
+     */
+    public int idDe(ElectricVehicle vehiculo) {
+        Integer id = idsVehiculos.get(vehiculo);
+        if (id != null) {
+            return id;
+        }
+        synchronized (cerrojoIds) {
+            id = idsVehiculos.get(vehiculo);
+            if (id != null) {
+                return id;
+            }
+            if (numVehiculos == vehiculos.length) {
+                vehiculos = Arrays.copyOf(vehiculos, numVehiculos * 2);
+            }
+            int nuevo = numVehiculos++;
+            vehiculos[nuevo] = vehiculo;
+            idsVehiculos.put(vehiculo, nuevo);
+            return nuevo;
+        }
+    }
+
+    /**
+     * Devuelve el identificador denso de un cargador, asignándolo si es nuevo.
+     */
+    public int idDe(Charger cargador) {
+        Integer id = idsCargadores.get(cargador);
+        if (id != null) {
+            return id;
+        }
+        synchronized (cerrojoIds) {
+            id = idsCargadores.get(cargador);
+            if (id != null) {
+                return id;
+            }
+            if (numCargadores == cargadores.length) {
+                cargadores = Arrays.copyOf(cargadores, numCargadores * 2);
+            }
+            int nuevo = numCargadores++;
+            cargadores[nuevo] = new RegistroCargador(cargador);
+            idsCargadores.put(cargador, nuevo);
+            return nuevo;
+        }
+    }
+
+    /**
+     * Recorre los cargadores con notificaciones, por ID, entregando sus
+     * vehículos en orden de inserción.
+     *
+     * @param accion Acción a ejecutar por cada cargador con al menos un vehículo.
+     */
+    public void forEach(BiConsumer<Charger, List<ElectricVehicle>> accion) {
+        RegistroCargador[] registros;
+        synchronized (cerrojoIds) {
+            registros = Arrays.copyOf(cargadores, numCargadores);
+        }
+        Arrays.sort(registros, (r1, r2) -> r1.cargador.getId().compareTo(r2.cargador.getId()));
+
+        // Primero los ids de cada cargador y después la tabla de vehículos: así
+        // la tabla incluye a todos los vehículos de las copias aunque otros hilos
+        // sigan notificando (y haciéndola crecer) mientras tanto.
+        int[][] ids = new int[registros.length][];
+        for (int i = 0; i < registros.length; i++) {
+            ids[i] = registros[i].copiarOrden();
+        }
+        ElectricVehicle[] tabla;
+        synchronized (cerrojoIds) {
+            tabla = vehiculos;
+        }
+
+        for (int i = 0; i < registros.length; i++) {
+            if (ids[i].length == 0) {
+                continue;
+            }
+            List<ElectricVehicle> lista = new ArrayList<>(ids[i].length);
+            for (int id : ids[i]) {
+                lista.add(tabla[id]);
+            }
+            accion.accept(registros[i].cargador, lista);
+        }
+    }
+
+    /**
+     * Devuelve el número de vehículos registrados en un cargador.
+     */
+    public int getNumVehiculos(Charger cargador) {
+        Integer id = idsCargadores.get(cargador);
+        return (id == null) ? 0 : cargadores[id].size();
+    }
+
+    /**
+     * Borra las notificaciones pero conserva los identificadores asignados y la
+     * memoria de cada cargador, para volver a simular con los mismos objetos.
+     */
+    public void vaciar() {
+        RegistroCargador[] registros;
+        synchronized (cerrojoIds) {
+            registros = Arrays.copyOf(cargadores, numCargadores);
+        }
+        for (RegistroCargador registro : registros) {
+            registro.vaciar();
+        }
+    }
+
+    /**
+     * Vacía el registro y olvida los identificadores asignados.
+     */
+    public void clear() {
+        synchronized (cerrojoIds) {
+            vehiculos = new ElectricVehicle[16];
+            numVehiculos = 0;
+            cargadores = new RegistroCargador[16];
+            numCargadores = 0;
+            idsVehiculos.clear();
+            idsCargadores.clear();
+        }
+    }
+
+    // --- Clase interna: notificaciones de un cargador ---
+
+    /**
+     * Vehículos que han notificado en un cargador: mapa de bits para descartar
+     * duplicados y log de identificadores en orden de inserción.
+     */
+    private static class RegistroCargador {
+        private final Charger cargador;
+        private final CompactBitmap vistos;
+        private int[] orden;
+        private int n;
+
+        RegistroCargador(Charger cargador) {
+            this.cargador = cargador;
+            this.vistos = new CompactBitmap();
+            this.orden = new int[4];
+        }
+
+        synchronized void anadir(int idVehiculo) {
+            if (vistos.add(idVehiculo)) {
+                if (n == orden.length) {
+                    orden = Arrays.copyOf(orden, n * 2);
+                }
+                orden[n++] = idVehiculo;
+            }
+        }
+
+        synchronized void vaciar() {
+            vistos.clear();
+            n = 0;
+        }
+
+        synchronized int[] copiarOrden() {
+            return Arrays.copyOf(orden, n);
+        }
+
+        synchronized int size() {
+            return n;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para NotificationRegistry.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class NotificationRegistryTest {
+    private final EVCompany compania = EVCompany.newInstance();
+
+    /**
+     * Los cargadores se recorren por ID y sus vehículos en orden de inserción,
+     * sin duplicados.
+     */
+    @Test
+    public void testOrdenYSinDuplicados() {
+        NotificationRegistry registro = new NotificationRegistry();
+        Charger c2 = new StandardCharger("CC02", 10, 0.2f);
+        Charger c1 = new StandardCharger("CC01", 10, 0.2f);
+        ElectricVehicle v1 = vehiculo(1);
+        ElectricVehicle v2 = vehiculo(2);
+        ElectricVehicle v3 = vehiculo(3);
+
+        registro.registrar(v3, c2);
+        registro.registrar(v1, c2);
+        registro.registrar(v3, c2);
+        registro.registrar(v2, c1);
+        registro.registrar(v2, c2);
+
+        List<String> recorrido = new ArrayList<>();
+        registro.forEach((cargador, vehiculos) -> recorrido.add(cargador.getId() + matriculas(vehiculos)));
+        assertEquals(List.of("CC01[0002]", "CC02[0003, 0001, 0002]"), recorrido);
+        assertEquals(3, registro.getNumVehiculos(c2));
+    }
+
+    /**
+     * Con más de 4096 vehículos en un cargador (su mapa de bits cambia de
+     * representación) no se pierde ni se duplica ninguno y se conserva el orden.
+     */
+    @Test
+    public void testMuchosVehiculosEnUnCargador() {
+        NotificationRegistry registro = new NotificationRegistry();
+        Charger cargador = new StandardCharger("CC00", 10, 0.2f);
+        List<ElectricVehicle> flota = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            flota.add(vehiculo(i));
+        }
+        for (int i = flota.size() - 1; i >= 0; i--) {
+            registro.registrar(flota.get(i), cargador);
+            registro.registrar(flota.get(i), cargador);
+        }
+
+        assertEquals(5000, registro.getNumVehiculos(cargador));
+        registro.forEach((c, vehiculos) -> {
+            assertEquals(5000, vehiculos.size());
+            for (int i = 0; i < vehiculos.size(); i++) {
+                assertSame(flota.get(flota.size() - 1 - i), vehiculos.get(i));
+            }
+        });
+    }
+
+    /**
+     * Con ids a ambos lados del límite de un grupo del mapa de bits (65536) y
+     * grupos en los dos formatos, cada cargador descarta los duplicados y
+     * conserva el orden de inserción, también tras vaciar el registro.
+     */
+    @Test
+    public void testIdsEnVariosGrupos() {
+        NotificationRegistry registro = new NotificationRegistry();
+        Charger denso = new StandardCharger("CC00", 10, 0.2f);
+        Charger disperso = new StandardCharger("CC01", 10, 0.2f);
+        List<ElectricVehicle> flota = new ArrayList<>();
+        for (int i = 0; i < 70000; i++) {
+            flota.add(vehiculo(i));
+        }
+
+        // Denso: más de 4096 ids en cada grupo (mapas de bits), repetidos al revés.
+        for (ElectricVehicle vehiculo : flota) {
+            registro.registrar(vehiculo, denso);
+        }
+        for (int i = flota.size() - 1; i >= 0; i--) {
+            registro.registrar(flota.get(i), denso);
+        }
+        // Disperso: pocos ids por grupo (arrays), alrededor del límite y repetidos.
+        int[] orden = {65536, 65535, 3, 69999, 65536, 0, 65535, 3};
+        for (int i : orden) {
+            registro.registrar(flota.get(i), disperso);
+        }
+
+        assertEquals(70000, registro.getNumVehiculos(denso));
+        assertEquals(5, registro.getNumVehiculos(disperso));
+        registro.forEach((cargador, vehiculos) -> {
+            if (cargador == denso) {
+                assertEquals(flota, vehiculos);
+            } else {
+                assertEquals(List.of(flota.get(65536), flota.get(65535), flota.get(3), flota.get(69999),
+                                     flota.get(0)), vehiculos);
+            }
+        });
+
+        registro.vaciar();
+        assertEquals(0, registro.getNumVehiculos(denso));
+        registro.registrar(flota.get(65536), denso);
+        registro.registrar(flota.get(65535), denso);
+        registro.registrar(flota.get(65536), denso);
+        assertEquals(2, registro.getNumVehiculos(denso));
+        registro.forEach((cargador, vehiculos) ->
+            assertEquals(List.of(flota.get(65536), flota.get(65535)), vehiculos));
+    }
+
+    /**
+     * Un objeto notificado alternativamente en dos registros conserva su
+     * identificador en cada uno: no se reasigna ni se duplica.
+     */
+    @Test
+    public void testObjetosEnDosRegistros() {
+        NotificationRegistry primero = new NotificationRegistry();
+        NotificationRegistry segundo = new NotificationRegistry();
+        Charger cargador = new StandardCharger("CC00", 10, 0.2f);
+        ElectricVehicle otro = vehiculo(0);
+        ElectricVehicle vehiculo = vehiculo(1);
+        segundo.registrar(otro, cargador);
+
+        for (int i = 0; i < 10; i++) {
+            primero.registrar(vehiculo, cargador);
+            segundo.registrar(vehiculo, cargador);
+        }
+
+        assertEquals(0, primero.idDe(vehiculo));
+        assertEquals(1, segundo.idDe(vehiculo));
+        assertEquals(primero.idDe(cargador), primero.idDe(cargador));
+        assertEquals(segundo.idDe(cargador), segundo.idDe(cargador));
+        assertEquals(1, primero.getNumVehiculos(cargador));
+        assertEquals(2, segundo.getNumVehiculos(cargador));
+        // Nuevos ids solo para objetos nuevos.
+        assertEquals(2, segundo.idDe(vehiculo(2)));
+    }
+
+    /**
+     * Varios hilos notifican a la vez, repitiendo notificaciones propias y
+     * ajenas: no se pierde ninguna, no hay duplicados, los cargadores salen por
+     * ID y cada hilo conserva en cada cargador el orden en que notificó.
+     */
+    @Test
+    public void testNotificacionesConcurrentes() throws InterruptedException {
+        final int hilos = 4;
+        final int compartidos = 100;
+        NotificationRegistry registro = new NotificationRegistry();
+        List<Charger> cargadores = new ArrayList<>();
+        for (int i = 7; i >= 0; i--) {
+            cargadores.add(new StandardCharger("CC0" + i, 10, 0.2f));
+        }
+        List<ElectricVehicle> flota = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            flota.add(vehiculo(i));
+        }
+
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> productores = new ArrayList<>();
+        List<Throwable> errores = new ArrayList<>();
+        for (int t = 0; t < hilos; t++) {
+            final int hilo = t;
+            Thread productor = new Thread(() -> {
+                try {
+                    salida.await();
+                    for (int vuelta = 0; vuelta < 2; vuelta++) {
+                        for (int i = 0; i < flota.size(); i++) {
+                            // Los primeros vehículos los notifican todos los hilos.
+                            if (i < compartidos || i % hilos == hilo) {
+                                for (Charger cargador : cargadores) {
+                                    registro.registrar(flota.get(i), cargador);
+                                }
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errores) {
+                        errores.add(e);
+                    }
+                }
+            });
+            productor.start();
+            productores.add(productor);
+        }
+        salida.countDown();
+        for (Thread productor : productores) {
+            productor.join();
+        }
+        assertTrue(errores.toString(), errores.isEmpty());
+
+        List<String> ids = new ArrayList<>();
+        registro.forEach((cargador, vehiculos) -> {
+            ids.add(cargador.getId());
+            assertEquals(flota.size(), vehiculos.size());
+            assertEquals(flota.size(), new HashSet<>(vehiculos).size());
+            assertEquals(flota.size(), registro.getNumVehiculos(cargador));
+
+            // Los vehículos propios de cada hilo aparecen en el orden en que los notificó.
+            int[] ultimo = new int[hilos];
+            Arrays.fill(ultimo, -1);
+            for (ElectricVehicle vehiculo : vehiculos) {
+                int i = Integer.parseInt(vehiculo.getMatricula());
+                if (i >= compartidos) {
+                    assertTrue(i > ultimo[i % hilos]);
+                    ultimo[i % hilos] = i;
+                }
+            }
+        });
+        assertEquals(List.of("CC00", "CC01", "CC02", "CC03", "CC04", "CC05", "CC06", "CC07"), ids);
+    }
+
+    /**
+     * Recorrer el registro mientras otro hilo sigue notificando vehículos nuevos
+     * (y la tabla de vehículos crece) no falla y cada recorrido es coherente: sin
+     * huecos y con los vehículos en el orden en que se notificaron.
+     */
+    @Test
+    public void testRecorrerMientrasSeRegistran() throws InterruptedException {
+        NotificationRegistry registro = new NotificationRegistry();
+        List<Charger> cargadores = List.of(new StandardCharger("CC00", 10, 0.2f),
+                                           new StandardCharger("CC01", 10, 0.2f));
+        List<ElectricVehicle> flota = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            flota.add(vehiculo(i));
+        }
+
+        List<Throwable> errores = new ArrayList<>();
+        Thread productor = new Thread(() -> {
+            try {
+                for (ElectricVehicle vehiculo : flota) {
+                    for (Charger cargador : cargadores) {
+                        registro.registrar(vehiculo, cargador);
+                    }
+                }
+            } catch (Throwable e) {
+                synchronized (errores) {
+                    errores.add(e);
+                }
+            }
+        });
+        productor.start();
+
+        int recorridos = 0;
+        do {
+            registro.forEach((cargador, vehiculos) -> {
+                for (int i = 0; i < vehiculos.size(); i++) {
+                    assertSame(flota.get(i), vehiculos.get(i));
+                }
+            });
+            recorridos++;
+        } while (productor.isAlive());
+        productor.join();
+
+        assertTrue(errores.toString(), errores.isEmpty());
+        assertTrue(recorridos > 0);
+        assertEquals(flota.size(), registro.getNumVehiculos(cargadores.get(1)));
+    }
+
+    // --- Métodos auxiliares ---
+
+    private ElectricVehicle vehiculo(int i) {
+        return new StandardEV(compania, new Location(0, 0), new Location(1, 1), "EV" + i, String.format("%04d", i), 50);
+    }
+
+    private static List<String> matriculas(List<ElectricVehicle> vehiculos) {
+        List<String> matriculas = new ArrayList<>();
+        for (ElectricVehicle vehiculo : vehiculos) {
+            matriculas.add(vehiculo.getMatricula());
+        }
+        return matriculas;
+    }
+}
@@ -26,11 +26,19 @@ public class PremiumEV extends ElectricVehicle {
         compania.notificarRecarga(this, cargador);
     }
     
+    /**
+     * La elección depende de los cargadores instalados en cada estación.
+     */
+    @Override
+    protected boolean dependeDeCargadores() {
+        return true;
+    }
+    
     @Override
     protected ChargingStation seleccionarMejorEstacion(List<ChargingStation> estaciones) {
         // ESTRATEGIA: BUSCAR EL CARGADOR ULTRA-RÁPIDO CON MAYOR VELOCIDAD
         ChargingStation mejorEstacion = null;
-        int maxVelocidad = -1;
+        double maxVelocidad = -1;
         
         for (ChargingStation estacion : estaciones) {
             // IGNORAR LA ESTACIÓN ACTUAL PARA EVITAR BUCLES
@@ -38,13 +46,16 @@ public class PremiumEV extends ElectricVehicle {
             
             // SOLO CONSIDERAMOS SI TENEMOS BATERÍA SUFICIENTE
             if (enoughBattery(localizacion.distance(estacion.getLocation()))) {
+                // LA CONGESTIÓN REDUCE LA VELOCIDAD EFECTIVA (FACTOR 1 SI LA POLÍTICA ESTÁ DESACTIVADA)
+                double factor = 1 + penalizacionCongestion(estacion);
                 
                 // BUSCAMOS DENTRO DE LA ESTACIÓN SI TIENE CARGADORES
                 for (Charger ch : estacion.getChargers()) {
                     // VERIFICAMOS SI ES ULTRAFAST USANDO COMPATIBILIDAD
                     if (ch instanceof UltraFastCharger) {
-                        if (ch.getVelocidadCarga() > maxVelocidad) {
-                            maxVelocidad = ch.getVelocidadCarga();
+                        double velocidad = ch.getVelocidadCarga() / factor;
+                        if (velocidad > maxVelocidad) {
+                            maxVelocidad = velocidad;
                             mejorEstacion = estacion;
                         }
                         
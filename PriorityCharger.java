@@ -4,15 +4,15 @@ public class PriorityCharger extends Charger {
     }
     
     @Override
-    protected boolean esCompatible(ElectricVehicle vehiculo) {
+    public boolean esCompatible(VehicleTier tipo) {
         // Solo compatible con PRIORITY
-        return vehiculo.getTipo() == VehicleTier.PRIORITY;
+        return tipo == VehicleTier.PRIORITY;
     }
     
     @Override
     public String toString() {
         return String.format(java.util.Locale.US,
-            "(PriorityCharger: %s, %dkwh, %.1f€, %d, %.2f€)",
-            this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), this.cantidadRecaudada);
+            "(PriorityCharger: %s, %dkwh, %.1f€, %d, %s€)",
+            this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), Money.formatear(this.getRecaudadoMicros()));
     }
 }
\ No newline at end of file
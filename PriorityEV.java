@@ -24,6 +24,17 @@ public class PriorityEV extends ElectricVehicle  {
             return;
         }
         
+        // Mientras dura la sesión de carga el vehículo permanece en el cargador.
+        if (estaRecargando()) {
+            return;
+        }
+        
+        // En la cola de espera de una estación el vehículo está inactivo.
+        if (estaEsperando()) {
+            super.incrementIdleCount();
+            return;
+        }
+        
         // PRIMER SALTO
         boolean seMovio = super.intentarMoverse();
         if (seMovio) {
@@ -44,13 +55,14 @@ public class PriorityEV extends ElectricVehicle  {
     protected ChargingStation seleccionarMejorEstacion(List<ChargingStation> estaciones) {
         // ESTRATEGIA: MÁS CERCANA AL DESTINO FINAL
         ChargingStation mejor = null;
-        int minD = Integer.MAX_VALUE;
+        double minD = Double.MAX_VALUE;
         
         for(ChargingStation st : estaciones) {
             if (localizacion.equals(st.getLocation())) continue;
             
             if (enoughBattery(localizacion.distance(st.getLocation()))) {
-                int distAlFinal = st.getLocation().distance(localizacionDestinoFinal);
+                // La congestión se suma como pasos extra (0 si la política está desactivada).
+                double distAlFinal = st.getLocation().distance(localizacionDestinoFinal) + penalizacionCongestion(st);
                 if (distAlFinal < minD) {
                     minD = distAlFinal;
                     mejor = st;
@@ -0,0 +1,507 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de recargas (write-ahead log) de solo añadido.
+ * <p>
+ * Cada recarga (paso, vehículo, cargador, kWh y coste) y cada notificación a la
+ * compañía se anota en memoria y un hilo escritor las vuelca al fichero por lotes
+ * con un {@link FileChannel}, forzando el disco una vez por lote (<b>group
+ * commit</b>): el coste del fsync se reparte entre todas las anotaciones que
+ * llegaron mientras se escribía el anterior. La simulación nunca espera al disco
+ * salvo que los dos búferes estén llenos o se llame a {@link #sincronizar}.
+ * </p>
+ * <p>
+ * Formato (big-endian): cabecera {@link #MAGIA} ("EVJR") y {@link #VERSION}, y
+ * después lotes de la forma [longitud, CRC32, registros]. Vehículos y cargadores
+ * se identifican por un número que se define (con su matrícula o ID) la primera
+ * vez que aparecen. Un lote incompleto o con el CRC erróneo al final del fichero
+ * (corte a mitad de escritura) se descarta al reproducir.
+ * </p>
+ * <p>
+ * {@link #reproducir} reconstruye la recaudación y el historial de los cargadores
+ * y el registro de notificaciones de la compañía leyendo el diario, sin volver a
+ * simular.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class RechargeJournal implements Closeable {
+    // --- Constantes ---
+    /** Marca de inicio de fichero: "EVJR". */
+    public static final int MAGIA = 0x45564a52;
+    /** Versión del formato. */
+    public static final int VERSION = 1;
+
+    private static final int CABECERA = 8;
+    private static final int CABECERA_LOTE = 8;
+    private static final int TAMANO_BUFER = 64 * 1024;
+    /** Tiempo que el escritor espera a que se junten más anotaciones en el lote. */
+    private static final long ESPERA_LOTE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final byte DEF_VEHICULO = 1;
+    private static final byte DEF_CARGADOR = 2;
+    private static final byte RECARGA = 3;
+    private static final byte NOTIFICACION = 4;
+
+    // --- Atributos ---
+    private final Path fichero;
+    private final FileChannel canal;
+
+    private final ReentrantLock cerrojo;
+    /** Se señala cuando hay anotaciones para el escritor. */
+    private final Condition hayDatos;
+    /** Se señala cuando el escritor ha tomado o escrito un lote. */
+    private final Condition loteEscrito;
+
+    /** Búfer donde se anotan los registros; el escritor lo intercambia con la reserva. */
+    private ByteBuffer actual;
+    private ByteBuffer reserva;
+    /** Anotaciones hechas y anotaciones ya en disco. */
+    private long anotados;
+    private long duraderos;
+    /** El búfer actual ha pasado la mitad: el escritor no espera a juntar más. */
+    private boolean urgente;
+    private boolean abierto;
+    private IOException error;
+
+    /** Número asignado a cada vehículo y cargador ya definido (cada tipo empieza en 0). */
+    private final Map<Object, Integer> numeros;
+    private int numVehiculos;
+    private int numCargadores;
+    private final Thread escritor;
+
+    // --- Constructor y factoría ---
+
+    private RechargeJournal(Path fichero, FileChannel canal) {
+        this.fichero = fichero;
+        this.canal = canal;
+        this.cerrojo = new ReentrantLock();
+        this.hayDatos = cerrojo.newCondition();
+        this.loteEscrito = cerrojo.newCondition();
+        this.actual = ByteBuffer.allocateDirect(TAMANO_BUFER);
+        this.reserva = ByteBuffer.allocateDirect(TAMANO_BUFER);
+        this.numeros = new IdentityHashMap<>();
+        this.abierto = true;
+
+        this.escritor = new Thread(this::escribir, "ev-diario-recargas");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Crea un diario nuevo (si el fichero existe, se sustituye).
+     *
+     * @param fichero Fichero del diario.
+     * @return El diario, listo para anotar.
+     * @throws IOException Si no se puede crear el fichero.
+     */
+    public static RechargeJournal crear(Path fichero) throws IOException {
+        if (fichero == null) {
+            throw new NullPointerException("El fichero no puede ser nulo.");
+        }
+        FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            cabecera.putInt(MAGIA).putInt(VERSION).flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera);
+            }
+            canal.force(true);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+        return new RechargeJournal(fichero, canal);
+    }
+
+    // --- Anotación ---
+
+    /**
+     * Anota una recarga. No espera al disco.
+     *
+     * @throws UncheckedIOException Si una escritura anterior falló.
+     * @throws IllegalStateException Si el diario está cerrado.
+     */
+    public void anotarRecarga(int paso, ElectricVehicle vehiculo, Charger cargador, int kwh, long costeMicros) {
+        cerrojo.lock();
+        try {
+            int v = numero(vehiculo, vehiculo.getMatricula(), DEF_VEHICULO);
+            int c = numero(cargador, cargador.getId(), DEF_CARGADOR);
+            reservar(1 + 4 * 4 + 8);
+            actual.put(RECARGA).putInt(paso).putInt(v).putInt(c).putInt(kwh).putLong(costeMicros);
+            anotado();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Anota una notificación de recarga a la compañía. No espera al disco.
+     */
+    public void anotarNotificacion(ElectricVehicle vehiculo, Charger cargador) {
+        cerrojo.lock();
+        try {
+            int v = numero(vehiculo, vehiculo.getMatricula(), DEF_VEHICULO);
+            int c = numero(cargador, cargador.getId(), DEF_CARGADOR);
+            reservar(1 + 4 * 2);
+            actual.put(NOTIFICACION).putInt(v).putInt(c);
+            anotado();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Espera a que todo lo anotado hasta ahora esté en disco.
+     *
+     * @throws IOException Si falló alguna escritura.
+     */
+    public void sincronizar() throws IOException {
+        cerrojo.lock();
+        try {
+            long objetivo = anotados;
+            if (duraderos < objetivo) {
+                urgente = true;
+                hayDatos.signal();
+            }
+            while (duraderos < objetivo && error == null) {
+                loteEscrito.awaitUninterruptibly();
+            }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Vuelca lo pendiente, para el escritor y cierra el fichero.
+     */
+    @Override
+    public void close() throws IOException {
+        cerrojo.lock();
+        try {
+            if (!abierto) {
+                return;
+            }
+            abierto = false;
+            hayDatos.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+        boolean interrumpido = false;
+        while (escritor.isAlive()) {
+            try {
+                escritor.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    public Path getFichero() {
+        return fichero;
+    }
+
+    // --- Métodos internos (con el cerrojo tomado) ---
+
+    /** Número del vehículo o cargador; si es nuevo, anota antes su definición. */
+    private int numero(Object objeto, String nombre, byte tipo) {
+        Integer numero = numeros.get(objeto);
+        if (numero != null) {
+            return numero;
+        }
+        byte[] bytes = nombre.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Identificador demasiado largo para el diario: " + nombre);
+        }
+        numero = (tipo == DEF_VEHICULO) ? numVehiculos++ : numCargadores++;
+        reservar(1 + 4 + 2 + bytes.length);
+        actual.put(tipo).putInt(numero).putShort((short) bytes.length).put(bytes);
+        numeros.put(objeto, numero);
+        return numero;
+    }
+
+    /** Espera, si hace falta, a que el búfer actual tenga sitio para un registro. */
+    private void reservar(int bytes) {
+        comprobarEstado();
+        while (actual.remaining() < bytes) {
+            urgente = true;
+            hayDatos.signal();
+            loteEscrito.awaitUninterruptibly();
+            comprobarEstado();
+        }
+    }
+
+    private void anotado() {
+        anotados++;
+        if (actual.position() >= TAMANO_BUFER / 2) {
+            urgente = true;
+        }
+        hayDatos.signal();
+    }
+
+    private void comprobarEstado() {
+        if (error != null) {
+            throw new UncheckedIOException("No se pudo escribir el diario " + fichero, error);
+        }
+        if (!abierto) {
+            throw new IllegalStateException("El diario está cerrado.");
+        }
+    }
+
+    // --- Hilo escritor ---
+
+    private void escribir() {
+        CRC32 crc = new CRC32();
+        ByteBuffer cabeceraLote = ByteBuffer.allocateDirect(CABECERA_LOTE);
+
+        while (true) {
+            ByteBuffer lote;
+            long hasta;
+            cerrojo.lock();
+            try {
+                while (abierto && actual.position() == 0) {
+                    hayDatos.awaitUninterruptibly();
+                }
+                if (actual.position() == 0) {
+                    return;
+                }
+                // Group commit: se deja un momento para que el lote crezca.
+                long espera = ESPERA_LOTE_NANOS;
+                while (abierto && !urgente && espera > 0) {
+                    try {
+                        espera = hayDatos.awaitNanos(espera);
+                    } catch (InterruptedException e) {
+                        espera = 0;
+                    }
+                }
+                lote = actual;
+                actual = reserva;
+                reserva = null;
+                hasta = anotados;
+                urgente = false;
+                loteEscrito.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+
+            IOException fallo = null;
+            try {
+                lote.flip();
+                crc.reset();
+                crc.update(lote.duplicate());
+                cabeceraLote.clear();
+                cabeceraLote.putInt(lote.remaining()).putInt((int) crc.getValue()).flip();
+                ByteBuffer[] partes = { cabeceraLote, lote };
+                while (lote.hasRemaining()) {
+                    canal.write(partes);
+                }
+                canal.force(false);
+            } catch (IOException e) {
+                fallo = e;
+            }
+            lote.clear();
+
+            cerrojo.lock();
+            try {
+                reserva = lote;
+                if (fallo != null) {
+                    error = fallo;
+                } else {
+                    duraderos = hasta;
+                }
+                loteEscrito.signalAll();
+                if (fallo != null) {
+                    return;
+                }
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    // --- Reproducción ---
+
+    /**
+     * Aplica un diario sobre una compañía con la misma red y flota que la
+     * simulación que lo escribió (p. ej. recién creada con {@link EVDemo}): añade
+     * cada recarga a la recaudación e historial de su cargador y cada notificación
+     * al registro de la compañía. No mueve vehículos ni recalcula rutas.
+     *
+     * @param fichero El diario.
+     * @param compania La compañía destino.
+     * @return Resumen de lo aplicado.
+     * @throws IOException Si no se puede leer, no es un diario o menciona un
+     *         vehículo o cargador que la compañía no tiene.
+     */
+    public static Reproduccion reproducir(Path fichero, EVCompany compania) throws IOException {
+        if (compania == null) {
+            throw new NullPointerException("La compañía no puede ser nula.");
+        }
+        Map<String, ElectricVehicle> vehiculosPorMatricula = new HashMap<>();
+        for (ElectricVehicle vehiculo : compania.getVehicles()) {
+            vehiculosPorMatricula.put(vehiculo.getMatricula(), vehiculo);
+        }
+        Map<String, Charger> cargadoresPorId = new HashMap<>();
+        for (ChargingStation estacion : compania.getCityStations()) {
+            for (Charger cargador : estacion.getChargers()) {
+                cargadoresPorId.put(cargador.getId(), cargador);
+            }
+        }
+        compania.flushNotificaciones();
+
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (datos.remaining() < CABECERA || datos.getInt() != MAGIA) {
+                throw new IOException(fichero + " no es un diario de recargas.");
+            }
+            int version = datos.getInt();
+            if (version != VERSION) {
+                throw new IOException(fichero + ": versión de diario no soportada " + version
+                    + " (se esperaba " + VERSION + ")");
+            }
+
+            List<ElectricVehicle> vehiculos = new ArrayList<>();
+            List<Charger> cargadores = new ArrayList<>();
+            CRC32 crc = new CRC32();
+            long recargas = 0;
+            long notificaciones = 0;
+            boolean truncado = false;
+
+            while (datos.hasRemaining()) {
+                if (datos.remaining() < CABECERA_LOTE) {
+                    truncado = true;
+                    break;
+                }
+                int longitud = datos.getInt();
+                int suma = datos.getInt();
+                if (longitud < 0 || longitud > datos.remaining()) {
+                    truncado = true;
+                    break;
+                }
+                ByteBuffer lote = datos.slice();
+                lote.limit(longitud);
+                crc.reset();
+                crc.update(lote.duplicate());
+                if ((int) crc.getValue() != suma) {
+                    truncado = true;
+                    break;
+                }
+                datos.position(datos.position() + longitud);
+
+                while (lote.hasRemaining()) {
+                    byte tipo = lote.get();
+                    switch (tipo) {
+                        case DEF_VEHICULO:
+                            vehiculos.add(buscar(vehiculosPorMatricula, leerDefinicion(lote, vehiculos.size()), fichero));
+                            break;
+                        case DEF_CARGADOR:
+                            cargadores.add(buscar(cargadoresPorId, leerDefinicion(lote, cargadores.size()), fichero));
+                            break;
+                        case RECARGA: {
+                            lote.getInt(); // paso
+                            ElectricVehicle vehiculo = vehiculos.get(lote.getInt());
+                            Charger cargador = cargadores.get(lote.getInt());
+                            lote.getInt(); // kwh
+                            cargador.reproducirRecarga(vehiculo, lote.getLong());
+                            recargas++;
+                            break;
+                        }
+                        case NOTIFICACION:
+                            compania.restaurarNotificacion(vehiculos.get(lote.getInt()), cargadores.get(lote.getInt()));
+                            notificaciones++;
+                            break;
+                        default:
+                            throw new IOException(fichero + ": registro desconocido " + tipo);
+                    }
+                }
+            }
+            return new Reproduccion(recargas, notificaciones, truncado);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException(fichero + ": diario corrupto.", e);
+        }
+    }
+
+    private static String leerDefinicion(ByteBuffer lote, int esperado) throws IOException {
+        int numero = lote.getInt();
+        if (numero != esperado) {
+            throw new IOException("Definición fuera de orden en el diario: " + numero);
+        }
+        byte[] bytes = new byte[lote.getShort() & 0xFFFF];
+        lote.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T buscar(Map<String, T> objetos, String id, Path fichero) throws IOException {
+        T objeto = objetos.get(id);
+        if (objeto == null) {
+            throw new IOException(fichero + ": " + id + " no existe en la compañía.");
+        }
+        return objeto;
+    }
+
+    // --- Clase interna: resumen de una reproducción ---
+
+    /**
+     * Lo aplicado por {@link #reproducir}.
+     */
+    public static final class Reproduccion {
+        private final long recargas;
+        private final long notificaciones;
+        private final boolean truncado;
+
+        private Reproduccion(long recargas, long notificaciones, boolean truncado) {
+            this.recargas = recargas;
+            this.notificaciones = notificaciones;
+            this.truncado = truncado;
+        }
+
+        public long getRecargas() {
+            return recargas;
+        }
+
+        public long getNotificaciones() {
+            return notificaciones;
+        }
+
+        /** true si el final del fichero tenía un lote incompleto que se descartó. */
+        public boolean isTruncado() {
+            return truncado;
+        }
+
+        @Override
+        public String toString() {
+            return recargas + " recargas, " + notificaciones + " notificaciones"
+                + (truncado ? " (lote final incompleto descartado)" : "");
+        }
+    }
+}
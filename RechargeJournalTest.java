@@ -0,0 +1,129 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para RechargeJournal.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class RechargeJournalTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Reproducir el diario de una simulación sobre la misma red recién creada deja
+     * los cargadores y el registro de la compañía igual que al terminar de simular.
+     */
+    @Test
+    public void testReproducirReconstruyeMetricas() throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve("recargas.evj");
+
+        EVCompany original = compania();
+        EVDemo simulada = new EVDemo(original, new ScenarioGenerator(300, 6, 3L));
+        try (RechargeJournal diario = RechargeJournal.crear(fichero)) {
+            original.setDiarioRecargas(diario);
+            simulada.simular(EVDemo.MAXSTEPS);
+            diario.sincronizar();
+        }
+
+        EVCompany reconstruida = compania();
+        EVDemo vacia = new EVDemo(reconstruida, new ScenarioGenerator(300, 6, 3L));
+        RechargeJournal.Reproduccion reproduccion = RechargeJournal.reproducir(fichero, reconstruida);
+
+        assertFalse(reproduccion.isTruncado());
+        assertTrue(reproduccion.getRecargas() > 0);
+        assertEquals(metricas(simulada), metricas(vacia));
+        assertEquals(registro(original), registro(reconstruida));
+    }
+
+    /**
+     * Un lote cortado a mitad de escritura al final del fichero se descarta y se
+     * aplica todo lo anterior.
+     */
+    @Test
+    public void testLoteFinalIncompletoSeDescarta() throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve("cortado.evj");
+
+        EVCompany original = compania();
+        EVDemo simulada = new EVDemo(original, DemoType.ADVANCED);
+        ChargingStation estacion = simulada.getStations().get(0);
+        Charger cargador = estacion.getChargers().get(0);
+        ElectricVehicle vehiculo = simulada.getVehicles().get(0);
+
+        try (RechargeJournal diario = RechargeJournal.crear(fichero)) {
+            diario.anotarRecarga(1, vehiculo, cargador, 10, 2_000_000L);
+            diario.sincronizar();
+            diario.anotarRecarga(2, vehiculo, cargador, 10, 3_000_000L);
+        }
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+
+        EVCompany reconstruida = compania();
+        EVDemo vacia = new EVDemo(reconstruida, DemoType.ADVANCED);
+        RechargeJournal.Reproduccion reproduccion = RechargeJournal.reproducir(fichero, reconstruida);
+
+        assertTrue(reproduccion.isTruncado());
+        assertEquals(1, reproduccion.getRecargas());
+        assertEquals(2_000_000L, vacia.getStations().get(0).getChargers().get(0).getRecaudadoMicros());
+    }
+
+    /**
+     * Un fichero que no es un diario se rechaza.
+     */
+    @Test(expected = IOException.class)
+    public void testFicheroNoValido() throws IOException {
+        Path fichero = carpeta.newFile("basura.evj").toPath();
+        Files.write(fichero, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        RechargeJournal.reproducir(fichero, compania());
+    }
+
+    // --- Auxiliares ---
+
+    private static EVCompany compania() {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(OutputStream.nullOutputStream()));
+        return compania;
+    }
+
+    /** Recaudación e historial (por matrícula) de cada cargador. */
+    private static List<String> metricas(EVDemo demo) {
+        List<String> metricas = new ArrayList<>();
+        for (ChargingStation estacion : demo.getStations()) {
+            for (Charger cargador : estacion.getChargers()) {
+                StringBuilder linea = new StringBuilder(cargador.getId() + " " + cargador.getRecaudadoMicros() + ":");
+                for (ElectricVehicle vehiculo : cargador.vehiculosRecargados) {
+                    linea.append(' ').append(vehiculo.getMatricula());
+                }
+                metricas.add(linea.toString());
+            }
+        }
+        return metricas;
+    }
+
+    private static List<String> registro(EVCompany compania) {
+        compania.flushNotificaciones();
+        List<String> registro = new ArrayList<>();
+        compania.getRegistroCargas().forEach((cargador, vehiculos) -> {
+            StringBuilder linea = new StringBuilder(cargador.getId() + ":");
+            for (ElectricVehicle vehiculo : vehiculos) {
+                linea.append(' ').append(vehiculo.getMatricula());
+            }
+            registro.add(linea.toString());
+        });
+        return registro;
+    }
+}
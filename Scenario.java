@@ -0,0 +1,155 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Configuración de un escenario para ejecutar por lotes.
+ * <p>
+ * Combina un {@link DemoType} (estaciones y cargadores), el tamaño de la flota,
+ * la semilla de los vehículos generados, el número de pasos a simular y,
+ * opcionalmente, la ubicación de las estaciones.
+ * Es inmutable, así que puede compartirse entre hilos.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class Scenario {
+    // --- Atributos ---
+    private final String nombre;
+    private final DemoType demo;
+    private final int numVehiculos;
+    private final long semilla;
+    private final int pasos;
+    /** Ubicaciones de las estaciones, o null para las de la demo. */
+    private final List<Location> ubicacionesEstaciones;
+    /** Origen del escenario (generador o fichero), o null si se usa una demo. */
+    private final ScenarioSource origen;
+
+    // --- Constructores ---
+
+    /**
+     * Escenario con la flota y la duración por defecto de la demo.
+     *
+     * @param demo El tipo de demo.
+     */
+    public Scenario(DemoType demo) {
+        this(demo, demo.getNumVehiclesToCreate(), 0L, EVDemo.MAXSTEPS);
+    }
+
+    /**
+     * Escenario completo.
+     *
+     * @param demo El tipo de demo (estaciones y cargadores).
+     * @param numVehiculos Tamaño de la flota.
+     * @param semilla Semilla para los vehículos generados.
+     * @param pasos Número de pasos a simular.
+     *
+     * @throws NullPointerException Si la demo es nula.
+     * @throws IllegalArgumentException Si la flota o los pasos son negativos.
+     */
+    public Scenario(DemoType demo, int numVehiculos, long semilla, int pasos) {
+        this(demo, numVehiculos, semilla, pasos, null);
+    }
+
+    /**
+     * Escenario con las estaciones en las ubicaciones indicadas.
+     *
+     * @param demo El tipo de demo (cargadores por estación).
+     * @param numVehiculos Tamaño de la flota.
+     * @param semilla Semilla para los vehículos generados.
+     * @param pasos Número de pasos a simular.
+     * @param ubicacionesEstaciones Una ubicación por estación, o null para las de la demo.
+     */
+    public Scenario(DemoType demo, int numVehiculos, long semilla, int pasos, List<Location> ubicacionesEstaciones) {
+        if (demo == null) {
+            throw new NullPointerException("El tipo de demo no puede ser nulo.");
+        }
+        if (numVehiculos < 0) {
+            throw new IllegalArgumentException("Número de vehículos negativo: " + numVehiculos);
+        }
+        if (pasos < 0) {
+            throw new IllegalArgumentException("Número de pasos negativo: " + pasos);
+        }
+        this.demo = demo;
+        this.numVehiculos = numVehiculos;
+        this.semilla = semilla;
+        this.pasos = pasos;
+        this.origen = null;
+        this.ubicacionesEstaciones = (ubicacionesEstaciones == null) ? null
+            : Collections.unmodifiableList(new ArrayList<>(ubicacionesEstaciones));
+        this.nombre = demo.name() + "/" + numVehiculos + "ev/s" + semilla
+            + ((ubicacionesEstaciones == null) ? "" : "/" + ubicacionesEstaciones.size() + "est");
+    }
+
+    /**
+     * Escenario creado por un generador o cargado de fichero.
+     *
+     * @param origen El origen de la flota, las estaciones y los cargadores.
+     * @param pasos Número de pasos a simular.
+     */
+    public Scenario(ScenarioSource origen, int pasos) {
+        if (origen == null) {
+            throw new NullPointerException("El origen del escenario no puede ser nulo.");
+        }
+        if (pasos < 0) {
+            throw new IllegalArgumentException("Número de pasos negativo: " + pasos);
+        }
+        this.demo = null;
+        this.numVehiculos = 0;
+        this.semilla = 0L;
+        this.pasos = pasos;
+        this.ubicacionesEstaciones = null;
+        this.origen = origen;
+        this.nombre = origen.toString();
+    }
+
+    /**
+     * Devuelve una copia de este escenario con otras ubicaciones de estaciones.
+     */
+    public Scenario conEstaciones(List<Location> ubicaciones) {
+        if (origen != null) {
+            throw new IllegalStateException("Un escenario generado no admite ubicaciones fijas.");
+        }
+        return new Scenario(demo, numVehiculos, semilla, pasos, ubicaciones);
+    }
+
+    // --- Getters ---
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** Origen del escenario, o null si se usa una demo. */
+    public ScenarioSource getOrigen() {
+        return origen;
+    }
+
+    /** El tipo de demo, o null si el escenario viene de otro origen. */
+    public DemoType getDemo() {
+        return demo;
+    }
+
+    /** Tamaño de la flota de la demo (0 si el escenario viene de otro origen). */
+    public int getNumVehiculos() {
+        return numVehiculos;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getPasos() {
+        return pasos;
+    }
+
+    /** Ubicaciones de las estaciones, o null si se usan las de la demo. */
+    public List<Location> getUbicacionesEstaciones() {
+        return ubicacionesEstaciones;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ejecuta muchos escenarios a la vez en un pool de hilos.
+ * <p>
+ * Cada escenario se simula en su propio contexto ({@link EVCompany#newInstance()}),
+ * sin salida por consola, así que las ejecuciones no comparten estado. Los
+ * resultados se devuelven en el mismo orden que los escenarios y pueden
+ * mostrarse juntos con {@link #tabla}.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioBatchRunner {
+    // --- Constantes ---
+    /** Salida que descarta todo lo que se escribe en ella. */
+    private static final PrintStream SALIDA_NULA = new PrintStream(OutputStream.nullOutputStream());
+
+    // --- Atributos ---
+    private final int numHilos;
+
+    // --- Constructores ---
+
+    /**
+     * Crea un ejecutor con un hilo por procesador disponible.
+     */
+    public ScenarioBatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param numHilos Número de escenarios que se ejecutan a la vez.
+     * @throws IllegalArgumentException Si el número de hilos no es positivo.
+     */
+    public ScenarioBatchRunner(int numHilos) {
+        if (numHilos <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + numHilos);
+        }
+        this.numHilos = numHilos;
+    }
+
+    // --- Métodos públicos ---
+
+    /**
+     * Ejecuta todos los escenarios en paralelo y espera a que terminen.
+     *
+     * @param escenarios Escenarios a ejecutar.
+     * @return Los resultados, en el mismo orden que los escenarios.
+     * @throws NullPointerException Si la lista o alguno de sus escenarios es nulo.
+     */
+    public List<ScenarioResult> ejecutar(List<Scenario> escenarios) {
+        List<Callable<ScenarioResult>> tareas = new ArrayList<>(escenarios.size());
+        for (Scenario escenario : escenarios) {
+            if (escenario == null) {
+                throw new NullPointerException("El escenario no puede ser nulo.");
+            }
+            tareas.add(() -> ejecutar(escenario));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(numHilos, Math.max(1, tareas.size())));
+        try {
+            List<ScenarioResult> resultados = new ArrayList<>(tareas.size());
+            for (Future<ScenarioResult> futuro : pool.invokeAll(tareas)) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ejecución por lotes interrumpida.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IllegalStateException("Fallo al ejecutar un escenario.", causa);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Ejecuta un escenario en el hilo actual, en un contexto aislado y sin salida.
+     *
+     * @param escenario El escenario a ejecutar.
+     * @return El resumen del escenario.
+     */
+    public static ScenarioResult ejecutar(Scenario escenario) {
+        long inicio = System.nanoTime();
+
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(SALIDA_NULA);
+        EVDemo demo = (escenario.getOrigen() != null)
+            ? new EVDemo(compania, escenario.getOrigen(), false)
+            : new EVDemo(compania, escenario.getDemo(), escenario.getNumVehiculos(),
+                         escenario.getSemilla(), escenario.getUbicacionesEstaciones(), false);
+        demo.setInformePorPaso(false);
+        demo.simular(escenario.getPasos());
+
+        return ScenarioResult.de(escenario, demo, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Formatea los resultados como una tabla de texto, una fila por escenario.
+     */
+    public static String tabla(List<ScenarioResult> resultados) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-28s %8s %9s %8s %10s %8s %9s %12s %9s%n",
+            "Escenario", "Llegados", "SinLlegar", "Varados", "PasoMedio", "Ultimo", "Recargas", "Recaudado€", "ms"));
+        for (ScenarioResult resultado : resultados) {
+            sb.append(resultado).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Ejecuta todos los DemoType con su flota por defecto y con flotas mayores
+     * (varias semillas) y muestra la tabla de resultados.
+     */
+    public static void main() {
+        List<Scenario> escenarios = new ArrayList<>();
+        for (DemoType tipo : DemoType.values()) {
+            escenarios.add(new Scenario(tipo));
+            for (long semilla = 1; semilla <= 3; semilla++) {
+                escenarios.add(new Scenario(tipo, 50, semilla, EVDemo.MAXSTEPS));
+            }
+        }
+        System.out.print(tabla(new ScenarioBatchRunner().ejecutar(escenarios)));
+    }
+}
@@ -0,0 +1,55 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para ScenarioBatchRunner.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioBatchRunnerTest {
+
+    /**
+     * Los escenarios ejecutados en paralelo dan el mismo resultado que uno a uno,
+     * y en el mismo orden en que se pidieron.
+     */
+    @Test
+    public void testParaleloIgualQueSecuencial() {
+        List<Scenario> escenarios = new ArrayList<>();
+        for (DemoType tipo : DemoType.values()) {
+            escenarios.add(new Scenario(tipo));
+            escenarios.add(new Scenario(tipo, 30, 7L, EVDemo.MAXSTEPS));
+        }
+
+        List<ScenarioResult> paralelo = new ScenarioBatchRunner(4).ejecutar(escenarios);
+
+        assertEquals(escenarios.size(), paralelo.size());
+        for (int i = 0; i < escenarios.size(); i++) {
+            ScenarioResult esperado = ScenarioBatchRunner.ejecutar(escenarios.get(i));
+            ScenarioResult obtenido = paralelo.get(i);
+            assertSame(escenarios.get(i), obtenido.getEscenario());
+            assertEquals(esperado.getLlegados(), obtenido.getLlegados());
+            assertEquals(esperado.getSinLlegar(), obtenido.getSinLlegar());
+            assertEquals(esperado.getVarados(), obtenido.getVarados());
+            assertEquals(esperado.getRecargas(), obtenido.getRecargas());
+            assertEquals(esperado.getRecaudacionMicros(), obtenido.getRecaudacionMicros());
+            assertEquals(esperado.getUltimoPasoLlegada(), obtenido.getUltimoPasoLlegada());
+        }
+    }
+
+    /**
+     * El resumen cuenta toda la flota: llegados más los que no llegan, y entre
+     * estos solo los varados sin estación alcanzable.
+     */
+    @Test
+    public void testResumenCuentaTodaLaFlota() {
+        ScenarioResult resultado = ScenarioBatchRunner.ejecutar(new Scenario(DemoType.SIMPLE, 25, 3L, 10));
+
+        assertEquals(25, resultado.getLlegados() + resultado.getSinLlegar());
+        assertTrue(resultado.getVarados() <= resultado.getSinLlegar());
+        assertTrue(resultado.getRecaudacionMicros() >= 0);
+    }
+}
@@ -0,0 +1,304 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Generador determinista de escenarios sintéticos de cualquier tamaño.
+ * <p>
+ * A partir de una semilla crea una red de estaciones (en celdas distintas de la
+ * ciudad), sus cargadores y una flota de vehículos, siguiendo distribuciones
+ * configurables de tipos de vehículo, tipos de cargador, capacidades de batería,
+ * velocidades y tarifas. Con la misma configuración y semilla el escenario es
+ * siempre idéntico.
+ * </p>
+ * <p>
+ * Los elementos se crean con {@link VehicleFactory} y {@link ChargerFactory} y se
+ * entregan uno a uno a un {@link ScenarioSink}, sin guardarlos en colecciones
+ * intermedias, así que sirve como entrada de pruebas de carga con flotas enormes.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioGenerator implements ScenarioSource {
+    // --- Atributos ---
+    private final int numVehiculos;
+    private final int numEstaciones;
+    private final long semilla;
+
+    private int ancho;
+    private int alto;
+    private int minCargadores;
+    private int maxCargadores;
+    private int minCapacidad;
+    private int maxCapacidad;
+    private int minVelocidad;
+    private int maxVelocidad;
+    private float minTarifa;
+    private float maxTarifa;
+    /** Número del primer vehículo (nombre y matrícula). */
+    private int primerVehiculo;
+
+    /** Peso de cada tipo de vehículo, indexado por ordinal. */
+    private final int[] pesosTipos;
+    /** Peso de cada tipo de cargador, indexado por ordinal. */
+    private final int[] pesosCargadores;
+
+    // --- Constructor ---
+
+    /**
+     * Crea un generador con las distribuciones por defecto: ciudad de
+     * {@link EVDemo#MAXX} x {@link EVDemo#MAXY}, de 1 a 4 cargadores por estación,
+     * los cuatro tipos de vehículo de la demo y los cuatro de cargador a partes iguales.
+     *
+     * @param numVehiculos Tamaño de la flota.
+     * @param numEstaciones Número de estaciones.
+     * @param semilla Semilla del escenario.
+     *
+     * @throws IllegalArgumentException Si la flota o las estaciones son negativas.
+     */
+    public ScenarioGenerator(int numVehiculos, int numEstaciones, long semilla) {
+        if (numVehiculos < 0 || numEstaciones < 0) {
+            throw new IllegalArgumentException("El número de vehículos y de estaciones no puede ser negativo.");
+        }
+        this.numVehiculos = numVehiculos;
+        this.numEstaciones = numEstaciones;
+        this.semilla = semilla;
+
+        this.ancho = EVDemo.MAXX;
+        this.alto = EVDemo.MAXY;
+        this.minCargadores = 1;
+        this.maxCargadores = 4;
+        this.minCapacidad = 20;
+        this.maxCapacidad = 100;
+        this.minVelocidad = 20;
+        this.maxVelocidad = 160;
+        this.minTarifa = 0.20f;
+        this.maxTarifa = 0.80f;
+
+        this.pesosTipos = new int[VehicleTier.values().length];
+        this.pesosTipos[VehicleTier.STANDARD.ordinal()] = 1;
+        this.pesosTipos[VehicleTier.PRIORITY.ordinal()] = 1;
+        this.pesosTipos[VehicleTier.VTC.ordinal()] = 1;
+        this.pesosTipos[VehicleTier.PREMIUM.ordinal()] = 1;
+
+        this.pesosCargadores = new int[ChargerFactory.ChargerType.values().length];
+        Arrays.fill(this.pesosCargadores, 1);
+    }
+
+    // --- Configuración ---
+
+    /**
+     * Cambia el tamaño de la ciudad. Las coordenadas generadas van de 1 a ancho/alto.
+     */
+    public void setTamanoCiudad(int ancho, int alto) {
+        if (ancho <= 0 || alto <= 0 || (long) ancho * alto > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamaño de ciudad no válido: " + ancho + "x" + alto);
+        }
+        this.ancho = ancho;
+        this.alto = alto;
+    }
+
+    public void setCargadoresPorEstacion(int min, int max) {
+        comprobarRango(min, max, 1);
+        this.minCargadores = min;
+        this.maxCargadores = max;
+    }
+
+    public void setCapacidadBateria(int min, int max) {
+        comprobarRango(min, max, 1);
+        this.minCapacidad = min;
+        this.maxCapacidad = max;
+    }
+
+    public void setVelocidadCarga(int min, int max) {
+        comprobarRango(min, max, 1);
+        this.minVelocidad = min;
+        this.maxVelocidad = max;
+    }
+
+    /**
+     * Rango de tarifas en euros/kWh; se redondean al céntimo.
+     */
+    public void setTarifa(float min, float max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Rango de tarifas no válido: " + min + " - " + max);
+        }
+        this.minTarifa = min;
+        this.maxTarifa = max;
+    }
+
+    /**
+     * Peso relativo de un tipo de vehículo en la flota (0 = no aparece).
+     */
+    public void setPesoTipo(VehicleTier tipo, int peso) {
+        if (peso < 0) {
+            throw new IllegalArgumentException("Peso negativo: " + peso);
+        }
+        this.pesosTipos[tipo.ordinal()] = peso;
+    }
+
+    /**
+     * Peso relativo de un tipo de cargador en la red (0 = no aparece).
+     */
+    public void setPesoCargador(ChargerFactory.ChargerType tipo, int peso) {
+        if (peso < 0) {
+            throw new IllegalArgumentException("Peso negativo: " + peso);
+        }
+        this.pesosCargadores[tipo.ordinal()] = peso;
+    }
+
+    /**
+     * Numera los vehículos a partir del dado en lugar de 0, para añadirlos a una
+     * flota que ya tiene los primeros (p. ej. la tabla fija de la demo).
+     */
+    public void setPrimerVehiculo(int primero) {
+        if (primero < 0) {
+            throw new IllegalArgumentException("Número de vehículo negativo: " + primero);
+        }
+        this.primerVehiculo = primero;
+    }
+
+    public int getNumVehiculos() {
+        return numVehiculos;
+    }
+
+    public int getNumEstaciones() {
+        return numEstaciones;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Lado de una ciudad cuadrada con al menos el doble de celdas que estaciones
+     * (para que quepan sin apelotonarse), y nunca menor que la de la demo.
+     *
+     * @param numEstaciones Número de estaciones.
+     * @return El lado, para {@link #setTamanoCiudad}.
+     */
+    public static int ladoCiudad(int numEstaciones) {
+        return Math.max(EVDemo.MAXX, (int) Math.ceil(Math.sqrt(2.0 * numEstaciones)));
+    }
+
+    // --- Generación ---
+
+    /**
+     * Genera el escenario y lo entrega al destino: primero cada estación seguida
+     * de sus cargadores y después los vehículos.
+     *
+     * @param compania Compañía a la que pertenecen los vehículos.
+     * @param destino Destino de los elementos generados.
+     *
+     * @throws IllegalStateException Si hay más estaciones que celdas o algún
+     *         reparto de pesos está vacío.
+     */
+    @Override
+    public void generar(EVCompany compania, ScenarioSink destino) {
+        if (compania == null || destino == null) {
+            throw new NullPointerException("La compañía y el destino no pueden ser nulos.");
+        }
+        int celdas = ancho * alto;
+        if (numEstaciones > celdas) {
+            throw new IllegalStateException("No caben " + numEstaciones + " estaciones en " + celdas + " celdas.");
+        }
+        int totalTipos = total(pesosTipos);
+        int totalCargadores = total(pesosCargadores);
+        if ((numVehiculos > 0 && totalTipos == 0) || (numEstaciones > 0 && totalCargadores == 0)) {
+            throw new IllegalStateException("El reparto de tipos no puede estar vacío.");
+        }
+
+        // Flujos independientes: cambiar la flota no altera la red de estaciones.
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        SplittableRandom aleatorioRed = raiz.split();
+        SplittableRandom aleatorioFlota = raiz.split();
+
+        generarEstaciones(aleatorioRed, totalCargadores, destino);
+        generarVehiculos(aleatorioFlota, totalTipos, compania, destino);
+    }
+
+    @Override
+    public String toString() {
+        return "GEN/" + numVehiculos + "ev/" + numEstaciones + "est/s" + semilla;
+    }
+
+    // --- Métodos internos ---
+
+    private void generarEstaciones(SplittableRandom aleatorio, int totalCargadores, ScenarioSink destino) {
+        ChargerFactory.ChargerType[] tipos = ChargerFactory.ChargerType.values();
+        int digitos = Integer.toString(Math.max(0, numEstaciones - 1)).length();
+        // Celdas ocupadas, para no repetir la ubicación de dos estaciones.
+        BitSet ocupadas = new BitSet();
+
+        for (int i = 0; i < numEstaciones; i++) {
+            int celda;
+            do {
+                celda = aleatorio.nextInt(ancho * alto);
+            } while (ocupadas.get(celda));
+            ocupadas.set(celda);
+
+            String id = String.format("ES%0" + digitos + "d", i);
+            ChargingStation estacion = new ChargingStation("Caceres", id, new Location(1 + celda % ancho, 1 + celda / ancho));
+            destino.estacion(estacion);
+
+            int numCargadores = entre(aleatorio, minCargadores, maxCargadores);
+            for (int j = 0; j < numCargadores; j++) {
+                ChargerFactory.ChargerType tipo = tipos[elegir(aleatorio, pesosCargadores, totalCargadores)];
+                int velocidad = entre(aleatorio, minVelocidad, maxVelocidad);
+                int centimos = entre(aleatorio, Math.round(minTarifa * 100), Math.round(maxTarifa * 100));
+                Charger cargador = ChargerFactory.createCharger(tipo, id + "_" + j, velocidad, centimos / 100f);
+                destino.cargador(estacion, cargador);
+            }
+        }
+    }
+
+    private void generarVehiculos(SplittableRandom aleatorio, int totalTipos, EVCompany compania, ScenarioSink destino) {
+        VehicleTier[] tipos = VehicleTier.values();
+        int digitos = Integer.toString(Math.max(0, primerVehiculo + numVehiculos - 1)).length();
+
+        for (int i = primerVehiculo; i < primerVehiculo + numVehiculos; i++) {
+            VehicleTier tipo = tipos[elegir(aleatorio, pesosTipos, totalTipos)];
+            Location origen = new Location(entre(aleatorio, 1, ancho), entre(aleatorio, 1, alto));
+            Location destinoFinal;
+            do {
+                destinoFinal = new Location(entre(aleatorio, 1, ancho), entre(aleatorio, 1, alto));
+            } while (destinoFinal.equals(origen) && ancho * alto > 1);
+            int capacidad = entre(aleatorio, minCapacidad, maxCapacidad);
+
+            String matricula = String.format("%0" + digitos + "dGEN", i);
+            destino.vehiculo(VehicleFactory.createVehicle(tipo, compania, origen, destinoFinal,
+                                                          "EV" + i, matricula, capacidad));
+        }
+    }
+
+    /** Entero uniforme en [min, max]. */
+    private static int entre(SplittableRandom aleatorio, int min, int max) {
+        return min + aleatorio.nextInt(max - min + 1);
+    }
+
+    /** Índice elegido al azar en proporción a su peso. */
+    private static int elegir(SplittableRandom aleatorio, int[] pesos, int total) {
+        int r = aleatorio.nextInt(total);
+        int i = 0;
+        while (r >= pesos[i]) {
+            r -= pesos[i];
+            i++;
+        }
+        return i;
+    }
+
+    private static int total(int[] pesos) {
+        int total = 0;
+        for (int peso : pesos) {
+            total += peso;
+        }
+        return total;
+    }
+
+    private static void comprobarRango(int min, int max, int minimo) {
+        if (min < minimo || max < min) {
+            throw new IllegalArgumentException("Rango no válido: " + min + " - " + max);
+        }
+    }
+}
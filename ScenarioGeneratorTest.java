@@ -0,0 +1,112 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para ScenarioGenerator.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioGeneratorTest {
+
+    /**
+     * Con la misma semilla se genera exactamente el mismo escenario.
+     */
+    @Test
+    public void testMismaSemillaMismoEscenario() {
+        ScenarioGenerator generador = new ScenarioGenerator(500, 40, 11L);
+
+        EVCompany c1 = EVCompany.newInstance();
+        EVCompany c2 = EVCompany.newInstance();
+        generador.generar(c1, ScenarioSink.de(c1));
+        generador.generar(c2, ScenarioSink.de(c2));
+
+        assertEquals(500, c1.getVehicles().size());
+        assertEquals(40, c1.getNumberOfStations());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(c1.getVehicles().get(i).toString(), c2.getVehicles().get(i).toString());
+        }
+        for (int i = 0; i < 40; i++) {
+            assertEquals(c1.getCityStations().get(i).getCompleteInfo(), c2.getCityStations().get(i).getCompleteInfo());
+        }
+    }
+
+    /**
+     * Se respetan los repartos y rangos configurados y no se repiten ubicaciones de estaciones.
+     */
+    @Test
+    public void testRepartosYRangos() {
+        ScenarioGenerator generador = new ScenarioGenerator(300, 100, 3L);
+        generador.setTamanoCiudad(10, 10);
+        generador.setCargadoresPorEstacion(2, 2);
+        generador.setPesoTipo(VehicleTier.PRIORITY, 0);
+        generador.setPesoTipo(VehicleTier.VTC, 0);
+        generador.setPesoTipo(VehicleTier.PREMIUM, 0);
+        generador.setPesoCargador(ChargerFactory.ChargerType.SOLAR, 0);
+
+        EVCompany compania = EVCompany.newInstance();
+        generador.generar(compania, ScenarioSink.de(compania));
+
+        for (ElectricVehicle vehiculo : compania.getVehicles()) {
+            assertEquals(VehicleTier.STANDARD, vehiculo.getTipo());
+        }
+        Set<Location> ubicaciones = new HashSet<>();
+        for (ChargingStation estacion : compania.getCityStations()) {
+            assertTrue(ubicaciones.add(estacion.getLocation()));
+            assertEquals(2, estacion.getNumChargers());
+            for (Charger cargador : estacion.getChargers()) {
+                assertFalse(cargador instanceof SolarCharger);
+            }
+        }
+    }
+
+    /**
+     * La flota de la demo más allá de su tabla fija sale del generador, numerada
+     * a continuación de la tabla.
+     */
+    @Test
+    public void testFlotaAmpliadaDeLaDemo() {
+        EVCompany demo = EVCompany.newInstance();
+        demo.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        new EVDemo(demo, DemoType.ADVANCED, 25, 7L);
+
+        ScenarioGenerator generador = new ScenarioGenerator(15, 0, 7L);
+        generador.setPrimerVehiculo(10);
+        EVCompany generada = EVCompany.newInstance();
+        generador.generar(generada, ScenarioSink.de(generada));
+
+        Set<String> matriculas = new HashSet<>();
+        Set<String> esperadas = new HashSet<>();
+        for (ElectricVehicle vehiculo : demo.getVehicles()) {
+            assertTrue(matriculas.add(vehiculo.getMatricula()));
+        }
+        for (ElectricVehicle vehiculo : generada.getVehicles()) {
+            esperadas.add(resumen(vehiculo));
+        }
+        assertEquals(25, matriculas.size());
+        assertEquals("10GEN", generada.getVehicles().get(0).getMatricula());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(matriculas.contains(i + "CCC"));
+        }
+        for (ElectricVehicle vehiculo : demo.getVehicles()) {
+            if (vehiculo.getMatricula().endsWith("GEN")) {
+                assertTrue(esperadas.remove(resumen(vehiculo)));
+            }
+        }
+        assertTrue(esperadas.isEmpty());
+    }
+
+    // --- Métodos auxiliares ---
+
+    /** Lo que decide el generador de un vehículo (la demo le calcula además la ruta). */
+    private static String resumen(ElectricVehicle vehiculo) {
+        return vehiculo.getTipo() + " " + vehiculo.getNombre() + " " + vehiculo.getMatricula() + " "
+            + vehiculo.getLocalizacionInicial() + " " + vehiculo.getTargetLocation() + " "
+            + vehiculo.getCapacidadBateria();
+    }
+}
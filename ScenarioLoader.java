@@ -0,0 +1,483 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Carga un escenario (estaciones, cargadores y flota) desde ficheros CSV.
+ * <p>
+ * Formato (la primera línea de cada fichero es la cabecera y se ignora; las líneas
+ * vacías o que empiezan por {@code #} también; los campos van separados por comas,
+ * sin comillas):
+ * </p>
+ * <ul>
+ * <li><b>Estaciones:</b> {@code id,ciudad,x,y}</li>
+ * <li><b>Cargadores:</b> {@code estacion,tipo,id,velocidad,tarifa}, con el tipo de
+ * {@link ChargerFactory.ChargerType}.</li>
+ * <li><b>Vehículos:</b> {@code tipo,matricula,origenX,origenY,destinoX,destinoY,capacidad[,nombre]},
+ * con el tipo de {@link VehicleTier}.</li>
+ * </ul>
+ * <p>
+ * Cada fichero se proyecta en memoria por trozos (NIO) cortados en finales de
+ * línea; los trozos se analizan en paralelo y los objetos se crean con
+ * {@link VehicleFactory} y {@link ChargerFactory}. Después se entregan al
+ * {@link ScenarioSink} en el hilo que llama y en el orden del fichero, así que el
+ * resultado no depende del número de hilos. Como mucho hay {@code 2 × numHilos}
+ * trozos en análisis o esperando a entregarse, así que la memoria usada no crece
+ * con el tamaño del fichero.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioLoader implements ScenarioSource {
+    // --- Constantes ---
+    private static final long TAMANO_TROZO = 8L << 20;
+    private static final int TAMANO_BUSQUEDA = 8 * 1024;
+
+    // --- Atributos ---
+    private final Path ficheroEstaciones;
+    private final Path ficheroCargadores;
+    private final Path ficheroVehiculos;
+    private int numHilos;
+    private long tamanoTrozo;
+
+    // --- Constructor ---
+
+    /**
+     * @param ficheroEstaciones CSV de estaciones.
+     * @param ficheroCargadores CSV de cargadores.
+     * @param ficheroVehiculos CSV de vehículos.
+     * @throws NullPointerException Si algún fichero es nulo.
+     */
+    public ScenarioLoader(Path ficheroEstaciones, Path ficheroCargadores, Path ficheroVehiculos) {
+        if (ficheroEstaciones == null || ficheroCargadores == null || ficheroVehiculos == null) {
+            throw new NullPointerException("Los ficheros del escenario no pueden ser nulos.");
+        }
+        this.ficheroEstaciones = ficheroEstaciones;
+        this.ficheroCargadores = ficheroCargadores;
+        this.ficheroVehiculos = ficheroVehiculos;
+        this.numHilos = Runtime.getRuntime().availableProcessors();
+        this.tamanoTrozo = TAMANO_TROZO;
+    }
+
+    // --- Configuración ---
+
+    public void setNumHilos(int numHilos) {
+        if (numHilos <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + numHilos);
+        }
+        this.numHilos = numHilos;
+    }
+
+    /**
+     * Tamaño aproximado (en bytes) de los trozos que se analizan en paralelo.
+     */
+    public void setTamanoTrozo(long tamanoTrozo) {
+        if (tamanoTrozo <= 0 || tamanoTrozo > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Tamaño de trozo no válido: " + tamanoTrozo);
+        }
+        this.tamanoTrozo = tamanoTrozo;
+    }
+
+    // --- Carga ---
+
+    /**
+     * Igual que {@link #cargar}, envolviendo los errores de lectura en
+     * {@link UncheckedIOException}.
+     */
+    @Override
+    public void generar(EVCompany compania, ScenarioSink destino) {
+        try {
+            cargar(compania, destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Carga las estaciones, después los cargadores y por último los vehículos,
+     * entregándolos al destino en el orden de los ficheros.
+     *
+     * @param compania Compañía a la que pertenecen los vehículos.
+     * @param destino Destino de los elementos cargados.
+     *
+     * @throws IOException Si no se puede leer algún fichero.
+     * @throws IllegalArgumentException Si alguna línea está mal formada, un ID de
+     *         estación se repite o un cargador apunta a una estación inexistente.
+     */
+    public void cargar(EVCompany compania, ScenarioSink destino) throws IOException {
+        if (compania == null || destino == null) {
+            throw new NullPointerException("La compañía y el destino no pueden ser nulos.");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(numHilos);
+        try {
+            // Índice de estaciones por ID para enlazar los cargadores.
+            Map<String, ChargingStation> estaciones = new HashMap<>();
+
+            leer(ficheroEstaciones, pool, ScenarioLoader::parsearEstacion, (estacion, byteFila) -> {
+                if (estaciones.putIfAbsent(estacion.getId(), estacion) != null) {
+                    throw new IllegalArgumentException(ficheroEstaciones + ": estación repetida en el byte "
+                        + byteFila + ": " + estacion.getId());
+                }
+                destino.estacion(estacion);
+            });
+
+            leer(ficheroCargadores, pool, ScenarioLoader::parsearCargador, (fila, byteFila) -> {
+                ChargingStation estacion = estaciones.get(fila.idEstacion);
+                if (estacion == null) {
+                    throw new IllegalArgumentException(ficheroCargadores + ": estación desconocida en el byte "
+                        + byteFila + ": " + fila.idEstacion + " para el cargador " + fila.cargador.getId());
+                }
+                destino.cargador(estacion, fila.cargador);
+            });
+
+            leer(ficheroVehiculos, pool, linea -> parsearVehiculo(linea, compania),
+                 (vehiculo, byteFila) -> destino.vehiculo(vehiculo));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CSV/" + ficheroVehiculos.getFileName();
+    }
+
+    // --- Lectura por trozos ---
+
+    /**
+     * Lee un fichero por trozos en paralelo y entrega los objetos en orden.
+     * Se mantienen como mucho {@code 2 × numHilos} trozos pendientes: cada vez que
+     * se recoge uno se envía el siguiente.
+     *
+     * @return Número de filas leídas.
+     */
+    private <T> int leer(Path fichero, ExecutorService pool, Parser<T> parser, Entrega<T> entrega) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            List<Long> limites = calcularLimites(canal);
+            int numTrozos = limites.size() - 1;
+            int maxPendientes = 2 * numHilos;
+
+            ArrayDeque<Future<Trozo<T>>> pendientes = new ArrayDeque<>(Math.min(numTrozos, maxPendientes));
+            int siguiente = 0;
+            while (siguiente < numTrozos && pendientes.size() < maxPendientes) {
+                pendientes.add(enviar(fichero, canal, limites, siguiente++, pool, parser));
+            }
+
+            int filas = 0;
+            while (!pendientes.isEmpty()) {
+                Trozo<T> trozo = esperar(pendientes.poll());
+                if (siguiente < numTrozos) {
+                    pendientes.add(enviar(fichero, canal, limites, siguiente++, pool, parser));
+                }
+                for (int i = 0; i < trozo.objetos.size(); i++) {
+                    entrega.entregar(trozo.objetos.get(i), trozo.posiciones[i]);
+                }
+                filas += trozo.objetos.size();
+            }
+            return filas;
+        }
+    }
+
+    /**
+     * Envía al pool el análisis del trozo i-ésimo.
+     */
+    private static <T> Future<Trozo<T>> enviar(Path fichero, FileChannel canal, List<Long> limites, int i,
+                                               ExecutorService pool, Parser<T> parser) {
+        long inicio = limites.get(i);
+        long fin = limites.get(i + 1);
+        boolean cabecera = (i == 0);
+        Callable<Trozo<T>> tarea = () -> parsearTrozo(fichero, canal, inicio, fin, cabecera, parser);
+        return pool.submit(tarea);
+    }
+
+    /**
+     * Divide el fichero en trozos de unos {@code tamanoTrozo} bytes que empiezan
+     * siempre al principio de una línea.
+     */
+    private List<Long> calcularLimites(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        List<Long> limites = new ArrayList<>();
+        limites.add(0L);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUSQUEDA);
+        long posicion = tamanoTrozo;
+        while (posicion < tamano) {
+            // Avanzamos hasta el siguiente salto de línea.
+            long limite = -1;
+            long cursor = posicion;
+            while (limite < 0 && cursor < tamano) {
+                buffer.clear();
+                int leidos = canal.read(buffer, cursor);
+                if (leidos <= 0) {
+                    break;
+                }
+                for (int i = 0; i < leidos; i++) {
+                    if (buffer.get(i) == '\n') {
+                        limite = cursor + i + 1;
+                        break;
+                    }
+                }
+                cursor += leidos;
+            }
+            if (limite < 0 || limite >= tamano) {
+                break;
+            }
+            limites.add(limite);
+            posicion = Math.max(limite, posicion + tamanoTrozo);
+        }
+
+        limites.add(tamano);
+        return limites;
+    }
+
+    /**
+     * Analiza las líneas de un trozo. Se ejecuta en los hilos del pool.
+     */
+    private static <T> Trozo<T> parsearTrozo(Path fichero, FileChannel canal, long inicio, long fin,
+                                             boolean saltarCabecera, Parser<T> parser) throws IOException {
+        Trozo<T> trozo = new Trozo<>();
+        if (fin <= inicio) {
+            return trozo;
+        }
+
+        MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+        Linea linea = new Linea(datos);
+        int limite = datos.limit();
+        int desde = 0;
+        boolean saltar = saltarCabecera;
+
+        while (desde < limite) {
+            int hasta = desde;
+            while (hasta < limite && datos.get(hasta) != '\n') {
+                hasta++;
+            }
+            int finLinea = (hasta > desde && datos.get(hasta - 1) == '\r') ? hasta - 1 : hasta;
+
+            if (saltar) {
+                saltar = false;
+            } else if (finLinea > desde && datos.get(desde) != '#') {
+                linea.partir(desde, finLinea);
+                try {
+                    trozo.anadir(parser.parsear(linea), inicio + desde);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(fichero + ": línea mal formada en el byte "
+                        + (inicio + desde) + ": " + linea.texto(), e);
+                }
+            }
+            desde = hasta + 1;
+        }
+        return trozo;
+    }
+
+    private static <T> T esperar(Future<T> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga interrumpida.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IllegalStateException("Fallo al cargar el escenario.", causa);
+        }
+    }
+
+    // --- Interpretación de filas ---
+
+    private static ChargingStation parsearEstacion(Linea linea) {
+        linea.comprobarCampos(4, 4);
+        return new ChargingStation(linea.texto(1), linea.texto(0), new Location(linea.entero(2), linea.entero(3)));
+    }
+
+    private static FilaCargador parsearCargador(Linea linea) {
+        linea.comprobarCampos(5, 5);
+        ChargerFactory.ChargerType tipo = ChargerFactory.ChargerType.valueOf(linea.texto(1).toUpperCase());
+        Charger cargador = ChargerFactory.createCharger(tipo, linea.texto(2), linea.entero(3),
+                                                        Float.parseFloat(linea.texto(4)));
+        return new FilaCargador(linea.texto(0), cargador);
+    }
+
+    private static ElectricVehicle parsearVehiculo(Linea linea, EVCompany compania) {
+        linea.comprobarCampos(7, 8);
+        VehicleTier tipo = VehicleTier.valueOf(linea.texto(0).toUpperCase());
+        String matricula = linea.texto(1);
+        String nombre = (linea.numCampos() == 8) ? linea.texto(7) : matricula;
+        return VehicleFactory.createVehicle(tipo, compania,
+            new Location(linea.entero(2), linea.entero(3)),
+            new Location(linea.entero(4), linea.entero(5)),
+            nombre, matricula, linea.entero(6));
+    }
+
+    // --- Clases internas ---
+
+    /**
+     * Convierte una línea ya partida en campos en un objeto.
+     */
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parsear(Linea linea);
+    }
+
+    /**
+     * Recibe en orden cada objeto leído y el byte donde empieza su fila.
+     */
+    @FunctionalInterface
+    private interface Entrega<T> {
+        void entregar(T objeto, long byteFila);
+    }
+
+    /**
+     * Objetos analizados de un trozo, con el byte del fichero donde empieza la
+     * fila de cada uno (para los mensajes de error al entregarlos).
+     */
+    private static class Trozo<T> {
+        private final List<T> objetos = new ArrayList<>();
+        private long[] posiciones = new long[16];
+
+        void anadir(T objeto, long posicion) {
+            int n = objetos.size();
+            if (n == posiciones.length) {
+                posiciones = Arrays.copyOf(posiciones, n * 2);
+            }
+            posiciones[n] = posicion;
+            objetos.add(objeto);
+        }
+    }
+
+    /**
+     * Cargador leído junto con el ID de su estación.
+     */
+    private static class FilaCargador {
+        private final String idEstacion;
+        private final Charger cargador;
+
+        FilaCargador(String idEstacion, Charger cargador) {
+            this.idEstacion = idEstacion;
+            this.cargador = cargador;
+        }
+    }
+
+    /**
+     * Línea de un trozo proyectado, partida en campos sin copiar los bytes.
+     * Se reutiliza para todas las líneas del trozo.
+     */
+    private static class Linea {
+        private final MappedByteBuffer datos;
+        private int[] inicios = new int[8];
+        private int[] fines = new int[8];
+        private int numCampos;
+        private int desde;
+        private int hasta;
+
+        Linea(MappedByteBuffer datos) {
+            this.datos = datos;
+        }
+
+        void partir(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+            numCampos = 0;
+            int inicio = desde;
+            for (int i = desde; i <= hasta; i++) {
+                if (i == hasta || datos.get(i) == ',') {
+                    if (numCampos == inicios.length) {
+                        inicios = Arrays.copyOf(inicios, numCampos * 2);
+                        fines = Arrays.copyOf(fines, numCampos * 2);
+                    }
+                    // Recortamos espacios alrededor del campo.
+                    int a = inicio;
+                    int b = i;
+                    while (a < b && datos.get(a) == ' ') {
+                        a++;
+                    }
+                    while (b > a && datos.get(b - 1) == ' ') {
+                        b--;
+                    }
+                    inicios[numCampos] = a;
+                    fines[numCampos] = b;
+                    numCampos++;
+                    inicio = i + 1;
+                }
+            }
+        }
+
+        int numCampos() {
+            return numCampos;
+        }
+
+        void comprobarCampos(int min, int max) {
+            if (numCampos < min || numCampos > max) {
+                throw new IllegalArgumentException("Se esperaban " + min
+                    + (min == max ? "" : "-" + max) + " campos y hay " + numCampos);
+            }
+        }
+
+        String texto(int campo) {
+            return decodificar(inicios[campo], fines[campo]);
+        }
+
+        /** Texto completo de la línea (para los mensajes de error). */
+        String texto() {
+            return decodificar(desde, hasta);
+        }
+
+        int entero(int campo) {
+            int i = inicios[campo];
+            int fin = fines[campo];
+            boolean negativo = (i < fin && datos.get(i) == '-');
+            if (negativo) {
+                i++;
+            }
+            if (i == fin) {
+                throw new NumberFormatException("Campo " + campo + " vacío");
+            }
+            long valor = 0;
+            for (; i < fin; i++) {
+                int digito = datos.get(i) - '0';
+                if (digito < 0 || digito > 9) {
+                    throw new NumberFormatException("Campo " + campo + " no es un entero: " + texto(campo));
+                }
+                valor = valor * 10 + digito;
+                if (valor > Integer.MAX_VALUE + 1L) {
+                    throw new NumberFormatException("Campo " + campo + " fuera de rango: " + texto(campo));
+                }
+            }
+            valor = negativo ? -valor : valor;
+            if (valor > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Campo " + campo + " fuera de rango: " + texto(campo));
+            }
+            return (int) valor;
+        }
+
+        private String decodificar(int a, int b) {
+            byte[] bytes = new byte[b - a];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = datos.get(a + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
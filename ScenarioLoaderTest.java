@@ -0,0 +1,125 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para ScenarioLoader.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioLoaderTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    private Path estaciones;
+    private Path cargadores;
+    private Path vehiculos;
+
+    @Before
+    public void setUp() throws IOException {
+        estaciones = escribir("estaciones.csv",
+            "id,ciudad,x,y\n"
+            + "CC00,Cáceres,5,5\r\n"
+            + "# comentario\n"
+            + "\n"
+            + "CC01, Caceres , 15 , 15\n");
+        cargadores = escribir("cargadores.csv",
+            "estacion,tipo,id,velocidad,tarifa\n"
+            + "CC01,ultrafast,CC01_000,80,0.4\n"
+            + "CC00,STANDARD,CC00_000,20,0.2\n"
+            + "CC00,SOLAR,CC00_001,40,0.6\n");
+
+        StringBuilder sb = new StringBuilder("tipo,matricula,origenX,origenY,destinoX,destinoY,capacidad,nombre\n");
+        for (int i = 0; i < 1000; i++) {
+            String tipo = VehicleTier.values()[i % 4].name();
+            sb.append(tipo).append(',').append(String.format("%04dCSV", i)).append(",1,1,20,20,")
+              .append(20 + i % 80);
+            if (i % 2 == 0) {
+                sb.append(",EV").append(i);
+            }
+            sb.append('\n');
+        }
+        vehiculos = escribir("vehiculos.csv", sb.toString());
+    }
+
+    /**
+     * Con trozos pequeños (muchos en paralelo) se carga todo y en el orden del fichero.
+     */
+    @Test
+    public void testCargaEnOrdenConTrozosPequenos() throws IOException {
+        ScenarioLoader cargador = new ScenarioLoader(estaciones, cargadores, vehiculos);
+        cargador.setTamanoTrozo(64);
+        cargador.setNumHilos(4);
+
+        EVCompany compania = EVCompany.newInstance();
+        cargador.cargar(compania, ScenarioSink.de(compania));
+
+        assertEquals(2, compania.getNumberOfStations());
+        assertEquals(new Location(15, 15), compania.getChargingStation("CC01").getLocation());
+        assertEquals(2, compania.getChargingStation("CC00").getNumChargers());
+        assertTrue(compania.getChargingStation("CC01").getChargers().get(0) instanceof UltraFastCharger);
+
+        assertEquals(1000, compania.getVehicles().size());
+        for (int i = 0; i < 1000; i++) {
+            ElectricVehicle vehiculo = compania.getVehicles().get(i);
+            assertEquals(String.format("%04dCSV", i), vehiculo.getMatricula());
+            assertEquals(VehicleTier.values()[i % 4], vehiculo.getTipo());
+        }
+    }
+
+    /**
+     * Un cargador de una estación que no existe se rechaza indicando cuál es.
+     */
+    @Test
+    public void testEstacionDesconocida() throws IOException {
+        Path malos = escribir("malos.csv", "estacion,tipo,id,velocidad,tarifa\nCC09,STANDARD,X,20,0.2\n");
+        ScenarioLoader cargador = new ScenarioLoader(estaciones, malos, vehiculos);
+
+        EVCompany compania = EVCompany.newInstance();
+        try {
+            cargador.cargar(compania, ScenarioSink.de(compania));
+            fail("Debería rechazar el cargador");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("CC09"));
+            // La fila empieza tras la cabecera (34 bytes).
+            assertTrue(e.getMessage().contains("en el byte 34:"));
+        }
+    }
+
+    /**
+     * Una estación repetida se rechaza indicando el byte de la fila repetida,
+     * también cuando cae en otro trozo.
+     */
+    @Test
+    public void testEstacionRepetida() throws IOException {
+        String cabecera = "id,ciudad,x,y\n";
+        String primera = "CC00,Caceres,5,5\n";
+        Path repetidas = escribir("repetidas.csv", cabecera + primera + "CC01,Caceres,6,6\n" + "CC00,Caceres,7,7\n");
+        ScenarioLoader cargador = new ScenarioLoader(repetidas, cargadores, vehiculos);
+        cargador.setTamanoTrozo(16);
+        cargador.setNumHilos(1);
+
+        EVCompany compania = EVCompany.newInstance();
+        try {
+            cargador.cargar(compania, ScenarioSink.de(compania));
+            fail("Debería rechazar la estación repetida");
+        } catch (IllegalArgumentException e) {
+            long byteFila = cabecera.length() + 2 * primera.length();
+            assertTrue(e.getMessage(), e.getMessage().contains("estación repetida en el byte " + byteFila + ": CC00"));
+        }
+    }
+
+    private Path escribir(String nombre, String contenido) throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve(nombre);
+        Files.write(fichero, contenido.getBytes(StandardCharsets.UTF_8));
+        return fichero;
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.List;
+
+/**
+ * Resumen del estado final de un escenario ejecutado por lotes.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class ScenarioResult {
+    // --- Atributos ---
+    private final Scenario escenario;
+    private final int llegados;
+    private final int sinLlegar;
+    private final int varados;
+    private final double pasoMedioLlegada;
+    private final int ultimoPasoLlegada;
+    private final int recargas;
+    private final long recaudacionMicros;
+    private final long duracionNanos;
+
+    // --- Constructor ---
+    private ScenarioResult(Scenario escenario, int llegados, int sinLlegar, int varados,
+                           double pasoMedioLlegada, int ultimoPasoLlegada, int recargas,
+                           long recaudacionMicros, long duracionNanos) {
+        this.escenario = escenario;
+        this.llegados = llegados;
+        this.sinLlegar = sinLlegar;
+        this.varados = varados;
+        this.pasoMedioLlegada = pasoMedioLlegada;
+        this.ultimoPasoLlegada = ultimoPasoLlegada;
+        this.recargas = recargas;
+        this.recaudacionMicros = recaudacionMicros;
+        this.duracionNanos = duracionNanos;
+    }
+
+    /**
+     * Construye el resumen a partir de una simulación ya terminada.
+     *
+     * @param escenario El escenario ejecutado.
+     * @param demo La simulación, en su estado final.
+     * @param duracionNanos Tiempo de ejecución del escenario.
+     * @return El resumen.
+     */
+    public static ScenarioResult de(Scenario escenario, EVDemo demo, long duracionNanos) {
+        int llegados = 0;
+        int ultimo = -1;
+        long sumaPasos = 0;
+        int recargas = 0;
+
+        List<ElectricVehicle> vehiculos = demo.getVehicles();
+        for (ElectricVehicle vehiculo : vehiculos) {
+            int paso = vehiculo.getArrivingStep();
+            if (paso >= 0) {
+                llegados++;
+                sumaPasos += paso;
+                ultimo = Math.max(ultimo, paso);
+            }
+            recargas += vehiculo.getChargesCount();
+        }
+
+        long recaudacion = 0;
+        for (ChargingStation estacion : demo.getStations()) {
+            for (Charger cargador : estacion.getChargers()) {
+                recaudacion += cargador.getRecaudadoMicros();
+            }
+        }
+
+        double media = (llegados == 0) ? Double.NaN : (double) sumaPasos / llegados;
+        int varados = demo.getCompany().getNumVehiculosSinEstacion();
+        return new ScenarioResult(escenario, llegados, vehiculos.size() - llegados, varados,
+                                  media, ultimo, recargas, recaudacion, duracionNanos);
+    }
+
+    // --- Getters ---
+
+    public Scenario getEscenario() {
+        return escenario;
+    }
+
+    /** Vehículos que han llegado a su destino final. */
+    public int getLlegados() {
+        return llegados;
+    }
+
+    /**
+     * Vehículos que no han llegado a su destino al terminar la simulación:
+     * los varados y los que aún circulan, esperan o recargan.
+     */
+    public int getSinLlegar() {
+        return sinLlegar;
+    }
+
+    /**
+     * Vehículos varados al terminar la simulación: necesitan recargar y no
+     * alcanzan ninguna estación (ver {@link EVCompany#getNumVehiculosSinEstacion}).
+     */
+    public int getVarados() {
+        return varados;
+    }
+
+    /** Paso medio de llegada de los vehículos que llegaron (NaN si ninguno). */
+    public double getPasoMedioLlegada() {
+        return pasoMedioLlegada;
+    }
+
+    /** Paso de llegada del último vehículo (-1 si ninguno). */
+    public int getUltimoPasoLlegada() {
+        return ultimoPasoLlegada;
+    }
+
+    public int getRecargas() {
+        return recargas;
+    }
+
+    public long getRecaudacionMicros() {
+        return recaudacionMicros;
+    }
+
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    /**
+     * Fila de la tabla de resultados (ver {@link ScenarioBatchRunner#tabla}).
+     */
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.US, "%-28s %8d %9d %8d %10.2f %8d %9d %12s %9.1f",
+            escenario.getNombre(), llegados, sinLlegar, varados, pasoMedioLlegada, ultimoPasoLlegada,
+            recargas, Money.formatear(recaudacionMicros), duracionNanos / 1e6);
+    }
+}
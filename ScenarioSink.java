@@ -0,0 +1,56 @@
+/**
+ * Destino de los elementos de un escenario a medida que se crean.
+ * <p>
+ * Los generadores y cargadores de escenarios entregan cada estación, cargador y
+ * vehículo en cuanto lo crean, sin acumularlos antes en colecciones propias.
+ * Las estaciones siempre se entregan antes que sus cargadores.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public interface ScenarioSink {
+
+    /**
+     * Recibe una estación nueva (todavía sin cargadores).
+     */
+    void estacion(ChargingStation estacion);
+
+    /**
+     * Recibe un cargador nuevo de una estación ya entregada.
+     */
+    void cargador(ChargingStation estacion, Charger cargador);
+
+    /**
+     * Recibe un vehículo nuevo.
+     */
+    void vehiculo(ElectricVehicle vehiculo);
+
+    /**
+     * Destino que da de alta todo directamente en la compañía.
+     *
+     * @param compania La compañía que recibe los elementos.
+     * @return El destino.
+     */
+    static ScenarioSink de(EVCompany compania) {
+        if (compania == null) {
+            throw new NullPointerException("La compañía no puede ser nula.");
+        }
+        return new ScenarioSink() {
+            @Override
+            public void estacion(ChargingStation estacion) {
+                compania.addChargingStation(estacion);
+            }
+
+            @Override
+            public void cargador(ChargingStation estacion, Charger cargador) {
+                estacion.addCharger(cargador);
+            }
+
+            @Override
+            public void vehiculo(ElectricVehicle vehiculo) {
+                compania.addElectricVehicle(vehiculo);
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Origen de un escenario: crea sus estaciones, cargadores y vehículos y los
+ * entrega a un {@link ScenarioSink}.
+ * <p>
+ * Lo implementan el generador sintético ({@link ScenarioGenerator}) y el cargador
+ * de ficheros CSV ({@link ScenarioLoader}), y lo aceptan {@link EVDemo} y
+ * {@link Scenario} en lugar de las tablas fijas de la demo.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public interface ScenarioSource {
+
+    /**
+     * Crea el escenario y entrega cada estación (seguida de sus cargadores) y
+     * cada vehículo al destino.
+     *
+     * @param compania Compañía a la que pertenecen los vehículos.
+     * @param destino Destino de los elementos creados.
+     */
+    void generar(EVCompany compania, ScenarioSink destino);
+}
@@ -0,0 +1,162 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eventos de Java Flight Recorder de la simulación.
+ * <p>
+ * Permiten perfilar una ejecución real con las herramientas estándar del JDK
+ * (p. ej. {@code java -XX:StartFlightRecording=filename=ev.jfr ...} y después
+ * JDK Mission Control o {@code jfr print --events evcharging.Route ev.jfr}).
+ * Todos llevan la duración de la operación (inicio y fin del evento).
+ * </p>
+ * <p>
+ * Se usan así en el camino crítico:
+ * </p>
+ * <pre>
+ *     SimulationEvents.Route evento = new SimulationEvents.Route();
+ *     evento.begin();
+ *     ... operación ...
+ *     if (evento.shouldCommit()) {
+ *         evento.vehicleTier = ...;
+ *         evento.commit();
+ *     }
+ * </pre>
+ * <p>
+ * Sin una grabación activa {@code shouldCommit()} es false, el JIT elimina la
+ * reserva del evento y los campos no se rellenan, así que no cuestan nada.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public final class SimulationEvents {
+    /** Categoría de todos los eventos de la simulación. */
+    static final String CATEGORIA = "EV Charging";
+
+    private SimulationEvents() {
+        // Solo agrupa las clases de los eventos.
+    }
+
+    /**
+     * Una recarga en un cargador ({@link Charger#rechargeMicros}), aceptada o
+     * rechazada por incompatible.
+     */
+    @Name("evcharging.Recharge")
+    @Label("Recharge")
+    @Category(CATEGORIA)
+    @Description("Recarga de un vehículo en un cargador")
+    public static final class Recharge extends Event {
+        @Label("Vehicle Tier")
+        public String vehicleTier;
+
+        @Label("Vehicle")
+        public String vehicle;
+
+        @Label("Station")
+        public String station;
+
+        @Label("Charger")
+        public String charger;
+
+        @Label("Charger Type")
+        public String chargerType;
+
+        @Label("kWh")
+        public int kwh;
+
+        @Label("Cost (micro-euros)")
+        @Description("Coste de la recarga, o -1 si el cargador no es compatible")
+        public long costMicros;
+
+        @Label("Accepted")
+        public boolean accepted;
+    }
+
+    /**
+     * Un cálculo de ruta ({@link ElectricVehicle#calculateRoute}).
+     */
+    @Name("evcharging.Route")
+    @Label("Route")
+    @Category(CATEGORIA)
+    @Description("Cálculo de la ruta de un vehículo")
+    public static final class Route extends Event {
+        @Label("Vehicle Tier")
+        public String vehicleTier;
+
+        @Label("Vehicle")
+        public String vehicle;
+
+        @Label("Station")
+        @Description("Estación de recarga elegida; vacío si no necesita recargar o no hay ninguna")
+        public String station;
+
+        @Label("Stranded")
+        @Description("Necesita recargar pero no alcanza ninguna estación")
+        public boolean stranded;
+    }
+
+    /**
+     * Una llegada a estación ({@link ElectricVehicle#recharge}), con su resultado.
+     */
+    @Name("evcharging.ChargeAttempt")
+    @Label("Charge Attempt")
+    @Category(CATEGORIA)
+    @Description("Intento de recarga de un vehículo al llegar a una estación")
+    public static final class ChargeAttempt extends Event {
+        /** Ha obtenido un cargador compatible (libre o desde la cola). */
+        public static final String CARGADOR = "CHARGER";
+        /** Ha tomado el primer cargador libre, pero no era compatible y lo ha rechazado. */
+        public static final String RECHAZADO = "REJECTED";
+        /** Todos los cargadores compatibles estaban ocupados: queda en la cola. */
+        public static final String EN_COLA = "QUEUED";
+        /** La estación no tiene ningún cargador compatible libre ni ocupado. */
+        public static final String SIN_CARGADOR = "NO_CHARGER";
+        /** No hay estación en la posición del vehículo. */
+        public static final String SIN_ESTACION = "NO_STATION";
+
+        @Label("Vehicle Tier")
+        public String vehicleTier;
+
+        @Label("Vehicle")
+        public String vehicle;
+
+        @Label("Station")
+        public String station;
+
+        @Label("Charger")
+        public String charger;
+
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Step")
+        public int step;
+    }
+
+    /**
+     * Una notificación de recarga a la compañía ({@link EVCompany#notificarRecarga}).
+     */
+    @Name("evcharging.Notification")
+    @Label("Notification")
+    @Category(CATEGORIA)
+    @Description("Notificación de una recarga al registro de la compañía")
+    public static final class Notification extends Event {
+        @Label("Vehicle Tier")
+        public String vehicleTier;
+
+        @Label("Vehicle")
+        public String vehicle;
+
+        @Label("Station")
+        public String station;
+
+        @Label("Charger")
+        public String charger;
+
+        @Label("Asynchronous")
+        public boolean asynchronous;
+    }
+}
@@ -0,0 +1,94 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para SimulationEvents.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class SimulationEventsTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Con una grabación activa la demo emite los cuatro tipos de evento con sus
+     * campos rellenos, y las recargas de la grabación coinciden con las de los cargadores.
+     * Cada recarga rechazada aparece como un intento con resultado rechazado.
+     */
+    @Test
+    public void testLaDemoEmiteEventos() throws IOException {
+        Path fichero = carpeta.getRoot().toPath().resolve("demo.jfr");
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(OutputStream.nullOutputStream()));
+
+        EVDemo demo;
+        try (Recording grabacion = new Recording()) {
+            for (String evento : new String[] {"evcharging.Recharge", "evcharging.Route",
+                                               "evcharging.ChargeAttempt", "evcharging.Notification"}) {
+                grabacion.enable(evento).withoutThreshold();
+            }
+            grabacion.start();
+            demo = new EVDemo(compania, DemoType.ADVANCED);
+            demo.simular(EVDemo.MAXSTEPS);
+            grabacion.stop();
+            grabacion.dump(fichero);
+        }
+
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(fichero);
+        Map<String, Integer> porTipo = new HashMap<>();
+        for (RecordedEvent evento : eventos) {
+            porTipo.merge(evento.getEventType().getName(), 1, Integer::sum);
+            assertNotNull(evento.getString("vehicleTier"));
+            assertNotNull(evento.getString("vehicle"));
+        }
+
+        int recargas = 0;
+        for (ChargingStation estacion : demo.getStations()) {
+            for (Charger cargador : estacion.getChargers()) {
+                recargas += cargador.getNumerEVRecharged();
+            }
+        }
+        int aceptadas = 0;
+        int rechazadas = 0;
+        int intentosRechazados = 0;
+        for (RecordedEvent evento : eventos) {
+            String tipo = evento.getEventType().getName();
+            if (tipo.equals("evcharging.Recharge") || tipo.equals("evcharging.Notification")) {
+                assertNotNull(evento.getString("station"));
+            }
+            if (tipo.equals("evcharging.Recharge")) {
+                if (evento.getBoolean("accepted")) {
+                    aceptadas++;
+                } else {
+                    rechazadas++;
+                }
+            }
+            if (tipo.equals("evcharging.ChargeAttempt")) {
+                assertNotNull(evento.getString("outcome"));
+                if (evento.getString("outcome").equals(SimulationEvents.ChargeAttempt.RECHAZADO)) {
+                    intentosRechazados++;
+                }
+            }
+        }
+
+        assertTrue(porTipo.get("evcharging.Route") > 0);
+        assertTrue(porTipo.get("evcharging.ChargeAttempt") > 0);
+        assertTrue(porTipo.get("evcharging.Notification") > 0);
+        assertEquals(recargas, aceptadas);
+        assertEquals(rechazadas, intentosRechazados);
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas en vivo de una simulación.
+ * <p>
+ * Los contadores son {@link LongAdder} (contadores repartidos en celdas), así que
+ * la simulación los incrementa sin contención aunque varios hilos recarguen a la
+ * vez. El resto de valores (vehículos en espera, varados, memoria) se calculan al
+ * consultarlos a partir del estado de la compañía; leídos desde otro hilo mientras
+ * avanza un paso son aproximados.
+ * </p>
+ * <p>
+ * Cada compañía tiene el suyo ({@link EVCompany#getMetricas()}) y se pone a cero
+ * al reiniciarla. {@link MetricsServer} lo publica por JMX y HTTP.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+    // --- Constantes ---
+    /** Peso de cada paso nuevo en la media móvil de su duración. */
+    private static final double PESO_MEDIA = 0.2;
+
+    // --- Atributos ---
+    private final EVCompany compania;
+    private final ChargerFactory.ChargerType[] tipos;
+
+    /** Recargas aceptadas, indexadas por el ordinal del tipo de cargador. */
+    private final LongAdder[] recargasPorTipo;
+    private final LongAdder recargasIncompatibles;
+    private final LongAdder pasos;
+    /** Media móvil de la duración de un paso en ns (la escribe solo el hilo de la simulación). */
+    private volatile double nanosPorPaso;
+
+    // --- Constructor ---
+
+    /**
+     * @param compania La compañía de la que se calculan los valores instantáneos.
+     */
+    public SimulationMetrics(EVCompany compania) {
+        if (compania == null) {
+            throw new NullPointerException("La compañía no puede ser nula.");
+        }
+        this.compania = compania;
+        this.tipos = ChargerFactory.ChargerType.values();
+        this.recargasPorTipo = new LongAdder[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            this.recargasPorTipo[i] = new LongAdder();
+        }
+        this.recargasIncompatibles = new LongAdder();
+        this.pasos = new LongAdder();
+        this.nanosPorPaso = 0.0;
+    }
+
+    // --- Registro (desde la simulación) ---
+
+    /**
+     * Registra el resultado de {@link Charger#rechargeMicros}.
+     *
+     * @param cargador El cargador.
+     * @param coste El coste devuelto (-1 si no era compatible).
+     */
+    void registrarRecarga(Charger cargador, long coste) {
+        if (coste < 0) {
+            recargasIncompatibles.increment();
+        } else {
+            recargasPorTipo[ChargerFactory.getTipo(cargador).ordinal()].increment();
+        }
+    }
+
+    /**
+     * Registra un paso terminado.
+     *
+     * @param nanos Lo que ha durado.
+     */
+    void registrarPaso(long nanos) {
+        pasos.increment();
+        double media = nanosPorPaso;
+        nanosPorPaso = (media == 0.0) ? nanos : media + PESO_MEDIA * (nanos - media);
+    }
+
+    /**
+     * Pone a cero los contadores.
+     */
+    public void reset() {
+        for (LongAdder contador : recargasPorTipo) {
+            contador.reset();
+        }
+        recargasIncompatibles.reset();
+        pasos.reset();
+        nanosPorPaso = 0.0;
+    }
+
+    // --- Consultas (MXBean) ---
+
+    @Override
+    public Map<String, Long> getRecargasPorTipo() {
+        Map<String, Long> recargas = new LinkedHashMap<>();
+        for (ChargerFactory.ChargerType tipo : tipos) {
+            recargas.put(tipo.name(), recargasPorTipo[tipo.ordinal()].sum());
+        }
+        return recargas;
+    }
+
+    @Override
+    public long getRecargas() {
+        long total = 0;
+        for (LongAdder contador : recargasPorTipo) {
+            total += contador.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getRecargasIncompatibles() {
+        return recargasIncompatibles.sum();
+    }
+
+    @Override
+    public int getVehiculosEsperando() {
+        int esperando = 0;
+        // Copia de la lista: puede consultarse desde otro hilo.
+        for (ChargingStation estacion : new ArrayList<>(compania.getCityStations())) {
+            esperando += estacion.getNumVehiculosEsperando();
+        }
+        return esperando;
+    }
+
+    @Override
+    public int getVehiculosVarados() {
+        return compania.getNumVehiculosSinEstacion();
+    }
+
+    @Override
+    public int getNumVehiculos() {
+        return compania.getVehicles().size();
+    }
+
+    @Override
+    public long getPasos() {
+        return pasos.sum();
+    }
+
+    @Override
+    public double getPasosPorSegundo() {
+        double media = nanosPorPaso;
+        return (media <= 0.0) ? 0.0 : 1e9 / media;
+    }
+
+    @Override
+    public long getBytesHeapPorVehiculo() {
+        Runtime runtime = Runtime.getRuntime();
+        long usado = runtime.totalMemory() - runtime.freeMemory();
+        return usado / Math.max(1, getNumVehiculos());
+    }
+
+    // --- Formato de texto ---
+
+    /**
+     * Las métricas en formato de texto de Prometheus (una por línea).
+     */
+    public String aTexto() {
+        List<String> lineas = new ArrayList<>();
+        lineas.add("# TYPE evcharging_recargas_total counter");
+        for (Map.Entry<String, Long> entrada : getRecargasPorTipo().entrySet()) {
+            lineas.add("evcharging_recargas_total{tipo=\"" + entrada.getKey() + "\"} " + entrada.getValue());
+        }
+        lineas.add("# TYPE evcharging_recargas_incompatibles_total counter");
+        lineas.add("evcharging_recargas_incompatibles_total " + getRecargasIncompatibles());
+        lineas.add("# TYPE evcharging_vehiculos_esperando gauge");
+        lineas.add("evcharging_vehiculos_esperando " + getVehiculosEsperando());
+        lineas.add("# TYPE evcharging_vehiculos_varados gauge");
+        lineas.add("evcharging_vehiculos_varados " + getVehiculosVarados());
+        lineas.add("# TYPE evcharging_vehiculos gauge");
+        lineas.add("evcharging_vehiculos " + getNumVehiculos());
+        lineas.add("# TYPE evcharging_pasos_total counter");
+        lineas.add("evcharging_pasos_total " + getPasos());
+        lineas.add("# TYPE evcharging_pasos_por_segundo gauge");
+        lineas.add(String.format(Locale.US, "evcharging_pasos_por_segundo %.3f", getPasosPorSegundo()));
+        lineas.add("# TYPE evcharging_heap_bytes_por_vehiculo gauge");
+        lineas.add("evcharging_heap_bytes_por_vehiculo " + getBytesHeapPorVehiculo());
+        return String.join("\n", lineas) + "\n";
+    }
+}
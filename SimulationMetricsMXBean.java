@@ -0,0 +1,35 @@
+import java.util.Map;
+
+/**
+ * Vista JMX de las métricas de una simulación (ver {@link SimulationMetrics}).
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public interface SimulationMetricsMXBean {
+    /** Recargas aceptadas por tipo de cargador. */
+    Map<String, Long> getRecargasPorTipo();
+
+    /** Recargas aceptadas en total. */
+    long getRecargas();
+
+    /** Intentos de recarga en un cargador incompatible (recharge devolvió -1). */
+    long getRecargasIncompatibles();
+
+    /** Vehículos en las colas de espera de las estaciones. */
+    int getVehiculosEsperando();
+
+    /** Vehículos que necesitan recargar y no alcanzan ninguna estación. */
+    int getVehiculosVarados();
+
+    int getNumVehiculos();
+
+    /** Pasos simulados. */
+    long getPasos();
+
+    /** Ritmo reciente de la simulación (media móvil de la duración de los pasos). */
+    double getPasosPorSegundo();
+
+    /** Memoria del heap en uso dividida entre los vehículos de la simulación. */
+    long getBytesHeapPorVehiculo();
+}
@@ -4,24 +4,24 @@ public class SolarCharger extends Charger {
     }
     
     @Override
-    protected boolean esCompatible(ElectricVehicle vehiculo) {
+    public boolean esCompatible(VehicleTier tipo) {
         // Solo compatible con VTC
-        return vehiculo.getTipo() == VehicleTier.VTC;
+        return tipo == VehicleTier.VTC;
     }
     
     /**
      * Aplica un descuento del 10% en el coste total.
      */
     @Override
-    protected float calcularCoste(int kwh) {
-        float costeBase = super.calcularCoste(kwh);
-        return costeBase * 0.90f; // Descuento del 10%.
+    protected long calcularCoste(int kwh) {
+        long costeBase = super.calcularCoste(kwh);
+        return Money.porcentaje(costeBase, 90); // Descuento del 10%.
     }
     
     @Override
     public String toString() {
         return String.format(java.util.Locale.US,
-            "(SolarCharger: %s, %dkwh, %.1f€, %d, %.2f€)",
-            this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), this.cantidadRecaudada);
+            "(SolarCharger: %s, %dkwh, %.1f€, %d, %s€)",
+            this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), Money.formatear(this.getRecaudadoMicros()));
     }
 }
\ No newline at end of file
@@ -4,16 +4,15 @@ public class StandardCharger extends Charger {
    }
    
    @Override
-   protected boolean esCompatible(ElectricVehicle vehiculo) {
+   public boolean esCompatible(VehicleTier tipo) {
        // Compatible con STANDARD y VTC
-       VehicleTier tipo = vehiculo.getTipo();
        return tipo == VehicleTier.STANDARD || tipo == VehicleTier.VTC;
    }
    
    @Override
    public String toString() {
        return String.format(java.util.Locale.US,
-           "(StandardCharger: %s, %dkwh, %.1f€, %d, %.2f€)",
-           this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), this.cantidadRecaudada);
+           "(StandardCharger: %s, %dkwh, %.1f€, %d, %s€)",
+           this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), Money.formatear(this.getRecaudadoMicros()));
    }
 }
\ No newline at end of file
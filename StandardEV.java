@@ -28,15 +28,19 @@ public class StandardEV extends ElectricVehicle {
         // NOTA: asumimos que tendrá cargadores.
         
         ChargingStation mejor = null;
-        int minDist = Integer.MAX_VALUE;
+        double minDist = Double.MAX_VALUE;
         
         for (ChargingStation st : estaciones) {
             if (localizacion.equals(st.getLocation())) continue; // Ignoramos actual.
             
-            int dist = localizacion.distance(st.getLocation()) + st.getLocation().distance(localizacionDestinoFinal);
-            if (enoughBattery(localizacion.distance(st.getLocation())) && dist < minDist) {
-                minDist = dist;
-                mejor = st;
+            if (enoughBattery(localizacion.distance(st.getLocation()))) {
+                // La congestión se suma como pasos extra (0 si la política está desactivada).
+                double dist = localizacion.distance(st.getLocation()) + st.getLocation().distance(localizacionDestinoFinal)
+                    + penalizacionCongestion(st);
+                if (dist < minDist) {
+                    minDist = dist;
+                    mejor = st;
+                }
             }
         }
         
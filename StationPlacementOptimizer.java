@@ -0,0 +1,326 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Busca ubicaciones de estaciones que minimicen los vehículos que no llegan y el paso
+ * medio de llegada, usando el propio simulador como función objetivo.
+ * <p>
+ * Recorre las celdas de una rejilla de candidatas con recocido simulado: en cada
+ * iteración genera varias disposiciones vecinas (una estación movida a una celda
+ * cercana libre), las evalúa en paralelo y se queda con la mejor según el criterio
+ * de Metrópolis. Cada disposición se evalúa ejecutando sin salida los escenarios
+ * de referencia ({@link ScenarioBatchRunner#ejecutar(Scenario)}).
+ * </p>
+ * <p>
+ * Las evaluaciones se guardan en una caché concurrente indexada por la disposición
+ * (ordenada), así que una disposición ya vista, o que otro hilo está evaluando,
+ * no se vuelve a simular. La búsqueda es reproducible para una semilla dada.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class StationPlacementOptimizer {
+    // --- Constantes ---
+    /** Coste de cada vehículo que no llega; domina sobre el paso medio de llegada. */
+    public static final double PENALIZACION_SIN_LLEGAR = 1000.0;
+    /** Distancia máxima (en celdas de la rejilla) a la que se mueve una estación. */
+    private static final int RADIO_VECINDAD = 2;
+    private static final double TEMPERATURA_INICIAL = 200.0;
+    private static final double TEMPERATURA_FINAL = 0.5;
+
+    /** Orden canónico de las disposiciones: por X y después por Y. */
+    private static final Comparator<Location> ORDEN_CELDAS =
+        Comparator.comparingInt(Location::getX).thenComparingInt(Location::getY);
+
+    // --- Atributos ---
+    private final List<Scenario> escenarios;
+    private final List<Location> candidatas;
+    private final int pasoRejilla;
+    private final int numHilos;
+
+    private final ConcurrentHashMap<List<Location>, CompletableFuture<Double>> cache;
+    private final AtomicInteger evaluaciones;
+    private final AtomicInteger aciertosCache;
+
+    // --- Constructor ---
+
+    /**
+     * @param escenarios Escenarios de referencia con los que se evalúa cada disposición.
+     * @param pasoRejilla Separación entre celdas candidatas (1 = todas las celdas).
+     * @param numHilos Número de disposiciones que se evalúan a la vez.
+     *
+     * @throws NullPointerException Si la lista de escenarios es nula.
+     * @throws IllegalArgumentException Si no hay escenarios o algún parámetro no es positivo.
+     */
+    public StationPlacementOptimizer(List<Scenario> escenarios, int pasoRejilla, int numHilos) {
+        if (escenarios == null) {
+            throw new NullPointerException("La lista de escenarios no puede ser nula.");
+        }
+        if (escenarios.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos un escenario.");
+        }
+        if (pasoRejilla <= 0 || numHilos <= 0) {
+            throw new IllegalArgumentException("El paso de la rejilla y el número de hilos deben ser positivos.");
+        }
+        this.escenarios = new ArrayList<>(escenarios);
+        this.pasoRejilla = pasoRejilla;
+        this.numHilos = numHilos;
+        this.candidatas = new ArrayList<>();
+        for (int x = 1; x <= EVDemo.MAXX; x += pasoRejilla) {
+            for (int y = 1; y <= EVDemo.MAXY; y += pasoRejilla) {
+                this.candidatas.add(new Location(x, y));
+            }
+        }
+        this.cache = new ConcurrentHashMap<>();
+        this.evaluaciones = new AtomicInteger();
+        this.aciertosCache = new AtomicInteger();
+    }
+
+    // --- Métodos públicos ---
+
+    /**
+     * Ejecuta la búsqueda partiendo de una disposición inicial.
+     *
+     * @param inicial Ubicaciones iniciales de las estaciones (sin repetir).
+     * @param iteraciones Número de iteraciones del recocido.
+     * @param semilla Semilla de la búsqueda.
+     * @return La mejor disposición encontrada y su coste.
+     *
+     * @throws IllegalArgumentException Si la disposición inicial está vacía o repite ubicaciones.
+     */
+    public Resultado optimizar(List<Location> inicial, int iteraciones, long semilla) {
+        List<Location> actual = canonica(inicial);
+        if (actual.isEmpty() || actual.size() != new HashSet<>(actual).size()) {
+            throw new IllegalArgumentException("La disposición inicial debe tener ubicaciones distintas.");
+        }
+
+        Random aleatorio = new Random(semilla);
+        double enfriamiento = Math.pow(TEMPERATURA_FINAL / TEMPERATURA_INICIAL, 1.0 / Math.max(1, iteraciones));
+        double temperatura = TEMPERATURA_INICIAL;
+
+        ExecutorService pool = Executors.newFixedThreadPool(numHilos);
+        try {
+            double costeInicial = esperar(evaluarAsync(actual, pool));
+            double costeActual = costeInicial;
+            List<Location> mejor = actual;
+            double costeMejor = costeInicial;
+
+            for (int it = 0; it < iteraciones; it++) {
+                // 1. VECINOS (EN EL HILO PRINCIPAL PARA QUE LA BÚSQUEDA SEA REPRODUCIBLE)
+                List<List<Location>> vecinos = new ArrayList<>(numHilos);
+                List<CompletableFuture<Double>> costes = new ArrayList<>(numHilos);
+                for (int v = 0; v < numHilos; v++) {
+                    List<Location> vecino = vecino(actual, aleatorio);
+                    vecinos.add(vecino);
+                    costes.add(evaluarAsync(vecino, pool));
+                }
+
+                // 2. EL MEJOR VECINO (EN CASO DE EMPATE, EL PRIMERO)
+                int elegido = 0;
+                double costeElegido = esperar(costes.get(0));
+                for (int v = 1; v < vecinos.size(); v++) {
+                    double coste = esperar(costes.get(v));
+                    if (coste < costeElegido) {
+                        elegido = v;
+                        costeElegido = coste;
+                    }
+                }
+
+                // 3. CRITERIO DE METRÓPOLIS
+                double delta = costeElegido - costeActual;
+                if (delta <= 0 || aleatorio.nextDouble() < Math.exp(-delta / temperatura)) {
+                    actual = vecinos.get(elegido);
+                    costeActual = costeElegido;
+                    if (costeActual < costeMejor) {
+                        mejor = actual;
+                        costeMejor = costeActual;
+                    }
+                }
+                temperatura *= enfriamiento;
+            }
+
+            return new Resultado(mejor, costeMejor, costeInicial, evaluaciones.get(), aciertosCache.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Evalúa una disposición en el hilo actual (usando la caché).
+     *
+     * @param ubicaciones Ubicaciones de las estaciones.
+     * @return El coste medio por escenario (menor es mejor).
+     */
+    public double evaluar(List<Location> ubicaciones) {
+        return esperar(evaluarAsync(canonica(ubicaciones), Runnable::run));
+    }
+
+    /** Número de disposiciones simuladas (sin contar los aciertos de caché). */
+    public int getEvaluaciones() {
+        return evaluaciones.get();
+    }
+
+    /** Número de veces que una disposición se ha resuelto desde la caché. */
+    public int getAciertosCache() {
+        return aciertosCache.get();
+    }
+
+    /**
+     * Coste de un escenario: vehículos que no llegan (muy penalizados) más el paso medio
+     * de llegada. Si no llega nadie, el paso medio cuenta como la duración entera.
+     */
+    public static double coste(ScenarioResult resultado) {
+        double pasoMedio = (resultado.getLlegados() == 0)
+            ? resultado.getEscenario().getPasos() : resultado.getPasoMedioLlegada();
+        return resultado.getSinLlegar() * PENALIZACION_SIN_LLEGAR + pasoMedio;
+    }
+
+    // --- Métodos internos ---
+
+    /**
+     * Devuelve el coste de la disposición, simulándola solo si nadie lo ha hecho ya.
+     * La disposición debe estar en forma canónica.
+     */
+    private CompletableFuture<Double> evaluarAsync(List<Location> disposicion, Executor ejecutor) {
+        CompletableFuture<Double> nueva = new CompletableFuture<>();
+        CompletableFuture<Double> previa = cache.putIfAbsent(disposicion, nueva);
+        if (previa != null) {
+            aciertosCache.incrementAndGet();
+            return previa;
+        }
+
+        evaluaciones.incrementAndGet();
+        ejecutor.execute(() -> {
+            try {
+                double total = 0;
+                for (Scenario escenario : escenarios) {
+                    total += coste(ScenarioBatchRunner.ejecutar(escenario.conEstaciones(disposicion)));
+                }
+                nueva.complete(total / escenarios.size());
+            } catch (Throwable t) {
+                nueva.completeExceptionally(t);
+            }
+        });
+        return nueva;
+    }
+
+    /**
+     * Mueve una estación al azar a una celda candidata libre cercana.
+     */
+    private List<Location> vecino(List<Location> disposicion, Random aleatorio) {
+        int indice = aleatorio.nextInt(disposicion.size());
+        Location origen = disposicion.get(indice);
+        int radio = RADIO_VECINDAD * pasoRejilla;
+
+        List<Location> libres = new ArrayList<>();
+        for (Location celda : candidatas) {
+            if (Math.abs(celda.getX() - origen.getX()) <= radio
+                    && Math.abs(celda.getY() - origen.getY()) <= radio
+                    && !disposicion.contains(celda)) {
+                libres.add(celda);
+            }
+        }
+        if (libres.isEmpty()) {
+            return disposicion;
+        }
+
+        List<Location> nueva = new ArrayList<>(disposicion);
+        nueva.set(indice, libres.get(aleatorio.nextInt(libres.size())));
+        return canonica(nueva);
+    }
+
+    private static List<Location> canonica(List<Location> ubicaciones) {
+        List<Location> copia = new ArrayList<>(ubicaciones);
+        copia.sort(ORDEN_CELDAS);
+        return Collections.unmodifiableList(copia);
+    }
+
+    private static double esperar(CompletableFuture<Double> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Búsqueda interrumpida.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IllegalStateException("Fallo al evaluar una disposición.", causa);
+        }
+    }
+
+    // --- Clase interna: resultado de la búsqueda ---
+
+    /**
+     * Mejor disposición encontrada y estadísticas de la búsqueda.
+     */
+    public static class Resultado {
+        private final List<Location> ubicaciones;
+        private final double coste;
+        private final double costeInicial;
+        private final int evaluaciones;
+        private final int aciertosCache;
+
+        Resultado(List<Location> ubicaciones, double coste, double costeInicial, int evaluaciones, int aciertosCache) {
+            this.ubicaciones = ubicaciones;
+            this.coste = coste;
+            this.costeInicial = costeInicial;
+            this.evaluaciones = evaluaciones;
+            this.aciertosCache = aciertosCache;
+        }
+
+        public List<Location> getUbicaciones() {
+            return ubicaciones;
+        }
+
+        public double getCoste() {
+            return coste;
+        }
+
+        public double getCosteInicial() {
+            return costeInicial;
+        }
+
+        public int getEvaluaciones() {
+            return evaluaciones;
+        }
+
+        public int getAciertosCache() {
+            return aciertosCache;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.US,
+                "Coste %.2f (inicial %.2f), %d evaluaciones, %d aciertos de caché: %s",
+                coste, costeInicial, evaluaciones, aciertosCache, ubicaciones);
+        }
+    }
+
+    /**
+     * Optimiza las estaciones del escenario AVANZADO con una flota de 50 vehículos
+     * (tres semillas) partiendo de las ubicaciones por defecto.
+     */
+    public static void main() {
+        List<Scenario> escenarios = new ArrayList<>();
+        for (long semilla = 1; semilla <= 3; semilla++) {
+            escenarios.add(new Scenario(DemoType.ADVANCED, 50, semilla, EVDemo.MAXSTEPS));
+        }
+        StationPlacementOptimizer optimizador = new StationPlacementOptimizer(
+            escenarios, 1, Runtime.getRuntime().availableProcessors());
+        System.out.println(optimizador.optimizar(EVDemo.getUbicacionesEstaciones(DemoType.ADVANCED), 200, 42L));
+    }
+}
@@ -0,0 +1,54 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Clase de prueba para StationPlacementOptimizer.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class StationPlacementOptimizerTest {
+    private StationPlacementOptimizer optimizador;
+    private List<Location> inicial;
+
+    @Before
+    public void setUp() {
+        List<Scenario> escenarios = Arrays.asList(
+            new Scenario(DemoType.SIMPLE, 20, 1L, 30),
+            new Scenario(DemoType.SIMPLE, 20, 2L, 30));
+        optimizador = new StationPlacementOptimizer(escenarios, 2, 2);
+        inicial = EVDemo.getUbicacionesEstaciones(DemoType.SIMPLE);
+    }
+
+    /**
+     * Una disposición ya evaluada (aunque en otro orden) sale de la caché.
+     */
+    @Test
+    public void testCacheDeDisposiciones() {
+        double coste = optimizador.evaluar(inicial);
+        List<Location> desordenada = Arrays.asList(inicial.get(4), inicial.get(2), inicial.get(0),
+                                                   inicial.get(3), inicial.get(1));
+
+        assertEquals(coste, optimizador.evaluar(desordenada), 0.0);
+        assertEquals(1, optimizador.getEvaluaciones());
+        assertEquals(1, optimizador.getAciertosCache());
+    }
+
+    /**
+     * La búsqueda nunca devuelve algo peor que la disposición inicial y mantiene
+     * el número de estaciones sin repetir ubicaciones.
+     */
+    @Test
+    public void testOptimizarNoEmpeora() {
+        StationPlacementOptimizer.Resultado resultado = optimizador.optimizar(inicial, 15, 7L);
+
+        assertTrue(resultado.getCoste() <= resultado.getCosteInicial());
+        assertEquals(optimizador.evaluar(inicial), resultado.getCosteInicial(), 0.0);
+        assertEquals(inicial.size(), new HashSet<>(resultado.getUbicaciones()).size());
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Tiempos por fase de la simulación, en nanosegundos.
+ * <p>
+ * Cada compañía guarda un {@link LatencyHistogram} por {@link Fase}; EVDemo los
+ * vuelca (p50, p99 y máximo) al terminar {@link EVDemo#run()}.
+ * </p>
+ * <p>
+ * Está desactivado salvo que se arranque con {@code -Devcharging.perfil=true}.
+ * Como {@link #ACTIVO} es {@code static final}, con el perfil desactivado el JIT
+ * elimina las mediciones por completo: no se llama a {@link System#nanoTime()} ni
+ * se reserva memoria para los histogramas.
+ * </p>
+ * <p>
+ * Uso en cada punto de medida:
+ * </p>
+ * <pre>
+ *     long inicio = StepProfiler.inicio();
+ *     ... fase ...
+ *     StepProfiler.medir(compania, Fase.RUTA, inicio);
+ * </pre>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public final class StepProfiler {
+    // --- Constantes ---
+    /** Activa el perfil (propiedad del sistema {@code evcharging.perfil}). */
+    public static final boolean ACTIVO = Boolean.getBoolean("evcharging.perfil");
+
+    /**
+     * Fases medidas. PASO incluye a todas las demás; ACTUACION (el movimiento de
+     * los vehículos) incluye RUTA, RECARGA y NOTIFICACION, que ocurren dentro de act().
+     */
+    public enum Fase {
+        /** Un paso completo de EVDemo. */
+        PASO,
+        /** Fin de las sesiones de carga temporizadas que vencen en el paso. */
+        SESIONES,
+        /** Bucle de act() de todos los vehículos. */
+        ACTUACION,
+        /** Un cálculo de ruta (ElectricVehicle.calculateRoute). */
+        RUTA,
+        /** Una llegada a estación (ElectricVehicle.recharge). */
+        RECARGA,
+        /** Una notificación de recarga a la compañía. */
+        NOTIFICACION,
+        /** Barrera de notificaciones al final del paso. */
+        BARRERA,
+        /** Informe por paso del estado de los vehículos. */
+        INFORME
+    }
+
+    // --- Atributos ---
+    private final LatencyHistogram[] histogramas;
+
+    // --- Constructor ---
+
+    public StepProfiler() {
+        Fase[] fases = Fase.values();
+        this.histogramas = new LatencyHistogram[fases.length];
+        for (int i = 0; i < fases.length; i++) {
+            this.histogramas[i] = new LatencyHistogram();
+        }
+    }
+
+    // --- Medición ---
+
+    /**
+     * Marca el inicio de una fase.
+     *
+     * @return El instante actual, o 0 si el perfil está desactivado.
+     */
+    public static long inicio() {
+        return ACTIVO ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Registra lo que ha durado una fase en el perfil de la compañía.
+     *
+     * @param compania La compañía de la simulación.
+     * @param fase La fase que termina.
+     * @param inicio Lo devuelto por {@link #inicio()} (o por otro medir) al empezar la fase.
+     * @return El instante actual, para encadenar fases consecutivas (0 si está desactivado).
+     */
+    public static long medir(EVCompany compania, Fase fase, long inicio) {
+        if (!ACTIVO) {
+            return 0L;
+        }
+        long ahora = System.nanoTime();
+        compania.getPerfil().histogramas[fase.ordinal()].registrar(ahora - inicio);
+        return ahora;
+    }
+
+    // --- Consultas ---
+
+    public LatencyHistogram getHistograma(Fase fase) {
+        return histogramas[fase.ordinal()];
+    }
+
+    /**
+     * Vacía todos los histogramas.
+     */
+    public void reset() {
+        for (LatencyHistogram histograma : histogramas) {
+            histograma.reset();
+        }
+    }
+
+    /**
+     * Escribe una tabla con el número de medidas, p50, p99, máximo y media de cada
+     * fase que tenga alguna.
+     */
+    public void volcar(PrintStream out) {
+        out.println("(--------------------------)");
+        out.println("( Perfil por fases (ns)    )");
+        out.println("(--------------------------)");
+        out.println(String.format(Locale.US, "%-13s %10s %12s %12s %12s %12s",
+            "fase", "n", "p50", "p99", "max", "media"));
+        for (Fase fase : Fase.values()) {
+            LatencyHistogram histograma = histogramas[fase.ordinal()];
+            long n = histograma.getNumValores();
+            if (n == 0) {
+                continue;
+            }
+            out.println(String.format(Locale.US, "%-13s %10d %12d %12d %12d %12.1f",
+                fase, n, histograma.getPercentil(0.50), histograma.getPercentil(0.99),
+                histograma.getMaximo(), histograma.getMedia()));
+        }
+    }
+}
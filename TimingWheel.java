@@ -0,0 +1,306 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporización jerárquica para las sesiones de carga.
+ * <p>
+ * Tiene {@value #NIVELES} niveles de {@value #RANURAS} ranuras. El nivel 0 tiene
+ * resolución de un paso; cada nivel superior cubre 64 veces más pasos. Una sesión
+ * se coloca en el nivel más bajo que abarca su paso de fin y, cuando el tiempo
+ * alcanza su ranura, baja (cascada) a un nivel inferior hasta vencer en el nivel 0.
+ * Programar y vencer cuestan O(1) por sesión, con independencia del número de
+ * sesiones en curso. Las sesiones fuera de rango (más de 2^24 pasos) esperan en
+ * una lista de desbordamiento.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class TimingWheel {
+    // --- Constantes ---
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+
+    // --- Atributos ---
+    private final ChargingSession[][] cabezas;
+    private final ChargingSession[][] colas;
+
+    /** Sesiones cuyo fin queda fuera del alcance de la rueda. */
+    private ChargingSession desbordamiento;
+    private ChargingSession colaDesbordamiento;
+
+    /** Sesiones programadas con un fin ya alcanzado; vencen en el siguiente avance. */
+    private ChargingSession vencidas;
+    private ChargingSession colaVencidas;
+
+    /** Último paso procesado. */
+    private long pasoActual;
+    private int pendientes;
+
+    // --- Constructor ---
+
+    /**
+     * Crea una rueda vacía. El primer avance procesará el paso 0.
+     */
+    public TimingWheel() {
+        this.cabezas = new ChargingSession[NIVELES][RANURAS];
+        this.colas = new ChargingSession[NIVELES][RANURAS];
+        this.pasoActual = -1;
+        this.pendientes = 0;
+    }
+
+    // --- Métodos públicos ---
+
+    /**
+     * Programa una sesión para que venza en su paso de fin.
+     *
+     * @param sesion La sesión a programar.
+     */
+    public void programar(ChargingSession sesion) {
+        sesion.siguiente = null;
+        colocar(sesion);
+        pendientes++;
+    }
+
+    /**
+     * Avanza la rueda hasta el paso indicado (incluido), entregando a la acción
+     * cada sesión vencida en orden de paso de fin y, con el mismo paso, en el
+     * orden en que se programaron. Las que ya habían vencido al programarse se
+     * entregan primero. La acción puede programar nuevas sesiones.
+     *
+     * @param paso Paso hasta el que avanzar.
+     * @param accion Acción a ejecutar con cada sesión vencida.
+     */
+    public void avanzarHasta(long paso, Consumer<ChargingSession> accion) {
+        ChargingSession lista = vencidas;
+        vencidas = null;
+        colaVencidas = null;
+        entregar(lista, accion);
+
+        while (pasoActual < paso) {
+            pasoActual++;
+
+            // Cascada: cuando los bits de un nivel vuelven a 0, la ranura del nivel superior baja.
+            for (int nivel = 1; nivel < NIVELES; nivel++) {
+                if ((pasoActual & ((1L << (BITS * nivel)) - 1)) != 0) {
+                    break;
+                }
+                int ranura = (int) (pasoActual >>> (BITS * nivel)) & MASCARA;
+                ChargingSession cascada = cabezas[nivel][ranura];
+                cabezas[nivel][ranura] = null;
+                colas[nivel][ranura] = null;
+                recolocar(cascada);
+
+                if (nivel == NIVELES - 1 && ranura == 0) {
+                    ChargingSession fuera = desbordamiento;
+                    desbordamiento = null;
+                    colaDesbordamiento = null;
+                    recolocar(fuera);
+                }
+            }
+
+            int ranura = (int) pasoActual & MASCARA;
+            ChargingSession vencen = cabezas[0][ranura];
+            cabezas[0][ranura] = null;
+            colas[0][ranura] = null;
+            entregar(vencen, accion);
+        }
+    }
+
+    /**
+     * Descarta todas las sesiones y vuelve al estado inicial, conservando las ranuras.
+     */
+    public void vaciar() {
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            Arrays.fill(cabezas[nivel], null);
+            Arrays.fill(colas[nivel], null);
+        }
+        desbordamiento = null;
+        colaDesbordamiento = null;
+        vencidas = null;
+        colaVencidas = null;
+        pasoActual = -1;
+        pendientes = 0;
+    }
+
+    /**
+     * Devuelve el número de sesiones programadas pendientes de vencer.
+     */
+    public int getPendientes() {
+        return pendientes;
+    }
+
+    /**
+     * Devuelve el último paso procesado por la rueda.
+     */
+    public long getPasoActual() {
+        return pasoActual;
+    }
+
+    // --- Checkpoint ---
+
+    /**
+     * Escribe la rueda tal cual está (paso actual y el contenido, en orden, de cada
+     * ranura y de las listas de vencidas y desbordamiento), de modo que al
+     * restaurarla las sesiones vencen en los mismos pasos y en el mismo orden.
+     */
+    void escribirEstado(DataOutput out, Checkpoint.Indices indices) throws IOException {
+        out.writeLong(pasoActual);
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            for (int ranura = 0; ranura < RANURAS; ranura++) {
+                escribirLista(out, cabezas[nivel][ranura], indices);
+            }
+        }
+        escribirLista(out, vencidas, indices);
+        escribirLista(out, desbordamiento, indices);
+    }
+
+    /**
+     * Restaura lo escrito por {@link #escribirEstado} sobre una rueda vacía,
+     * asociando cada sesión a su vehículo.
+     */
+    void leerEstado(DataInput in, Checkpoint.Indices indices) throws IOException {
+        pasoActual = in.readLong();
+        pendientes = 0;
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            for (int ranura = 0; ranura < RANURAS; ranura++) {
+                ChargingSession lista = leerLista(in, indices);
+                cabezas[nivel][ranura] = lista;
+                colas[nivel][ranura] = ultima(lista);
+            }
+        }
+        vencidas = leerLista(in, indices);
+        colaVencidas = ultima(vencidas);
+        desbordamiento = leerLista(in, indices);
+        colaDesbordamiento = ultima(desbordamiento);
+    }
+
+    private static void escribirLista(DataOutput out, ChargingSession lista, Checkpoint.Indices indices) throws IOException {
+        int tamano = 0;
+        for (ChargingSession s = lista; s != null; s = s.siguiente) {
+            tamano++;
+        }
+        out.writeInt(tamano);
+        for (ChargingSession s = lista; s != null; s = s.siguiente) {
+            out.writeInt(indices.de(s.getVehiculo()));
+            out.writeInt(indices.de(s.getEstacion()));
+            out.writeInt(indices.de(s.getCargador()));
+            out.writeInt(s.getKwh());
+            out.writeLong(s.getPasoInicio());
+        }
+    }
+
+    private ChargingSession leerLista(DataInput in, Checkpoint.Indices indices) throws IOException {
+        int tamano = in.readInt();
+        ChargingSession cabeza = null;
+        ChargingSession cola = null;
+        for (int i = 0; i < tamano; i++) {
+            ElectricVehicle vehiculo = indices.vehiculo(in.readInt());
+            ChargingStation estacion = indices.estacion(in.readInt());
+            Charger cargador = indices.cargador(in.readInt());
+            ChargingSession sesion = new ChargingSession(vehiculo, estacion, cargador, in.readInt(), in.readLong());
+            vehiculo.setSesionActiva(sesion);
+
+            if (cola == null) {
+                cabeza = sesion;
+            } else {
+                cola.siguiente = sesion;
+            }
+            cola = sesion;
+            pendientes++;
+        }
+        return cabeza;
+    }
+
+    private static ChargingSession ultima(ChargingSession lista) {
+        if (lista == null) {
+            return null;
+        }
+        while (lista.siguiente != null) {
+            lista = lista.siguiente;
+        }
+        return lista;
+    }
+
+    // --- Métodos internos ---
+
+    /**
+     * Coloca una sesión en la ranura que le corresponde según su distancia al paso actual.
+     */
+    private void colocar(ChargingSession sesion) {
+        long fin = sesion.getPasoFin();
+        long delta = fin - pasoActual;
+
+        if (delta <= 0) {
+            if (colaVencidas == null) {
+                vencidas = sesion;
+            } else {
+                colaVencidas.siguiente = sesion;
+            }
+            colaVencidas = sesion;
+            return;
+        }
+
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            if (delta < (1L << (BITS * (nivel + 1)))) {
+                anadir(nivel, (int) (fin >>> (BITS * nivel)) & MASCARA, sesion);
+                return;
+            }
+        }
+
+        if (colaDesbordamiento == null) {
+            desbordamiento = sesion;
+        } else {
+            colaDesbordamiento.siguiente = sesion;
+        }
+        colaDesbordamiento = sesion;
+    }
+
+    /**
+     * Vuelve a colocar una lista de sesiones tras una cascada.
+     * Las que vencen justo en el paso actual van a la ranura del nivel 0 que se
+     * procesa a continuación en este mismo avance.
+     */
+    private void recolocar(ChargingSession lista) {
+        while (lista != null) {
+            ChargingSession siguiente = lista.siguiente;
+            lista.siguiente = null;
+            if (lista.getPasoFin() == pasoActual) {
+                anadir(0, (int) pasoActual & MASCARA, lista);
+            } else {
+                colocar(lista);
+            }
+            lista = siguiente;
+        }
+    }
+
+    /**
+     * Añade una sesión al final de una ranura (orden de llegada).
+     */
+    private void anadir(int nivel, int ranura, ChargingSession sesion) {
+        if (colas[nivel][ranura] == null) {
+            cabezas[nivel][ranura] = sesion;
+        } else {
+            colas[nivel][ranura].siguiente = sesion;
+        }
+        colas[nivel][ranura] = sesion;
+    }
+
+    /**
+     * Entrega una lista de sesiones vencidas a la acción.
+     */
+    private void entregar(ChargingSession lista, Consumer<ChargingSession> accion) {
+        while (lista != null) {
+            ChargingSession siguiente = lista.siguiente;
+            lista.siguiente = null;
+            pendientes--;
+            accion.accept(lista);
+            lista = siguiente;
+        }
+    }
+}
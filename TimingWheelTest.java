@@ -0,0 +1,139 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase de pruebas para TimingWheel y ChargingSession.
+ * Verifica la duración de las sesiones y que cada una vence exactamente
+ * en su paso de fin, incluidas las que bajan en cascada desde niveles superiores.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class TimingWheelTest
+{
+    private EVCompany company;
+    private ChargingStation estacion;
+    private Charger cargador;
+    private ElectricVehicle vehiculo;
+
+    @Before
+    public void setUp()
+    {
+        company = EVCompany.getInstance();
+        company.reset();
+        Location loc = new Location(0,0);
+
+        estacion = new ChargingStation("Caceres", "CC01", loc);
+        cargador = new StandardCharger("CH1", 20, 0.5f); // 20 kwh por paso
+        vehiculo = new StandardEV(company, loc, loc, "Std", "0000", 100);
+    }
+
+    /**
+     * La duración es ceil(kwh / velocidad), con un mínimo de un paso.
+     */
+    @Test
+    public void testDuracionSesion()
+    {
+        assertEquals(1, ChargingSession.duracion(1, 20));
+        assertEquals(1, ChargingSession.duracion(20, 20));
+        assertEquals(2, ChargingSession.duracion(21, 20));
+        assertEquals(5, ChargingSession.duracion(100, 20));
+
+        ChargingSession sesion = new ChargingSession(vehiculo, estacion, cargador, 45, 10);
+        assertEquals(13, sesion.getPasoFin());
+    }
+
+    /**
+     * Cada sesión vence exactamente en su paso de fin, también en los límites
+     * entre niveles de la rueda (múltiplos de 64 y 4096).
+     */
+    @Test
+    public void testVencimientoExacto()
+    {
+        TimingWheel rueda = new TimingWheel();
+        int[] kwhs = {20, 1280, 1300, 81920, 82000, 5242880};
+        List<ChargingSession> sesiones = new ArrayList<>();
+        for (int kwh : kwhs) {
+            ChargingSession sesion = new ChargingSession(vehiculo, estacion, cargador, kwh, 0);
+            sesiones.add(sesion);
+            rueda.programar(sesion);
+        }
+        assertEquals(kwhs.length, rueda.getPendientes());
+
+        long ultimoFin = sesiones.get(sesiones.size() - 1).getPasoFin();
+        List<ChargingSession> vencidas = new ArrayList<>();
+        for (long paso = 0; paso <= ultimoFin; paso++) {
+            final long actual = paso;
+            rueda.avanzarHasta(paso, sesion -> {
+                assertEquals(actual, sesion.getPasoFin());
+                vencidas.add(sesion);
+            });
+        }
+
+        assertEquals(sesiones, vencidas);
+        assertEquals(0, rueda.getPendientes());
+    }
+
+    /**
+     * Las sesiones que vencen en el mismo paso se entregan en el orden en que se
+     * programaron, también las ya vencidas al programarse y las de desbordamiento.
+     */
+    @Test
+    public void testMismoPasoEnOrdenDeProgramacion()
+    {
+        TimingWheel rueda = new TimingWheel();
+        rueda.avanzarHasta(5, sesion -> fail());
+
+        List<ChargingSession> yaVencidas = new ArrayList<>();
+        List<ChargingSession> fueraDeRango = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ChargingSession vencida = new ChargingSession(vehiculo, estacion, cargador, 20, 0);
+            yaVencidas.add(vencida);
+            rueda.programar(vencida);
+
+            ChargingSession lejana = new ChargingSession(vehiculo, estacion, cargador, 20 << 24, 5);
+            fueraDeRango.add(lejana);
+            rueda.programar(lejana);
+        }
+
+        List<ChargingSession> entregadas = new ArrayList<>();
+        rueda.avanzarHasta(5, entregadas::add);
+        assertEquals(yaVencidas, entregadas);
+
+        entregadas.clear();
+        long fin = fueraDeRango.get(0).getPasoFin();
+        rueda.avanzarHasta(fin - 1, sesion -> fail());
+        rueda.avanzarHasta(fin, entregadas::add);
+        assertEquals(fueraDeRango, entregadas);
+        assertEquals(0, rueda.getPendientes());
+    }
+
+    /**
+     * En modo temporizado el cargador permanece ocupado hasta que vence la sesión.
+     */
+    @Test
+    public void testCargaTemporizadaOcupaCargador()
+    {
+        estacion.addCharger(cargador);
+        company.addChargingStation(estacion);
+        company.setCargaTemporizada(true);
+        vehiculo.setNivelBateria(40); // Faltan 60 kwh -> 3 pasos
+
+        company.avanzarSesiones(0);
+        vehiculo.recharge(0);
+        assertTrue(vehiculo.estaRecargando());
+        assertFalse(cargador.estaLibre());
+
+        company.avanzarSesiones(2);
+        assertFalse(cargador.estaLibre());
+
+        company.avanzarSesiones(3);
+        assertFalse(vehiculo.estaRecargando());
+        assertTrue(cargador.estaLibre());
+        assertTrue(vehiculo.enoughBattery(20)); // Batería llena (100 kwh)
+        company.setCargaTemporizada(false);
+    }
+}
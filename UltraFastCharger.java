@@ -5,24 +5,24 @@ public class UltraFastCharger extends Charger {
     }
 
     @Override
-    protected boolean esCompatible(ElectricVehicle vehiculo) {
+    public boolean esCompatible(VehicleTier tipo) {
         // Solo compatible con PREMIUM
-        return vehiculo.getTipo() == VehicleTier.PREMIUM;
+        return tipo == VehicleTier.PREMIUM;
     }
 
     /**
      * Aplica un recargo del 10% en el coste total.
      */
     @Override
-    protected float calcularCoste(int kwh) {
-        float costeBase = super.calcularCoste(kwh);
-        return costeBase * 1.10f; // Recargo del 10%
+    protected long calcularCoste(int kwh) {
+        long costeBase = super.calcularCoste(kwh);
+        return Money.porcentaje(costeBase, 110); // Recargo del 10%
     }
 
     @Override
     public String toString() {
         return String.format(java.util.Locale.US,
-            "(UltraFastCharger: %s, %dkwh, %.1f€, %d, %.2f€)",
-            this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), this.cantidadRecaudada);
+            "(UltraFastCharger: %s, %dkwh, %.1f€, %d, %s€)",
+            this.id, this.velocidadCarga, this.tarifaCarga, this.getNumerEVRecharged(), Money.formatear(this.getRecaudadoMicros()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,368 @@
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ejecución de la flota como agentes: cada vehículo actúa en su propio hilo y
+ * los pasos se sincronizan con un {@link Phaser}.
+ * <p>
+ * Cada paso tiene dos fases del phaser: en la de inicio los agentes esperan
+ * mientras {@link EVDemo} termina las sesiones que vencen; en la de actuación
+ * todos actúan a la vez y el paso termina cuando han acabado. Un vehículo que
+ * queda en la cola de una estación no vuelve a actuar en cada paso: sale del
+ * phaser y su hilo se bloquea hasta que quien libera un cargador se lo pasa
+ * ({@link ChargingStation#liberarCargador}); entonces vuelve a registrarse, hace
+ * la recarga en su hilo y sigue en el paso en curso. Como el que libera sigue
+ * registrado sin haber llegado, el paso no puede terminar entre medias.
+ * </p>
+ * <p>
+ * Los hilos son virtuales cuando la JVM los ofrece (Java 21 o posterior), así que
+ * cada agente ocupa poca memoria y la flota puede tener cientos de miles. En JVM
+ * anteriores se usan hilos de plataforma con pila reducida, adecuados solo para
+ * flotas de unos pocos miles de vehículos. El phaser es jerárquico (uno por cada
+ * {@value #AGENTES_POR_PHASER} agentes bajo uno raíz) porque un phaser admite
+ * como mucho 65535 participantes.
+ * </p>
+ * <p>
+ * El orden en que los agentes adquieren cargadores, y con él el de la salida,
+ * depende de la planificación de los hilos: la ejecución no es reproducible y no
+ * admite un {@link DecisionLog}. Los vehículos que esperan en una cola cuentan
+ * como inactivos los pasos que pasan bloqueados, igual que en la ejecución secuencial.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class VehicleAgents implements AutoCloseable {
+    // --- Constantes ---
+    /** Agentes por phaser hoja. */
+    static final int AGENTES_POR_PHASER = 1024;
+
+    /** Participantes que admite un phaser, con margen respecto al máximo (65535). */
+    private static final int MAX_PARTICIPANTES = 60000;
+
+    /** Pila de los hilos de plataforma cuando no hay hilos virtuales. */
+    private static final long PILA_HILO_PLATAFORMA = 256 * 1024;
+
+    /** Fábrica de hilos virtuales, o null si la JVM no los ofrece. */
+    private static final ThreadFactory FABRICA_VIRTUAL = buscarFabricaVirtual();
+
+    // --- Atributos ---
+    /** Phaser raíz; el hilo que simula es uno de sus participantes. */
+    private final Phaser raiz;
+    private final List<Agente> agentes;
+
+    /** Paso en curso (lo escribe el hilo que simula antes de abrir la actuación). */
+    private volatile int paso;
+    /** Último paso completado. */
+    private volatile int ultimoPaso;
+    private volatile boolean terminado;
+
+    /** Primer error de un agente; se relanza en el hilo que simula. */
+    private final AtomicReference<Throwable> fallo;
+
+    /** Agente que se ejecuta en cada hilo (vacío en el hilo que simula). */
+    private final ThreadLocal<Agente> agenteDelHilo;
+    /** Phasers de reentrada de la fase de inicio en curso (solo el hilo que simula). */
+    private final List<Phaser> reentradas;
+    private Phaser reentrada;
+
+    // --- Constructor ---
+
+    /**
+     * Crea y arranca un agente por vehículo. Los agentes esperan a que
+     * {@link #actuar} abra el primer paso.
+     *
+     * @param compania Compañía de la simulación.
+     * @param vehiculos Vehículos de la flota.
+     * @param primerPaso Primer paso que se simulará.
+     * @param fabrica Fábrica de los hilos de los agentes ({@link #fabricaPorDefecto()}).
+     * @throws IllegalStateException Si la compañía tiene un registro de decisiones.
+     */
+    VehicleAgents(EVCompany compania, List<ElectricVehicle> vehiculos, int primerPaso, ThreadFactory fabrica) {
+        if (compania == null || vehiculos == null || fabrica == null) {
+            throw new NullPointerException("La compañía, los vehículos y la fábrica de hilos no pueden ser nulos.");
+        }
+        if (compania.getDecisiones() != null) {
+            throw new IllegalStateException("La ejecución con agentes no es reproducible: no admite un registro de decisiones.");
+        }
+        this.raiz = new Phaser(1);
+        this.agentes = new ArrayList<>(vehiculos.size());
+        this.paso = primerPaso;
+        this.ultimoPaso = primerPaso - 1;
+        this.terminado = false;
+        this.fallo = new AtomicReference<>();
+        this.agenteDelHilo = new ThreadLocal<>();
+        this.reentradas = new ArrayList<>();
+
+        for (int inicio = 0; inicio < vehiculos.size(); inicio += AGENTES_POR_PHASER) {
+            Phaser hoja = new Phaser(raiz, 0);
+            int fin = Math.min(inicio + AGENTES_POR_PHASER, vehiculos.size());
+            int registrados = 0;
+            for (ElectricVehicle vehiculo : vehiculos.subList(inicio, fin)) {
+                // Un vehículo que ya espera en una cola empieza bloqueado, fuera del phaser.
+                Agente agente = new Agente(vehiculo, hoja, !vehiculo.estaEsperando(), primerPaso - 1);
+                if (agente.registrado) {
+                    registrados++;
+                }
+                agente.hilo = fabrica.newThread(agente);
+                agente.hilo.setName("agente " + vehiculo.getMatricula());
+                vehiculo.agente = agente;
+                agentes.add(agente);
+            }
+            if (registrados > 0) {
+                hoja.bulkRegister(registrados);
+            }
+        }
+        for (Agente agente : agentes) {
+            agente.hilo.start();
+        }
+    }
+
+    /**
+     * Indica si los agentes se ejecutan en hilos virtuales.
+     */
+    public static boolean usaHilosVirtuales() {
+        return FABRICA_VIRTUAL != null;
+    }
+
+    /**
+     * Fábrica de hilos virtuales si la JVM los ofrece y, si no, de hilos de plataforma.
+     */
+    static ThreadFactory fabricaPorDefecto() {
+        return (FABRICA_VIRTUAL != null) ? FABRICA_VIRTUAL : fabricaPlataforma();
+    }
+
+    /**
+     * Fábrica de hilos virtuales, o null si la JVM no los ofrece.
+     */
+    static ThreadFactory fabricaVirtual() {
+        return FABRICA_VIRTUAL;
+    }
+
+    /**
+     * Fábrica de hilos de plataforma (demonio y con pila reducida).
+     */
+    static ThreadFactory fabricaPlataforma() {
+        return VehicleAgents::hiloPlataforma;
+    }
+
+    // --- Pasos ---
+
+    /**
+     * Fase de actuación de un paso: todos los agentes actúan y el método vuelve
+     * cuando han terminado (o quedado bloqueados en una cola).
+     *
+     * @param step El paso en curso.
+     * @throws IllegalStateException Si algún agente ha fallado.
+     */
+    void actuar(int step) {
+        this.paso = step;
+        for (Phaser provisional : reentradas) {
+            provisional.arriveAndDeregister();
+        }
+        reentradas.clear();
+        reentrada = null;
+        raiz.arriveAndAwaitAdvance();   // fin de la fase de inicio
+        raiz.arriveAndAwaitAdvance();   // fin de la fase de actuación
+        this.ultimoPaso = step;
+        Throwable error = fallo.get();
+        if (error != null) {
+            throw new IllegalStateException("El agente de un vehículo ha fallado en el paso " + step + ".", error);
+        }
+    }
+
+    /**
+     * Termina los agentes y espera a sus hilos. Los vehículos que siguen en una
+     * cola se quedan en ella, como en la ejecución secuencial.
+     */
+    @Override
+    public void close() {
+        terminado = true;
+        for (Agente agente : agentes) {
+            LockSupport.unpark(agente.hilo);
+        }
+        raiz.arriveAndDeregister();
+
+        boolean interrumpido = false;
+        for (Agente agente : agentes) {
+            while (true) {
+                try {
+                    agente.hilo.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            agente.vehiculo.agente = null;
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Métodos internos ---
+
+    private static ThreadFactory buscarFabricaVirtual() {
+        try {
+            Object constructor = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(constructor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 17-20 (o hilos virtuales en vista previa sin activar).
+            return null;
+        }
+    }
+
+    private static Thread hiloPlataforma(Runnable tarea) {
+        Thread hilo = new Thread(null, tarea, "agente", PILA_HILO_PLATAFORMA);
+        hilo.setDaemon(true);
+        return hilo;
+    }
+
+    /**
+     * Registra un agente despertado por el hilo actual y devuelve su nuevo phaser.
+     * <p>
+     * {@link Phaser#register} espera al siguiente paso si todos los participantes
+     * del phaser ya han llegado, así que el agente entra en uno donde seguro que
+     * queda alguno por llegar: el del agente que lo despierta o, si lo despierta
+     * el hilo que simula al terminar sesiones, uno de reentrada que conserva un
+     * participante provisional hasta que {@link #actuar} lo retira.
+     * </p>
+     */
+    private Phaser registrarDespertado() {
+        Agente despertador = agenteDelHilo.get();
+        if (despertador != null) {
+            Phaser suyo = despertador.hoja;
+            if (suyo.getRegisteredParties() < MAX_PARTICIPANTES) {
+                suyo.register();
+                return suyo;
+            }
+            // La raíz tampoco ha llegado: el phaser del despertador la retiene.
+            return new Phaser(raiz, 1);
+        }
+        if (reentrada == null || reentrada.getRegisteredParties() > AGENTES_POR_PHASER) {
+            reentrada = new Phaser(raiz, 1);
+            reentradas.add(reentrada);
+        }
+        reentrada.register();
+        return reentrada;
+    }
+
+    /**
+     * Un vehículo y su hilo.
+     */
+    final class Agente implements Runnable {
+        private final ElectricVehicle vehiculo;
+        /** Phaser en el que participa; cambia al despertar tras una espera. */
+        private Phaser hoja;
+        private Thread hilo;
+
+        /** Si participa en el phaser (false mientras espera un cargador). */
+        private volatile boolean registrado;
+        /** Último paso en que el vehículo actuó antes de bloquearse. */
+        private int pasoEspera;
+
+        // Cargador recibido en la cola; lo escribe quien lo libera.
+        private ChargingStation estacionConcedida;
+        private Charger cargadorConcedido;
+        private int pasoConcedido;
+        private boolean enActuacion;
+        private volatile boolean concedido;
+
+        private Agente(ElectricVehicle vehiculo, Phaser hoja, boolean registrado, int pasoEspera) {
+            this.vehiculo = vehiculo;
+            this.hoja = hoja;
+            this.registrado = registrado;
+            this.pasoEspera = pasoEspera;
+        }
+
+        @Override
+        public void run() {
+            agenteDelHilo.set(this);
+            try {
+                if (!registrado && !esperarCargador()) {
+                    return;
+                }
+                int fase = hoja.getPhase();
+                while (!terminado) {
+                    if ((fase & 1) == 0) {
+                        fase = hoja.arriveAndAwaitAdvance();
+                        continue;
+                    }
+                    // Se lee una vez: tras quedar en espera el agente ya no retiene el paso.
+                    int pasoActual = paso;
+                    vehiculo.act(pasoActual);
+                    if (vehiculo.estaEsperando()) {
+                        pasoEspera = pasoActual;
+                        if (!esperarCargador()) {
+                            return;
+                        }
+                    }
+                    // Tras una espera puede tocar la fase de inicio: la paridad lo resuelve.
+                    fase = hoja.arriveAndAwaitAdvance();
+                }
+                hoja.arriveAndDeregister();
+            } catch (RuntimeException | Error e) {
+                fallo.compareAndSet(null, e);
+                if (registrado) {
+                    registrado = false;
+                    hoja.arriveAndDeregister();
+                }
+            }
+        }
+
+        /**
+         * Sale del phaser al quedar en la cola de una estación. La llama
+         * {@link ElectricVehicle#ponerEnEspera} bajo el cerrojo de las colas,
+         * antes de que nadie pueda sacar al vehículo de la cola.
+         */
+        void salirDeLosPasos() {
+            registrado = false;
+            hoja.arriveAndDeregister();
+        }
+
+        /**
+         * Pasa un cargador al vehículo y lo devuelve al phaser en la fase en curso.
+         * La llama quien libera el cargador, que sigue registrado sin haber llegado.
+         */
+        void conceder(ChargingStation estacion, Charger cargador, int step) {
+            hoja = registrarDespertado();
+            registrado = true;
+            estacionConcedida = estacion;
+            cargadorConcedido = cargador;
+            pasoConcedido = step;
+            enActuacion = (hoja.getPhase() & 1) == 1;
+            concedido = true;
+            LockSupport.unpark(hilo);
+        }
+
+        /**
+         * Bloquea el hilo hasta recibir un cargador y hace la recarga.
+         *
+         * @return false si la simulación terminó antes.
+         */
+        private boolean esperarCargador() {
+            while (!concedido) {
+                if (terminado) {
+                    vehiculo.incrementIdleCount(ultimoPaso - pasoEspera);
+                    return false;
+                }
+                LockSupport.park(this);
+            }
+            concedido = false;
+            // Pasos completos en la cola: los mismos que en la ejecución secuencial.
+            vehiculo.incrementIdleCount(pasoConcedido - pasoEspera - (enActuacion ? 0 : 1));
+            if (!vehiculo.recargarDesdeCola(estacionConcedida, cargadorConcedido, pasoConcedido)) {
+                estacionConcedida.liberarCargador(cargadorConcedido, pasoConcedido);
+            }
+            estacionConcedida = null;
+            cargadorConcedido = null;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Clase de prueba para la ejecución con agentes.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+public class VehicleAgentsTest {
+    @Rule
+    public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /**
+     * Con carga temporizada y un cargador por estación se forman colas: los
+     * agentes esperan bloqueados, la simulación termina y las recargas de los
+     * vehículos cuadran con las de los cargadores.
+     */
+    @Test
+    public void testAgentesConColas() {
+        EVDemo demo = crear(true);
+        demo.simularConAgentes(EVDemo.MAXSTEPS);
+
+        assertEquals(EVDemo.MAXSTEPS, demo.getSiguientePaso());
+        comprobarTotales(demo);
+        assertTrue(esperando(demo) > 0);
+        assertFalse(quedanAgentes());
+    }
+
+    /**
+     * Se puede alternar la ejecución con agentes y la secuencial en la misma
+     * simulación, también con vehículos que ya esperan en una cola.
+     */
+    @Test
+    public void testAlternarConSecuencial() {
+        EVDemo demo = crear(true);
+        demo.simularConAgentes(15);
+        demo.simular(30);
+        demo.simularConAgentes(EVDemo.MAXSTEPS);
+
+        comprobarTotales(demo);
+        for (ElectricVehicle vehiculo : demo.getVehicles()) {
+            assertNull(vehiculo.agente);
+        }
+        assertFalse(quedanAgentes());
+    }
+
+    /**
+     * Con recarga instantánea ningún vehículo queda esperando al terminar.
+     */
+    @Test
+    public void testAgentesRecargaInstantanea() {
+        EVDemo demo = crear(false);
+        demo.simularConAgentes(EVDemo.MAXSTEPS);
+
+        comprobarTotales(demo);
+        assertEquals(0, esperando(demo));
+    }
+
+    /**
+     * Con llegadas a la cola en pasos distintos el resultado no depende del orden
+     * de los hilos: cada vehículo (inactividad incluida), estación y cargador
+     * termina igual que en la ejecución secuencial.
+     */
+    @Test
+    public void testMismoEstadoQueSecuencial() {
+        comprobarIgualASecuencial(VehicleAgents.fabricaPlataforma());
+    }
+
+    /**
+     * Lo mismo con hilos virtuales (solo en JVM que los ofrecen).
+     */
+    @Test
+    public void testMismoEstadoQueSecuencialConHilosVirtuales() {
+        Assume.assumeTrue(VehicleAgents.usaHilosVirtuales());
+        comprobarIgualASecuencial(VehicleAgents.fabricaVirtual());
+    }
+
+    /**
+     * Los hilos virtuales se usan si y solo si la JVM los ofrece; si no, los
+     * agentes usan hilos de plataforma demonio.
+     */
+    @Test
+    public void testFabricaDeHilos() {
+        assertEquals(Runtime.version().feature() >= 21, VehicleAgents.usaHilosVirtuales());
+        if (!VehicleAgents.usaHilosVirtuales()) {
+            assertNull(VehicleAgents.fabricaVirtual());
+        }
+        Thread hilo = VehicleAgents.fabricaPlataforma().newThread(() -> { });
+        assertTrue(hilo.isDaemon());
+        assertNotNull(VehicleAgents.fabricaPorDefecto().newThread(() -> { }));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRegistroDeDecisionesNoAdmitido() throws IOException {
+        EVDemo demo = crear(false);
+        Path fichero = carpeta.getRoot().toPath().resolve("decisiones.evd");
+        try (DecisionLog registro = DecisionLog.grabar(fichero, demo.getCompany())) {
+            demo.getCompany().setDecisiones(registro);
+            demo.simularConAgentes(EVDemo.MAXSTEPS);
+        }
+    }
+
+    // --- Métodos auxiliares ---
+
+    private static EVDemo crear(boolean temporizada) {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        compania.setCargaTemporizada(temporizada);
+        ScenarioGenerator generador = new ScenarioGenerator(300, 4, 5L);
+        generador.setCargadoresPorEstacion(1, 1);
+        generador.setVelocidadCarga(5, 10);
+        return new EVDemo(compania, generador, false);
+    }
+
+    /**
+     * Una estación con un cargador lento y vehículos que llegan a ella en pasos
+     * sucesivos, así que esperan turno en un orden que no depende de los hilos.
+     */
+    private static EVDemo crearCola() {
+        EVCompany compania = EVCompany.newInstance();
+        compania.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        compania.setCargaTemporizada(true);
+        ScenarioSource origen = (c, destino) -> {
+            ChargingStation estacion = new ChargingStation("Cáceres", "CC00", new Location(10, 0));
+            destino.estacion(estacion);
+            destino.cargador(estacion, new StandardCharger("CC00_000", 2, 0.2f));
+            for (int distancia = 1; distancia <= 5; distancia++) {
+                // 25 kwh (5 pasos): el destino queda a distancia + 5, así que todos recargan.
+                destino.vehiculo(new StandardEV(c, new Location(10 - distancia, 0), new Location(15, 0),
+                                                "EV" + distancia, "000" + distancia + "AAA", 25));
+            }
+        };
+        return new EVDemo(compania, origen, false);
+    }
+
+    private static void comprobarIgualASecuencial(ThreadFactory fabrica) {
+        EVDemo secuencial = crearCola();
+        ChargingStation estacion = secuencial.getCompany().getCityStations().get(0);
+        int maxEsperando = 0;
+        for (int paso = 1; paso <= EVDemo.MAXSTEPS; paso++) {
+            secuencial.simular(paso);
+            maxEsperando = Math.max(maxEsperando, estacion.getNumVehiculosEsperando());
+        }
+        // Ha habido esperas en la cola, no solo recargas directas.
+        assertTrue(maxEsperando > 1);
+        assertEquals(5, estacion.getNumerEVRecharged());
+
+        EVDemo conAgentes = crearCola();
+        conAgentes.simularConAgentes(EVDemo.MAXSTEPS, fabrica);
+
+        for (int i = 0; i < secuencial.getVehicles().size(); i++) {
+            ElectricVehicle esperado = secuencial.getVehicles().get(i);
+            ElectricVehicle obtenido = conAgentes.getVehicles().get(i);
+            assertEquals(esperado.toString(), obtenido.toString());
+            assertEquals(esperado.contadorInactividad, obtenido.contadorInactividad);
+            assertEquals(esperado.getArrivingStep(), obtenido.getArrivingStep());
+        }
+        for (int i = 0; i < secuencial.getCompany().getCityStations().size(); i++) {
+            assertEquals(secuencial.getCompany().getCityStations().get(i).getCompleteInfo(),
+                         conAgentes.getCompany().getCityStations().get(i).getCompleteInfo());
+        }
+    }
+
+    /** Recargas y cobros de los vehículos y de los cargadores, y colas de las estaciones. */
+    private static void comprobarTotales(EVDemo demo) {
+        long recargas = 0;
+        long coste = 0;
+        for (ElectricVehicle vehiculo : demo.getVehicles()) {
+            recargas += vehiculo.getChargesCount();
+            coste += vehiculo.getCosteTotalMicros();
+        }
+        long recargasCargadores = 0;
+        long recaudado = 0;
+        int enCola = 0;
+        for (ChargingStation estacion : demo.getCompany().getCityStations()) {
+            recargasCargadores += estacion.getNumerEVRecharged();
+            enCola += estacion.getNumVehiculosEsperando();
+            for (Charger cargador : estacion.getChargers()) {
+                recaudado += cargador.getRecaudadoMicros();
+            }
+        }
+        assertTrue(recargas > 0);
+        assertEquals(recargas, recargasCargadores);
+        assertEquals(coste, recaudado);
+        assertEquals(esperando(demo), enCola);
+    }
+
+    private static int esperando(EVDemo demo) {
+        int esperando = 0;
+        for (ElectricVehicle vehiculo : demo.getVehicles()) {
+            if (vehiculo.estaEsperando()) {
+                esperando++;
+            }
+        }
+        return esperando;
+    }
+
+    private static boolean quedanAgentes() {
+        for (Thread hilo : Thread.getAllStackTraces().keySet()) {
+            if (hilo.getName().startsWith("agente ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -26,22 +26,33 @@ public class VtcEV extends ElectricVehicle {
         compania.notificarRecarga(this, cargador);
     }
     
+    /**
+     * La elección depende de los cargadores instalados en cada estación.
+     */
+    @Override
+    protected boolean dependeDeCargadores() {
+        return true;
+    }
+    
     @Override
     protected ChargingStation seleccionarMejorEstacion(List<ChargingStation> estaciones) {
         // ESTRATEGIA: BUSCAR EL CARGADOR MÁS BARATO
         ChargingStation mejorEstacion = null;
-        float minTarifa = Float.MAX_VALUE;
+        double minTarifa = Double.MAX_VALUE;
         
         for (ChargingStation estacion : estaciones) {
             if (localizacion.equals(estacion.getLocation())) continue;
             
             if (enoughBattery(localizacion.distance(estacion.getLocation()))) {
+                // LA CONGESTIÓN ENCARECE LA TARIFA (FACTOR 1 SI LA POLÍTICA ESTÁ DESACTIVADA)
+                double factor = 1 + penalizacionCongestion(estacion);
                 
                 for (Charger ch : estacion.getChargers()) {
                     // VERIFICAMOS SI ES STANDARD O SOLAR
                     if (ch instanceof StandardCharger || ch instanceof SolarCharger) {
-                        if (ch.getTarifaCarga() < minTarifa) {
-                            minTarifa = ch.getTarifaCarga();
+                        double tarifa = ch.getTarifaCarga() * factor;
+                        if (tarifa < minTarifa) {
+                            minTarifa = tarifa;
                             mejorEstacion = estacion;
                         }
                         // EN CASO DE EMPATE DEBERÍAMOS SELECCIONAR EL PRIMERO SEGÚN ORDEN
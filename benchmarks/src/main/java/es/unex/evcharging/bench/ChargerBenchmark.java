@@ -0,0 +1,58 @@
+package es.unex.evcharging.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Charger.recharge} de cada tipo de cargador con un vehículo compatible:
+ * compatibilidad, coste y métricas (recaudación e historial).
+ * El cargador se crea de nuevo en cada iteración para que el historial no crezca
+ * sin límite.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChargerBenchmark {
+    @Param({"STANDARD", "SOLAR", "PRIORITY", "ULTRAFAST"})
+    public String tipo;
+
+    private Object cargador;
+    private Object vehiculo;
+
+    @Setup(Level.Iteration)
+    public void preparar() throws Throwable {
+        cargador = Simulacion.cargador(Simulacion.tipoCargador(tipo), "CH1", 40, 0.35f);
+
+        Object compatible = null;
+        for (Object tipoVehiculo : Simulacion.tiposVehiculo()) {
+            if (Simulacion.esCompatible(cargador, tipoVehiculo)) {
+                compatible = tipoVehiculo;
+                break;
+            }
+        }
+        vehiculo = Simulacion.vehiculo(compatible, Simulacion.compania(), Simulacion.localizacion(1, 1),
+                                       Simulacion.localizacion(10, 10), "0000BEN", 80);
+    }
+
+    @Benchmark
+    public float recharge() throws Throwable {
+        return Simulacion.recharge(cargador, vehiculo, 40);
+    }
+}
@@ -0,0 +1,58 @@
+package es.unex.evcharging.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code ChargingStation.addCharger}: llenar una estación vacía con N cargadores de
+ * velocidad y tarifa al azar (la estación mantiene la lista ordenada).
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChargingStationBenchmark {
+    @Param({"4", "32", "256"})
+    public int numCargadores;
+
+    private Object localizacion;
+    private Object[] cargadores;
+
+    @Setup
+    public void preparar() throws Throwable {
+        SplittableRandom aleatorio = new SplittableRandom(3L);
+        Object tipo = Simulacion.tipoCargador("STANDARD");
+        localizacion = Simulacion.localizacion(5, 5);
+        cargadores = new Object[numCargadores];
+        for (int i = 0; i < numCargadores; i++) {
+            int velocidad = 20 + aleatorio.nextInt(141);
+            float tarifa = (20 + aleatorio.nextInt(61)) / 100f;
+            cargadores[i] = Simulacion.cargador(tipo, "CH" + i, velocidad, tarifa);
+        }
+    }
+
+    @Benchmark
+    public Object addCharger() throws Throwable {
+        Object estacion = Simulacion.estacion("BEN", localizacion);
+        for (Object cargador : cargadores) {
+            Simulacion.addCharger(estacion, cargador);
+        }
+        return estacion;
+    }
+}
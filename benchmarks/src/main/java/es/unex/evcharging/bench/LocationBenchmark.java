@@ -0,0 +1,58 @@
+package es.unex.evcharging.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Location.nextLocation} y {@code Location.distance} sobre pares de puntos
+ * al azar de la ciudad (se recorren en círculo para que el JIT no pliegue la entrada).
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocationBenchmark {
+    private static final int PARES = 1024;
+
+    private Object[] origenes;
+    private Object[] destinos;
+    private int siguiente;
+
+    @Setup
+    public void preparar() throws Throwable {
+        SplittableRandom aleatorio = new SplittableRandom(1L);
+        origenes = new Object[PARES];
+        destinos = new Object[PARES];
+        for (int i = 0; i < PARES; i++) {
+            origenes[i] = Simulacion.localizacion(1 + aleatorio.nextInt(20), 1 + aleatorio.nextInt(20));
+            destinos[i] = Simulacion.localizacion(1 + aleatorio.nextInt(20), 1 + aleatorio.nextInt(20));
+        }
+    }
+
+    @Benchmark
+    public Object nextLocation() throws Throwable {
+        int i = siguiente++ & (PARES - 1);
+        return Simulacion.nextLocation(origenes[i], destinos[i]);
+    }
+
+    @Benchmark
+    public int distance() throws Throwable {
+        int i = siguiente++ & (PARES - 1);
+        return Simulacion.distance(origenes[i], destinos[i]);
+    }
+}
@@ -0,0 +1,71 @@
+package es.unex.evcharging.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code EVCompany.notificarRecarga} con el registro síncrono y con el canal
+ * asíncrono, recorriendo todas las parejas vehículo-cargador de un escenario.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationBenchmark {
+    @Param({"false", "true"})
+    public boolean asincrona;
+
+    @Param({"1000", "100000"})
+    public int numVehiculos;
+
+    private Object compania;
+    private Object[] vehiculos;
+    private Object[] cargadores;
+    private int siguienteVehiculo;
+    private int siguienteCargador;
+
+    @Setup(Level.Iteration)
+    public void preparar() throws Throwable {
+        compania = Simulacion.compania();
+        Object demo = Simulacion.demo(compania, Simulacion.generador(numVehiculos, 50, 5L));
+        vehiculos = Simulacion.vehiculos(demo).toArray();
+        cargadores = Simulacion.cargadores(demo).toArray();
+        Simulacion.setNotificacionAsincrona(compania, asincrona);
+    }
+
+    @TearDown(Level.Iteration)
+    public void terminar() throws Throwable {
+        Simulacion.flushNotificaciones(compania);
+        Simulacion.setNotificacionAsincrona(compania, false);
+    }
+
+    @Benchmark
+    public void notificarRecarga() throws Throwable {
+        Object vehiculo = vehiculos[siguienteVehiculo];
+        Object cargador = cargadores[siguienteCargador];
+        if (++siguienteVehiculo == vehiculos.length) {
+            siguienteVehiculo = 0;
+        }
+        if (++siguienteCargador == cargadores.length) {
+            siguienteCargador = 0;
+        }
+        Simulacion.notificarRecarga(compania, vehiculo, cargador);
+    }
+}
@@ -0,0 +1,63 @@
+package es.unex.evcharging.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code seleccionarMejorEstacion} de cada tipo de vehículo frente a redes de
+ * distinto tamaño. Los vehículos tienen poca batería, así que solo alcanzan
+ * parte de las estaciones, como en la simulación.
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RouteSelectionBenchmark {
+    private static final int VEHICULOS = 256;
+
+    @Param({"STANDARD", "PRIORITY", "VTC", "PREMIUM"})
+    public String tipo;
+
+    @Param({"5", "100", "1000"})
+    public int numEstaciones;
+
+    private Object estaciones;
+    private Object[] vehiculos;
+    private int siguiente;
+
+    @Setup
+    public void preparar() throws Throwable {
+        Object compania = Simulacion.compania();
+        Object generador = Simulacion.generador(VEHICULOS, numEstaciones, 7L);
+        for (Object otro : Simulacion.tiposVehiculo()) {
+            Simulacion.setPesoTipo(generador, otro, 0);
+        }
+        Simulacion.setPesoTipo(generador, Simulacion.tipoVehiculo(tipo), 1);
+        Simulacion.setCapacidadBateria(generador, 20, 60);
+
+        Object demo = Simulacion.demo(compania, generador);
+        estaciones = Simulacion.getCityStations(compania);
+        vehiculos = Simulacion.vehiculos(demo).toArray();
+    }
+
+    @Benchmark
+    public Object seleccionarMejorEstacion() throws Throwable {
+        Object vehiculo = vehiculos[siguiente++ & (VEHICULOS - 1)];
+        return Simulacion.seleccionarMejorEstacion(vehiculo, estaciones);
+    }
+}
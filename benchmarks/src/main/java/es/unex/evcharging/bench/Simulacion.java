@@ -0,0 +1,295 @@
+package es.unex.evcharging.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acceso a las clases de la simulación desde las pruebas de rendimiento.
+ * <p>
+ * La simulación está en el paquete por defecto (proyecto BlueJ), que no se puede
+ * importar desde un paquete con nombre, y JMH no admite pruebas en el paquete por
+ * defecto. Por eso cada operación se enlaza una vez con un {@link MethodHandle}
+ * guardado en un campo {@code static final}: el JIT lo trata como constante y
+ * {@code invokeExact} se compila igual que una llamada directa, sin coste de
+ * reflexión dentro de la medida.
+ * </p>
+ * <p>
+ * Los tipos de la simulación aparecen aquí como {@code Object}.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+final class Simulacion {
+    // --- Clases de la simulación ---
+    private static final Class<?> LOCATION = clase("Location");
+    private static final Class<?> ELECTRIC_VEHICLE = clase("ElectricVehicle");
+    private static final Class<?> VEHICLE_TIER = clase("VehicleTier");
+    private static final Class<?> VEHICLE_FACTORY = clase("VehicleFactory");
+    private static final Class<?> CHARGER = clase("Charger");
+    private static final Class<?> CHARGER_FACTORY = clase("ChargerFactory");
+    private static final Class<?> CHARGER_TYPE = clase("ChargerFactory$ChargerType");
+    private static final Class<?> CHARGING_STATION = clase("ChargingStation");
+    private static final Class<?> EV_COMPANY = clase("EVCompany");
+    private static final Class<?> EV_DEMO = clase("EVDemo");
+    private static final Class<?> SCENARIO_SOURCE = clase("ScenarioSource");
+    private static final Class<?> SCENARIO_GENERATOR = clase("ScenarioGenerator");
+
+    // --- Operaciones ---
+    private static final MethodHandle NUEVA_LOCALIZACION = constructor(LOCATION, int.class, int.class);
+    private static final MethodHandle NEXT_LOCATION = virtual(LOCATION, "nextLocation", LOCATION, LOCATION);
+    private static final MethodHandle DISTANCE = virtual(LOCATION, "distance", int.class, LOCATION);
+
+    private static final MethodHandle CREATE_VEHICLE = estatico(VEHICLE_FACTORY, "createVehicle", ELECTRIC_VEHICLE,
+        VEHICLE_TIER, EV_COMPANY, LOCATION, LOCATION, String.class, String.class, int.class);
+    private static final MethodHandle SELECCIONAR_MEJOR_ESTACION = virtual(ELECTRIC_VEHICLE,
+        "seleccionarMejorEstacion", CHARGING_STATION, List.class);
+
+    private static final MethodHandle CREATE_CHARGER = estatico(CHARGER_FACTORY, "createCharger", CHARGER,
+        CHARGER_TYPE, String.class, int.class, float.class);
+    private static final MethodHandle RECHARGE = virtual(CHARGER, "recharge", float.class, ELECTRIC_VEHICLE, int.class);
+    private static final MethodHandle ES_COMPATIBLE = virtual(CHARGER, "esCompatible", boolean.class, VEHICLE_TIER);
+
+    private static final MethodHandle NUEVA_ESTACION = constructor(CHARGING_STATION, String.class, String.class, LOCATION);
+    private static final MethodHandle ADD_CHARGER = virtual(CHARGING_STATION, "addCharger", void.class, CHARGER);
+    private static final MethodHandle GET_CHARGERS = virtual(CHARGING_STATION, "getChargers", List.class);
+
+    private static final MethodHandle NEW_INSTANCE = estatico(EV_COMPANY, "newInstance", EV_COMPANY);
+    private static final MethodHandle SET_SALIDA = virtual(EV_COMPANY, "setSalida", void.class, PrintStream.class);
+    private static final MethodHandle GET_CITY_STATIONS = virtual(EV_COMPANY, "getCityStations", List.class);
+    private static final MethodHandle NOTIFICAR_RECARGA = virtual(EV_COMPANY, "notificarRecarga", void.class,
+        ELECTRIC_VEHICLE, CHARGER);
+    private static final MethodHandle SET_NOTIFICACION_ASINCRONA = virtual(EV_COMPANY, "setNotificacionAsincrona",
+        void.class, boolean.class);
+    private static final MethodHandle FLUSH_NOTIFICACIONES = virtual(EV_COMPANY, "flushNotificaciones", void.class);
+
+    private static final MethodHandle NUEVO_GENERADOR = constructor(SCENARIO_GENERATOR, int.class, int.class, long.class);
+    private static final MethodHandle SET_TAMANO_CIUDAD = virtual(SCENARIO_GENERATOR, "setTamanoCiudad", void.class,
+        int.class, int.class);
+    private static final MethodHandle SET_CAPACIDAD_BATERIA = virtual(SCENARIO_GENERATOR, "setCapacidadBateria",
+        void.class, int.class, int.class);
+    private static final MethodHandle SET_PESO_TIPO = virtual(SCENARIO_GENERATOR, "setPesoTipo", void.class,
+        VEHICLE_TIER, int.class);
+
+    private static final MethodHandle NUEVA_DEMO = constructor(EV_DEMO, EV_COMPANY, SCENARIO_SOURCE, boolean.class);
+    private static final MethodHandle SET_INFORME_POR_PASO = virtual(EV_DEMO, "setInformePorPaso", void.class, boolean.class);
+    private static final MethodHandle GET_VEHICLES = virtual(EV_DEMO, "getVehicles", List.class);
+    private static final MethodHandle GET_STATIONS = virtual(EV_DEMO, "getStations", List.class);
+    private static final MethodHandle STEP = virtual(EV_DEMO, "step", void.class, int.class);
+    private static final MethodHandle REINICIAR = virtual(EV_DEMO, "reiniciar", void.class);
+
+    /** Salida que descarta todo, para que la medida no incluya E/S. */
+    static final PrintStream SALIDA_NULA = new PrintStream(OutputStream.nullOutputStream());
+
+    private Simulacion() {
+        // Clase de utilidades: no se instancia.
+    }
+
+    // --- Location ---
+
+    static Object localizacion(int x, int y) throws Throwable {
+        return (Object) NUEVA_LOCALIZACION.invokeExact(x, y);
+    }
+
+    static Object nextLocation(Object origen, Object destino) throws Throwable {
+        return (Object) NEXT_LOCATION.invokeExact(origen, destino);
+    }
+
+    static int distance(Object origen, Object destino) throws Throwable {
+        return (int) DISTANCE.invokeExact(origen, destino);
+    }
+
+    // --- Vehículos ---
+
+    static Object tipoVehiculo(String nombre) {
+        return constante(VEHICLE_TIER, nombre);
+    }
+
+    static Object[] tiposVehiculo() {
+        return VEHICLE_TIER.getEnumConstants();
+    }
+
+    static Object vehiculo(Object tipo, Object compania, Object origen, Object destino, String matricula,
+                           int capacidad) throws Throwable {
+        return (Object) CREATE_VEHICLE.invokeExact(tipo, compania, origen, destino, (Object) matricula,
+                                                   (Object) matricula, capacidad);
+    }
+
+    static Object seleccionarMejorEstacion(Object vehiculo, Object estaciones) throws Throwable {
+        return (Object) SELECCIONAR_MEJOR_ESTACION.invokeExact(vehiculo, estaciones);
+    }
+
+    // --- Cargadores y estaciones ---
+
+    static Object tipoCargador(String nombre) {
+        return constante(CHARGER_TYPE, nombre);
+    }
+
+    static Object cargador(Object tipo, String id, int velocidad, float tarifa) throws Throwable {
+        return (Object) CREATE_CHARGER.invokeExact(tipo, (Object) id, velocidad, tarifa);
+    }
+
+    static float recharge(Object cargador, Object vehiculo, int kwh) throws Throwable {
+        return (float) RECHARGE.invokeExact(cargador, vehiculo, kwh);
+    }
+
+    static boolean esCompatible(Object cargador, Object tipo) throws Throwable {
+        return (boolean) ES_COMPATIBLE.invokeExact(cargador, tipo);
+    }
+
+    static Object estacion(String id, Object localizacion) throws Throwable {
+        return (Object) NUEVA_ESTACION.invokeExact((Object) "Caceres", (Object) id, localizacion);
+    }
+
+    static void addCharger(Object estacion, Object cargador) throws Throwable {
+        ADD_CHARGER.invokeExact(estacion, cargador);
+    }
+
+    // --- Compañía ---
+
+    /** Compañía nueva que descarta su salida. */
+    static Object compania() throws Throwable {
+        Object compania = (Object) NEW_INSTANCE.invokeExact();
+        SET_SALIDA.invokeExact(compania, (Object) SALIDA_NULA);
+        return compania;
+    }
+
+    static Object getCityStations(Object compania) throws Throwable {
+        return (Object) GET_CITY_STATIONS.invokeExact(compania);
+    }
+
+    static void notificarRecarga(Object compania, Object vehiculo, Object cargador) throws Throwable {
+        NOTIFICAR_RECARGA.invokeExact(compania, vehiculo, cargador);
+    }
+
+    static void setNotificacionAsincrona(Object compania, boolean activa) throws Throwable {
+        SET_NOTIFICACION_ASINCRONA.invokeExact(compania, activa);
+    }
+
+    static void flushNotificaciones(Object compania) throws Throwable {
+        FLUSH_NOTIFICACIONES.invokeExact(compania);
+    }
+
+    // --- Escenarios ---
+
+    /**
+     * Generador de escenarios; la ciudad crece con la red para que quepan las estaciones.
+     */
+    static Object generador(int numVehiculos, int numEstaciones, long semilla) throws Throwable {
+        Object generador = (Object) NUEVO_GENERADOR.invokeExact(numVehiculos, numEstaciones, semilla);
+        int lado = Math.max(20, (int) Math.ceil(Math.sqrt(numEstaciones * 4.0)));
+        SET_TAMANO_CIUDAD.invokeExact(generador, lado, lado);
+        return generador;
+    }
+
+    static void setCapacidadBateria(Object generador, int min, int max) throws Throwable {
+        SET_CAPACIDAD_BATERIA.invokeExact(generador, min, max);
+    }
+
+    static void setPesoTipo(Object generador, Object tipo, int peso) throws Throwable {
+        SET_PESO_TIPO.invokeExact(generador, tipo, peso);
+    }
+
+    /** Simulación preparada (rutas iniciales calculadas) y sin informe por paso. */
+    static Object demo(Object compania, Object generador) throws Throwable {
+        Object demo = (Object) NUEVA_DEMO.invokeExact(compania, generador, false);
+        SET_INFORME_POR_PASO.invokeExact(demo, false);
+        return demo;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> vehiculos(Object demo) throws Throwable {
+        return (List<Object>) (Object) GET_VEHICLES.invokeExact(demo);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> estaciones(Object demo) throws Throwable {
+        return (List<Object>) (Object) GET_STATIONS.invokeExact(demo);
+    }
+
+    /** Todos los cargadores de la simulación, estación a estación. */
+    static List<Object> cargadores(Object demo) throws Throwable {
+        List<Object> cargadores = new ArrayList<>();
+        for (Object estacion : estaciones(demo)) {
+            cargadores.addAll((List<?>) (Object) GET_CHARGERS.invokeExact(estacion));
+        }
+        return cargadores;
+    }
+
+    static void step(Object demo, int paso) throws Throwable {
+        STEP.invokeExact(demo, paso);
+    }
+
+    /** Vuelve al inicio reutilizando los objetos de la simulación. */
+    static void reiniciar(Object demo) throws Throwable {
+        REINICIAR.invokeExact(demo);
+    }
+
+    // --- Enlace ---
+
+    private static Class<?> clase(String nombre) {
+        try {
+            return Class.forName(nombre);
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError("Falta la clase de la simulación " + nombre
+                + ": instala antes el jar de la raíz (mvn install).");
+        }
+    }
+
+    private static Object constante(Class<?> enumerado, String nombre) {
+        for (Object constante : enumerado.getEnumConstants()) {
+            if (((Enum<?>) constante).name().equals(nombre)) {
+                return constante;
+            }
+        }
+        throw new IllegalArgumentException(enumerado.getSimpleName() + " no tiene " + nombre);
+    }
+
+    private static MethodHandle virtual(Class<?> clase, String metodo, Class<?> retorno, Class<?>... parametros) {
+        try {
+            return generico(acceso(clase).findVirtual(clase, metodo, MethodType.methodType(retorno, parametros)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle estatico(Class<?> clase, String metodo, Class<?> retorno, Class<?>... parametros) {
+        try {
+            return generico(acceso(clase).findStatic(clase, metodo, MethodType.methodType(retorno, parametros)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> clase, Class<?>... parametros) {
+        try {
+            return generico(acceso(clase).findConstructor(clase, MethodType.methodType(void.class, parametros)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Acceso completo (también a lo protegido): todo está en el módulo sin nombre. */
+    private static MethodHandles.Lookup acceso(Class<?> clase) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(clase, MethodHandles.lookup());
+    }
+
+    /** Cambia los tipos de referencia por Object, para poder invocarlo desde aquí. */
+    private static MethodHandle generico(MethodHandle operacion) {
+        MethodType tipo = operacion.type();
+        for (int i = 0; i < tipo.parameterCount(); i++) {
+            if (!tipo.parameterType(i).isPrimitive()) {
+                tipo = tipo.changeParameterType(i, Object.class);
+            }
+        }
+        if (!tipo.returnType().isPrimitive()) {
+            tipo = tipo.changeReturnType(Object.class);
+        }
+        return operacion.asType(tipo);
+    }
+}
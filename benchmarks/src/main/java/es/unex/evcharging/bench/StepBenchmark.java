@@ -0,0 +1,64 @@
+package es.unex.evcharging.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code EVDemo.step} completo con flotas de 10^3 a 10^6 vehículos (una estación
+ * por cada 100 vehículos), sin informe por paso.
+ * <p>
+ * Cada invocación simula los primeros {@link #PASOS} pasos desde el inicio del
+ * escenario, que es donde se concentran los movimientos, rutas y recargas; el
+ * resultado es el tiempo medio por paso. El escenario se crea una vez por prueba
+ * y se reinicia en sitio antes de cada invocación, fuera de la medida.
+ * </p>
+ *
+ * @author Pablo Carrasco Caballero
+ * @version 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Thread)
+public class StepBenchmark {
+    static final int PASOS = 10;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int numVehiculos;
+
+    private Object demo;
+
+    @Setup(Level.Trial)
+    public void crear() throws Throwable {
+        Object generador = Simulacion.generador(numVehiculos, Math.max(5, numVehiculos / 100), 11L);
+        demo = Simulacion.demo(Simulacion.compania(), generador);
+    }
+
+    @Setup(Level.Invocation)
+    public void reiniciar() throws Throwable {
+        Simulacion.reiniciar(demo);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PASOS)
+    public Object step() throws Throwable {
+        for (int paso = 1; paso <= PASOS; paso++) {
+            Simulacion.step(demo, paso);
+        }
+        return demo;
+    }
+}